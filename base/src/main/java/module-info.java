@@ -13,6 +13,8 @@ module org.dcm4che.base {
     exports org.dcm4che6.util;
     exports org.dcm4che6.util.function;
 
+    requires jdk.jfr;
+
     uses ElementDictionary;
 
     provides FileTypeDetector with DicomFileDetector;
@@ -6,6 +6,9 @@ import org.dcm4che6.util.function.ItemConsumer;
 import org.dcm4che6.util.function.StringValueConsumer;
 
 import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -55,6 +58,33 @@ public interface DicomElement {
 
     default double[] doubleValues() { return EMPTY_DOUBLES; }
 
+    default int intValues(int[] dest, int destPos) {
+        int[] values = intValues();
+        int n = Math.min(values.length, dest.length - destPos);
+        System.arraycopy(values, 0, dest, destPos, n);
+        return n;
+    }
+
+    default int floatValues(float[] dest, int destPos) {
+        float[] values = floatValues();
+        int n = Math.min(values.length, dest.length - destPos);
+        System.arraycopy(values, 0, dest, destPos, n);
+        return n;
+    }
+
+    default int doubleValues(double[] dest, int destPos) {
+        double[] values = doubleValues();
+        int n = Math.min(values.length, dest.length - destPos);
+        System.arraycopy(values, 0, dest, destPos, n);
+        return n;
+    }
+
+    default Optional<IntBuffer> intBuffer() { return Optional.empty(); }
+
+    default Optional<FloatBuffer> floatBuffer() { return Optional.empty(); }
+
+    default Optional<DoubleBuffer> doubleBuffer() { return Optional.empty(); }
+
     default <E extends Throwable> void forEachStringValue(StringValueConsumer<E> action) throws E {
         vr().type.forEachStringValue(this, action);
     }
@@ -9,6 +9,10 @@ import org.dcm4che6.util.OptionalFloat;
 import org.dcm4che6.util.StringUtils;
 import org.dcm4che6.util.TagUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -198,6 +202,122 @@ public enum BinaryVR implements VRType {
         return a;
     }
 
+    @Override
+    public int intValues(DicomInput input, long valpos, int vallen, int[] dest, int destPos) {
+        int n = Math.min(vallen / bytes, dest.length - destPos);
+        if (isIntView()) {
+            input.byteBuffer(valpos, n * bytes).asIntBuffer().get(dest, destPos, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                dest[destPos + i] = dicomInputToInt.applyAsInt(input, valpos + (i * bytes));
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int intValues(byte[] value, int[] dest, int destPos) {
+        int n = Math.min(value.length / bytes, dest.length - destPos);
+        for (int i = 0; i < n; i++) {
+            dest[destPos + i] = bytesToInt.applyAsInt(value, i * bytes);
+        }
+        return n;
+    }
+
+    @Override
+    public int floatValues(DicomInput input, long valpos, int vallen, float[] dest, int destPos) {
+        int n = Math.min(vallen / bytes, dest.length - destPos);
+        if (this == FL) {
+            input.byteBuffer(valpos, n * bytes).asFloatBuffer().get(dest, destPos, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                dest[destPos + i] = dicomInputToFloat.applyAsFloat(input, valpos + (i * bytes));
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int floatValues(byte[] value, float[] dest, int destPos) {
+        int n = Math.min(value.length / bytes, dest.length - destPos);
+        for (int i = 0; i < n; i++) {
+            dest[destPos + i] = bytesToFloat.applyAsFloat(value, i * bytes);
+        }
+        return n;
+    }
+
+    @Override
+    public int doubleValues(DicomInput input, long valpos, int vallen, double[] dest, int destPos) {
+        int n = Math.min(vallen / bytes, dest.length - destPos);
+        if (this == FD) {
+            input.byteBuffer(valpos, n * bytes).asDoubleBuffer().get(dest, destPos, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                dest[destPos + i] = dicomInputToDouble.applyAsDouble(input, valpos + (i * bytes));
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int doubleValues(byte[] value, double[] dest, int destPos) {
+        int n = Math.min(value.length / bytes, dest.length - destPos);
+        for (int i = 0; i < n; i++) {
+            dest[destPos + i] = bytesToDouble.applyAsDouble(value, i * bytes);
+        }
+        return n;
+    }
+
+    @Override
+    public Optional<IntBuffer> intBuffer(DicomInput input, long valpos, int vallen) {
+        return isIntView()
+                ? Optional.of(input.byteBuffer(valpos, vallen & ~3).asIntBuffer())
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<IntBuffer> intBuffer(byte[] value) {
+        return isIntView()
+                ? Optional.of(littleEndianBuffer(value, value.length & ~3).asIntBuffer())
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<FloatBuffer> floatBuffer(DicomInput input, long valpos, int vallen) {
+        return this == FL
+                ? Optional.of(input.byteBuffer(valpos, vallen & ~3).asFloatBuffer())
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<FloatBuffer> floatBuffer(byte[] value) {
+        return this == FL
+                ? Optional.of(littleEndianBuffer(value, value.length & ~3).asFloatBuffer())
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<DoubleBuffer> doubleBuffer(DicomInput input, long valpos, int vallen) {
+        return this == FD
+                ? Optional.of(input.byteBuffer(valpos, vallen & ~7).asDoubleBuffer())
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<DoubleBuffer> doubleBuffer(byte[] value) {
+        return this == FD
+                ? Optional.of(littleEndianBuffer(value, value.length & ~7).asDoubleBuffer())
+                : Optional.empty();
+    }
+
+    private boolean isIntView() {
+        return this == SL || this == UL;
+    }
+
+    private static ByteBuffer littleEndianBuffer(byte[] value, int length) {
+        return ByteBuffer.wrap(value, 0, length).asReadOnlyBuffer().order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+
     @Override
     public StringBuilder appendValue(DicomInput input, long valpos, int vallen, DicomObject dcmobj,
                                      StringBuilder appendTo, int maxLength) {
@@ -282,6 +402,20 @@ public enum BinaryVR implements VRType {
         }
     }
 
+    @Override
+    public void forEachIntValue(DicomInput input, long valpos, int vallen, IntConsumer action) {
+        for (int i = 0, n = vallen / bytes; i < n; i++) {
+            action.accept(dicomInputToInt.applyAsInt(input, valpos + (i * bytes)));
+        }
+    }
+
+    @Override
+    public void forEachDoubleValue(DicomInput input, long valpos, int vallen, DoubleConsumer action) {
+        for (int i = 0, n = vallen / bytes; i < n; i++) {
+            action.accept(dicomInputToDouble.applyAsDouble(input, valpos + (i * bytes)));
+        }
+    }
+
     @Override
     public DicomElement elementOf(DicomObject dcmObj, int tag, VR vr, byte[] val) {
         if (val.length == 0) {
@@ -64,6 +64,19 @@ class BulkDataElement extends DicomElementImpl {
     }
 
     private void transferTo(DicomOutputStream dos) throws IOException {
+        BulkDataTransferEvent event = new BulkDataTransferEvent();
+        event.begin();
+        long pos0 = dos.getStreamPosition();
+        transferTo0(dos);
+        if (event.shouldCommit()) {
+            event.uri = uri;
+            event.transferSyntaxUID = dos.getEncoding().transferSyntaxUID;
+            event.length = dos.getStreamPosition() - pos0;
+            event.commit();
+        }
+    }
+
+    private void transferTo0(DicomOutputStream dos) throws IOException {
         int vallen = valueLength();
         ByteOrder byteOrder = byteOrder();
         ToggleByteOrder toggleByteOrder = dos.getEncoding().byteOrder != byteOrder
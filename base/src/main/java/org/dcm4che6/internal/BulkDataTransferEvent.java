@@ -0,0 +1,25 @@
+package org.dcm4che6.internal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted on copying bulk data referenced by URI into a {@link org.dcm4che6.io.DicomOutputStream}.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@Name("org.dcm4che6.TransferBulkData")
+@Label("Transfer Bulk Data")
+@Category({"DICOM", "I/O"})
+@StackTrace(false)
+public class BulkDataTransferEvent extends Event {
+    @Label("Bulk Data URI")
+    public String uri;
+
+    @Label("Transfer Syntax UID")
+    public String transferSyntaxUID;
+
+    @Label("Length")
+    @DataAmount
+    public long length;
+}
@@ -7,6 +7,9 @@ import org.dcm4che6.io.DicomOutputStream;
 import org.dcm4che6.util.OptionalFloat;
 
 import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -58,6 +61,36 @@ class ByteArrayElement extends DicomElementImpl {
         return vr.type.doubleValues(value);
     }
 
+    @Override
+    public int intValues(int[] dest, int destPos) {
+        return vr.type.intValues(value, dest, destPos);
+    }
+
+    @Override
+    public int floatValues(float[] dest, int destPos) {
+        return vr.type.floatValues(value, dest, destPos);
+    }
+
+    @Override
+    public int doubleValues(double[] dest, int destPos) {
+        return vr.type.doubleValues(value, dest, destPos);
+    }
+
+    @Override
+    public Optional<IntBuffer> intBuffer() {
+        return vr.type.intBuffer(value);
+    }
+
+    @Override
+    public Optional<FloatBuffer> floatBuffer() {
+        return vr.type.floatBuffer(value);
+    }
+
+    @Override
+    public Optional<DoubleBuffer> doubleBuffer() {
+        return vr.type.doubleBuffer(value);
+    }
+
     @Override
     public Optional<String> stringValue(int index) {
         return vr.type.stringValue(value, index);
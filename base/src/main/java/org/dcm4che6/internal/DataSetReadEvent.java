@@ -0,0 +1,25 @@
+package org.dcm4che6.internal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted by {@link DicomParser#readDataSet(org.dcm4che6.data.DicomObject)}.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@Name("org.dcm4che6.ReadDataSet")
+@Label("Read Data Set")
+@Category({"DICOM", "I/O"})
+@StackTrace(false)
+public class DataSetReadEvent extends Event {
+    @Label("Transfer Syntax UID")
+    public String transferSyntaxUID;
+
+    @Label("SOP Class UID")
+    public String sopClassUID;
+
+    @Label("Length")
+    @DataAmount
+    public long length;
+}
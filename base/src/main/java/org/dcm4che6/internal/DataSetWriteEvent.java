@@ -0,0 +1,25 @@
+package org.dcm4che6.internal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted by {@link org.dcm4che6.io.DicomOutputStream#writeDataSet}.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@Name("org.dcm4che6.WriteDataSet")
+@Label("Write Data Set")
+@Category({"DICOM", "I/O"})
+@StackTrace(false)
+public class DataSetWriteEvent extends Event {
+    @Label("Transfer Syntax UID")
+    public String transferSyntaxUID;
+
+    @Label("SOP Class UID")
+    public String sopClassUID;
+
+    @Label("Length")
+    @DataAmount
+    public long length;
+}
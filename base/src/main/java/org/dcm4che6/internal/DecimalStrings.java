@@ -0,0 +1,137 @@
+package org.dcm4che6.internal;
+
+import org.dcm4che6.data.SpecificCharacterSet;
+
+/**
+ * Parses Decimal String (DS) and Integer String (IS) values directly from encoded bytes.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class DecimalStrings {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    static int parseInt(DicomInput input, long pos, long end) {
+        int begin = 0;
+        boolean negative = false;
+        if (pos < end) {
+            switch (input.byteAt(pos)) {
+                case '-':
+                    negative = true;
+                case '+':
+                    begin = 1;
+            }
+        }
+        int len = (int) (end - pos);
+        if (len == begin || len - begin > 10)
+            return Integer.parseInt(toString(input, pos, len));
+
+        long value = 0;
+        for (long i = pos + begin; i < end; i++) {
+            int digit = input.byteAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return Integer.parseInt(toString(input, pos, len));
+
+            value = value * 10 + digit;
+        }
+        if (negative)
+            value = -value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            return Integer.parseInt(toString(input, pos, len));
+
+        return (int) value;
+    }
+
+    static double parseDouble(DicomInput input, long pos, long end) {
+        long i = pos;
+        boolean negative = false;
+        if (i < end) {
+            switch (input.byteAt(i)) {
+                case '-':
+                    negative = true;
+                case '+':
+                    i++;
+            }
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exp = 0;
+        boolean anyDigit = false;
+        boolean inexact = false;
+        boolean fraction = false;
+        byte b = 0;
+        for (; i < end; i++) {
+            b = input.byteAt(i);
+            if (b == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9)
+                break;
+
+            anyDigit = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0)
+                    digits++;
+                if (fraction)
+                    exp--;
+            } else {
+                if (digit != 0)
+                    inexact = true;
+                if (!fraction)
+                    exp++;
+            }
+        }
+        if (anyDigit && i < end && (b == 'E' || b == 'e')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end) {
+                switch (input.byteAt(i)) {
+                    case '-':
+                        negativeExp = true;
+                    case '+':
+                        i++;
+                }
+            }
+            int e = 0;
+            boolean anyExpDigit = false;
+            for (; i < end; i++) {
+                int digit = input.byteAt(i) - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+
+                anyExpDigit = true;
+                if (e < 10000)
+                    e = e * 10 + digit;
+            }
+            if (!anyExpDigit)
+                anyDigit = false;
+            exp += negativeExp ? -e : e;
+        }
+        if (!anyDigit || i < end || inexact || mantissa >= MAX_EXACT_MANTISSA || exp < -22 || exp > 22)
+            return Double.parseDouble(toString(input, pos, (int) (end - pos)));
+
+        double value = exp < 0 ? mantissa / POW10[-exp] : mantissa * POW10[exp];
+        return negative ? -value : value;
+    }
+
+    static int parseDoubleAsInt(DicomInput input, long pos, long end) {
+        return (int) parseDouble(input, pos, end);
+    }
+
+    static double parseIntAsDouble(DicomInput input, long pos, long end) {
+        return parseInt(input, pos, end);
+    }
+
+    private static String toString(DicomInput input, long pos, int len) {
+        return input.stringAt(pos, len, SpecificCharacterSet.getDefaultCharacterSet());
+    }
+}
@@ -1,15 +1,23 @@
 package org.dcm4che6.internal;
 
 import org.dcm4che6.data.*;
+import org.dcm4che6.io.ByteOrder;
 import org.dcm4che6.io.DicomEncoding;
 import org.dcm4che6.io.DicomOutputStream;
 import org.dcm4che6.util.OptionalFloat;
+import org.dcm4che6.util.StringUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -19,10 +27,16 @@ class DicomInput {
 
     final MemoryCache cache;
     final DicomEncoding encoding;
+    final int valueCacheMaxLength;
 
     DicomInput(MemoryCache cache, DicomEncoding encoding) {
+        this(cache, encoding, 0);
+    }
+
+    DicomInput(MemoryCache cache, DicomEncoding encoding, int valueCacheMaxLength) {
         this.cache = cache;
         this.encoding = encoding;
+        this.valueCacheMaxLength = valueCacheMaxLength;
     }
 
     byte byteAt(long pos) {
@@ -57,8 +71,16 @@ class DicomInput {
         return cache.stringAt(pos, len, cs);
     }
 
+    ByteBuffer byteBuffer(long pos, int len) {
+        return cache.byteBuffer(pos, len).order(encoding.byteOrder == ByteOrder.BIG_ENDIAN
+                ? java.nio.ByteOrder.BIG_ENDIAN
+                : java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+
     DicomElement dicomElement(DicomObject dcmObj, int tag, VR vr, long valuePos, int valueLength) {
-        return new ParsedDicomElement(dcmObj, tag, vr, valuePos, valueLength);
+        return valueLength > 0 && valueLength <= valueCacheMaxLength && vr.type instanceof StringVR
+                ? new CachingParsedDicomElement(dcmObj, tag, vr, valuePos, valueLength)
+                : new ParsedDicomElement(dcmObj, tag, vr, valuePos, valueLength);
     }
 
     DataFragment dataFragment(DataFragments dcmElm, long valuePos, int valueLength) {
@@ -133,6 +155,46 @@ class DicomInput {
             return vr.type.doubleValues(DicomInput.this, valuePos, valueLen);
         }
 
+        @Override
+        public int intValues(int[] dest, int destPos) {
+            return vr.type.intValues(DicomInput.this, valuePos, valueLen, dest, destPos);
+        }
+
+        @Override
+        public int floatValues(float[] dest, int destPos) {
+            return vr.type.floatValues(DicomInput.this, valuePos, valueLen, dest, destPos);
+        }
+
+        @Override
+        public int doubleValues(double[] dest, int destPos) {
+            return vr.type.doubleValues(DicomInput.this, valuePos, valueLen, dest, destPos);
+        }
+
+        @Override
+        public Optional<IntBuffer> intBuffer() {
+            return vr.type.intBuffer(DicomInput.this, valuePos, valueLen);
+        }
+
+        @Override
+        public Optional<FloatBuffer> floatBuffer() {
+            return vr.type.floatBuffer(DicomInput.this, valuePos, valueLen);
+        }
+
+        @Override
+        public Optional<DoubleBuffer> doubleBuffer() {
+            return vr.type.doubleBuffer(DicomInput.this, valuePos, valueLen);
+        }
+
+        @Override
+        public void forEachIntValue(IntConsumer action) {
+            vr.type.forEachIntValue(DicomInput.this, valuePos, valueLen, action);
+        }
+
+        @Override
+        public void forEachDoubleValue(DoubleConsumer action) {
+            vr.type.forEachDoubleValue(DicomInput.this, valuePos, valueLen, action);
+        }
+
         @Override
         public void writeValueTo(DicomOutputStream dos) throws IOException {
             if (encoding.byteOrder == dos.getEncoding().byteOrder || vr.type.toggleByteOrder() == null) {
@@ -144,6 +206,115 @@ class DicomInput {
         }
     }
 
+    private class CachingParsedDicomElement extends ParsedDicomElement {
+        private String[] stringValues;
+        private Object numericValues;
+
+        private CachingParsedDicomElement(DicomObject dcmObj, int tag, VR vr, long valuePos, int valueLen) {
+            super(dcmObj, tag, vr, valuePos, valueLen);
+        }
+
+        private String[] decodedStringValues() {
+            String[] values = stringValues;
+            if (values == null)
+                stringValues = values = super.stringValues();
+
+            return values;
+        }
+
+        private int[] decodedIntValues() {
+            Object values = numericValues;
+            if (!(values instanceof int[]))
+                numericValues = values = ((StringVR) vr.type).intValues(decodedStringValues());
+
+            return (int[]) values;
+        }
+
+        private double[] decodedDoubleValues() {
+            Object values = numericValues;
+            if (!(values instanceof double[]))
+                numericValues = values = ((StringVR) vr.type).doubleValues(decodedStringValues());
+
+            return (double[]) values;
+        }
+
+        @Override
+        public Optional<String> stringValue(int index) {
+            String[] values = decodedStringValues();
+            return index < values.length ? StringUtils.optionalOf(values[index]) : Optional.empty();
+        }
+
+        @Override
+        public String[] stringValues() {
+            String[] values = decodedStringValues();
+            return values.length > 0 ? values.clone() : values;
+        }
+
+        @Override
+        public OptionalInt intValue(int index) {
+            Object values = numericValues;
+            if (values instanceof int[]) {
+                int[] ints = (int[]) values;
+                return index < ints.length ? OptionalInt.of(ints[index]) : OptionalInt.empty();
+            }
+            String[] strings = decodedStringValues();
+            return index < strings.length ? vr.type.intValue(strings[index], 0) : OptionalInt.empty();
+        }
+
+        @Override
+        public int[] intValues() {
+            int[] values = decodedIntValues();
+            return values.length > 0 ? values.clone() : values;
+        }
+
+        @Override
+        public OptionalFloat floatValue(int index) {
+            Object values = numericValues;
+            if (values instanceof double[]) {
+                double[] doubles = (double[]) values;
+                return index < doubles.length ? OptionalFloat.of((float) doubles[index]) : OptionalFloat.empty();
+            }
+            String[] strings = decodedStringValues();
+            return index < strings.length ? vr.type.floatValue(strings[index], 0) : OptionalFloat.empty();
+        }
+
+        @Override
+        public float[] floatValues() {
+            double[] doubles = decodedDoubleValues();
+            if (doubles.length == 0)
+                return DicomElement.EMPTY_FLOATS;
+
+            float[] floats = new float[doubles.length];
+            for (int i = 0; i < doubles.length; i++) {
+                floats[i] = (float) doubles[i];
+            }
+            return floats;
+        }
+
+        @Override
+        public OptionalDouble doubleValue(int index) {
+            Object values = numericValues;
+            if (values instanceof double[]) {
+                double[] doubles = (double[]) values;
+                return index < doubles.length ? OptionalDouble.of(doubles[index]) : OptionalDouble.empty();
+            }
+            String[] strings = decodedStringValues();
+            return index < strings.length ? vr.type.doubleValue(strings[index], 0) : OptionalDouble.empty();
+        }
+
+        @Override
+        public double[] doubleValues() {
+            double[] values = decodedDoubleValues();
+            return values.length > 0 ? values.clone() : values;
+        }
+
+        @Override
+        public void purgeEncodedValue() {
+            stringValues = null;
+            numericValues = null;
+        }
+    }
+
     private class ParsedDataFragment implements DataFragment {
         final DataFragments dataFragments;
         final long valuePos;
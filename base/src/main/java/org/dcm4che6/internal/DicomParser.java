@@ -25,6 +25,7 @@ public class DicomParser implements DicomInputHandler {
     private InputStream in;
     private DicomInput input;
     private int limit = -1;
+    private int valueCacheMaxLength;
     private long pos;
     private int tag;
     private int vrCode;
@@ -61,7 +62,7 @@ public class DicomParser implements DicomInputHandler {
     }
 
     public void setEncoding(DicomEncoding encoding) throws IOException {
-        input = new DicomInput(cache, encoding);
+        input = new DicomInput(cache, encoding, valueCacheMaxLength);
         if (input.encoding.deflated) {
             in = cache.inflate(pos, in);
         }
@@ -74,6 +75,16 @@ public class DicomParser implements DicomInputHandler {
         this.limit = limit;
     }
 
+    public void setValueCacheMaxLength(int valueCacheMaxLength) {
+        if (valueCacheMaxLength < 0)
+            throw new IllegalArgumentException("valueCacheMaxLength: " + valueCacheMaxLength);
+
+        this.valueCacheMaxLength = valueCacheMaxLength;
+        if (input != null) {
+            input = new DicomInput(cache, input.encoding, valueCacheMaxLength);
+        }
+    }
+
     public void setParseItems(Predicate<DicomElement> parseItemsPredicate) {
         this.parseItemsPredicate = Objects.requireNonNull(parseItemsPredicate);
     }
@@ -142,9 +153,11 @@ public class DicomParser implements DicomInputHandler {
         if (read != 132 || b[128] != 'D' || b[129] != 'I' || b[130] != 'C' || b[131] != 'M')
             return null;
 
+        FileMetaInformationReadEvent event = new FileMetaInformationReadEvent();
+        event.begin();
         DicomObject dcmObj = new DicomObjectImpl();
         pos = 132;
-        input = new DicomInput(cache, DicomEncoding.EVR_LE);
+        input = new DicomInput(cache, DicomEncoding.EVR_LE, valueCacheMaxLength);
         readHeader(dcmObj, false);
         DicomElement groupLength = input.dicomElement(dcmObj, tag, vr, pos, valueLength);
         handler.startElement(dis, groupLength, false);
@@ -155,6 +168,12 @@ public class DicomParser implements DicomInputHandler {
         String tsuid = dcmObj.getString(Tag.TransferSyntaxUID).orElseThrow(
                 () -> new DicomParseException("Missing Transfer Syntax UID in File Meta Information"));
         setEncoding(DicomEncoding.of(tsuid));
+        if (event.shouldCommit()) {
+            event.transferSyntaxUID = tsuid;
+            event.sopClassUID = dcmObj.getString(Tag.MediaStorageSOPClassUID).orElse(null);
+            event.length = pos;
+            event.commit();
+        }
         return dcmObj;
     }
 
@@ -165,7 +184,7 @@ public class DicomParser implements DicomInputHandler {
         if (input != null)
             throw new IllegalStateException("encoding already initialized: " + input.encoding);
 
-        input = new DicomInput(cache, DicomEncoding.IVR_LE);
+        input = new DicomInput(cache, DicomEncoding.IVR_LE, valueCacheMaxLength);
         DicomObject dcmObj = new DicomObjectImpl();
         parse(dcmObj, limit);
         return dcmObj;
@@ -182,7 +201,17 @@ public class DicomParser implements DicomInputHandler {
         if (input == null) {
             guessEncoding(dcmObj);
         }
-        return parse(dcmObj, limit);
+        DataSetReadEvent event = new DataSetReadEvent();
+        event.begin();
+        long pos0 = pos;
+        boolean result = parse(dcmObj, limit);
+        if (event.shouldCommit()) {
+            event.transferSyntaxUID = input.encoding.transferSyntaxUID;
+            event.sopClassUID = dcmObj.getString(Tag.SOPClassUID).orElse(null);
+            event.length = pos - pos0;
+            event.commit();
+        }
+        return result;
     }
 
     public StringBuilder promptFilePreambleTo(StringBuilder appendTo, int maxLength) {
@@ -227,7 +256,8 @@ public class DicomParser implements DicomInputHandler {
                     ? DicomEncoding.IVR_LE
                     : (cache.byteAt(1) == 0
                         ? DicomEncoding.EVR_LE
-                        : DicomEncoding.EVR_BE));
+                        : DicomEncoding.EVR_BE),
+                    valueCacheMaxLength);
             readHeader0(dcmObj);
             if (valueLength > 64)
                 throw new DicomParseException("Not a DICOM stream");
@@ -368,7 +398,7 @@ public class DicomParser implements DicomInputHandler {
 
     private boolean parseItemsIVR_LE(DicomSequence dcmElm, int length) throws IOException {
         DicomInput input0 = input;
-        input = new DicomInput(cache, DicomEncoding.IVR_LE);
+        input = new DicomInput(cache, DicomEncoding.IVR_LE, valueCacheMaxLength);
         try {
             return parseItems(dcmElm, length);
         } finally {
@@ -396,7 +426,7 @@ public class DicomParser implements DicomInputHandler {
 
     private void skipSequenceWithUndefLengthIVR_LE() throws IOException {
         DicomInput input0 = input;
-        input = new DicomInput(cache, DicomEncoding.IVR_LE);
+        input = new DicomInput(cache, DicomEncoding.IVR_LE, valueCacheMaxLength);
         try {
             skipSequenceWithUndefLength();
         } finally {
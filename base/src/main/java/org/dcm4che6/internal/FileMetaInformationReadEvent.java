@@ -0,0 +1,25 @@
+package org.dcm4che6.internal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted by {@link DicomParser#readFileMetaInformation()}.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@Name("org.dcm4che6.ReadFileMetaInformation")
+@Label("Read File Meta Information")
+@Category({"DICOM", "I/O"})
+@StackTrace(false)
+public class FileMetaInformationReadEvent extends Event {
+    @Label("Transfer Syntax UID")
+    public String transferSyntaxUID;
+
+    @Label("Media Storage SOP Class UID")
+    public String sopClassUID;
+
+    @Label("Length")
+    @DataAmount
+    public long length;
+}
@@ -4,6 +4,7 @@ import org.dcm4che6.data.SpecificCharacterSet;
 import org.dcm4che6.io.ByteOrder;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.Inflater;
@@ -38,10 +39,7 @@ class MemoryCache {
     }
 
     private static int blockIndex(long pos) {
-        int i = 8;
-        while ((pos >>> i) != 0)
-            i++;
-        return i - 8;
+        return Math.max(0, 56 - Long.numberOfLeadingZeros(pos));
     }
 
     private static int blockOffset(byte[] block, long pos) {
@@ -154,6 +152,18 @@ class MemoryCache {
                 : cs.decode(bytesAt(pos, len), 0, len);
     }
 
+    ByteBuffer byteBuffer(long pos, int len) {
+        if (len == 0)
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+        pos -= skippedBytes(pos);
+        byte[] b = blocks.get(blockIndex(pos));
+        int offset = blockOffset(b, pos);
+        return (offset + len <= b.length)
+                ? ByteBuffer.wrap(b, offset, len).slice().asReadOnlyBuffer()
+                : ByteBuffer.wrap(bytesAt(pos, len)).asReadOnlyBuffer();
+    }
+
     byte[] bytesAt(long pos, int length) {
         byte[] dest = new byte[length];
         copyBytesTo(pos, dest, 0, length);
@@ -277,6 +287,9 @@ class MemoryCache {
     }
 
     private long skippedBytes(long pos) {
+        if (skippedBytes.isEmpty())
+            return 0L;
+
         long len = 0L;
         for (SkippedBytes skipped : skippedBytes) {
             if (pos <= skipped.pos) return len;
@@ -19,21 +19,25 @@ import java.util.function.*;
  */
 public enum StringVR implements VRType {
     ASCII("\\", VM.MULTI, StringUtils.Trim.LEADING_AND_TRAILING, StringVR::ascii,
-            null, null, null, null),
+            null, null, null, null, null, null),
     STRING("\\", VM.MULTI, StringUtils.Trim.LEADING_AND_TRAILING, DicomObject::specificCharacterSet,
-            null, null, null, null),
+            null, null, null, null, null, null),
     TEXT("\r\n\t\f", VM.SINGLE, StringUtils.Trim.TRAILING, DicomObject::specificCharacterSet,
-            null, null, null, null),
+            null, null, null, null, null, null),
     DS("\\", VM.MULTI, StringUtils.Trim.LEADING_AND_TRAILING, StringVR::ascii,
-            StringVR::parseDoubleAsInt, Double::parseDouble, Integer::toString, StringVR::doubleToString),
+            StringVR::parseDoubleAsInt, Double::parseDouble,
+            DecimalStrings::parseDoubleAsInt, DecimalStrings::parseDouble,
+            Integer::toString, StringVR::doubleToString),
     IS("\\", VM.MULTI, StringUtils.Trim.LEADING_AND_TRAILING, StringVR::ascii,
-            Integer::parseInt, StringVR::parseIntAsDouble, Integer::toString, null),
+            Integer::parseInt, StringVR::parseIntAsDouble,
+            DecimalStrings::parseInt, DecimalStrings::parseIntAsDouble,
+            Integer::toString, null),
     PN("\\^=", VM.MULTI, StringUtils.Trim.LEADING_AND_TRAILING, DicomObject::specificCharacterSet,
-            null, null, null, null),
+            null, null, null, null, null, null),
     UC("\\", VM.MULTI, StringUtils.Trim.TRAILING, StringVR::ascii,
-            null, null, null, null),
+            null, null, null, null, null, null),
     UR("", VM.SINGLE, StringUtils.Trim.LEADING_AND_TRAILING, StringVR::ascii,
-            null, null, null, null);
+            null, null, null, null, null, null);
 
     private final String delimiters;
     private final VM vm;
@@ -41,12 +45,15 @@ public enum StringVR implements VRType {
     private final Function<DicomObject, SpecificCharacterSet> asciiOrCS;
     private final ToIntFunction<String> stringToInt;
     private final ToDoubleFunction<String> stringToDouble;
+    private final DicomInputToInt dicomInputToInt;
+    private final DicomInputToDouble dicomInputToDouble;
     private final IntFunction<String> intToString;
     private final DoubleFunction<String> doubleToString;
 
     StringVR(String delimiters, VM vm, StringUtils.Trim trim,
             Function<DicomObject, SpecificCharacterSet> asciiOrCS,
             ToIntFunction<String> stringToInt, ToDoubleFunction<String> stringToDouble,
+            DicomInputToInt dicomInputToInt, DicomInputToDouble dicomInputToDouble,
             IntFunction<String> intToString, DoubleFunction<String> doubleToString) {
         this.delimiters = delimiters;
         this.vm = vm;
@@ -54,6 +61,8 @@ public enum StringVR implements VRType {
         this.asciiOrCS = asciiOrCS;
         this.stringToInt = stringToInt;
         this.stringToDouble = stringToDouble;
+        this.dicomInputToInt = dicomInputToInt;
+        this.dicomInputToDouble = dicomInputToDouble;
         this.intToString = intToString;
         this.doubleToString = doubleToString;
     }
@@ -131,6 +140,169 @@ public enum StringVR implements VRType {
         }
     }
 
+    @Override
+    public void forEachIntValue(DicomInput input, long valuePos, int valueLen, IntConsumer action) {
+        if (dicomInputToInt == null || valueLen == 0)
+            return;
+
+        long end = valuePos + valueLen;
+        long pos = valuePos;
+        do {
+            long valueEnd = valueEnd(input, pos, end);
+            action.accept(dicomInputToInt.applyAsInt(input, skipLeadingSpaces(input, pos, valueEnd), valueEnd));
+            pos = nextValue(input, valueEnd, end);
+        } while (pos >= 0);
+    }
+
+    @Override
+    public void forEachDoubleValue(DicomInput input, long valuePos, int valueLen, DoubleConsumer action) {
+        if (dicomInputToDouble == null || valueLen == 0)
+            return;
+
+        long end = valuePos + valueLen;
+        long pos = valuePos;
+        do {
+            long valueEnd = valueEnd(input, pos, end);
+            action.accept(dicomInputToDouble.applyAsDouble(input,
+                    skipLeadingSpaces(input, pos, valueEnd), valueEnd));
+            pos = nextValue(input, valueEnd, end);
+        } while (pos >= 0);
+    }
+
+    @Override
+    public OptionalInt intValue(DicomInput input, long valuePos, int valueLen, int index) {
+        if (dicomInputToInt == null)
+            return OptionalInt.empty();
+
+        long end = valuePos + valueLen;
+        long pos = valuePos(input, valuePos, end, index);
+        if (pos < 0)
+            return OptionalInt.empty();
+
+        long valueEnd = valueEnd(input, pos, end);
+        pos = skipLeadingSpaces(input, pos, valueEnd);
+        return pos < valueEnd
+                ? OptionalInt.of(dicomInputToInt.applyAsInt(input, pos, valueEnd))
+                : OptionalInt.empty();
+    }
+
+    @Override
+    public int[] intValues(DicomInput input, long valuePos, int valueLen) {
+        if (dicomInputToInt == null || valueLen == 0)
+            return DicomElement.EMPTY_INTS;
+
+        int[] ints = new int[countValues(input, valuePos, valueLen)];
+        long end = valuePos + valueLen;
+        long pos = valuePos;
+        for (int i = 0; i < ints.length; i++) {
+            long valueEnd = valueEnd(input, pos, end);
+            ints[i] = dicomInputToInt.applyAsInt(input, skipLeadingSpaces(input, pos, valueEnd), valueEnd);
+            pos = nextValue(input, valueEnd, end);
+        }
+        return ints;
+    }
+
+    @Override
+    public OptionalFloat floatValue(DicomInput input, long valuePos, int valueLen, int index) {
+        OptionalDouble d = doubleValue(input, valuePos, valueLen, index);
+        return d.isPresent() ? OptionalFloat.of((float) d.getAsDouble()) : OptionalFloat.empty();
+    }
+
+    @Override
+    public float[] floatValues(DicomInput input, long valuePos, int valueLen) {
+        if (dicomInputToDouble == null || valueLen == 0)
+            return DicomElement.EMPTY_FLOATS;
+
+        float[] floats = new float[countValues(input, valuePos, valueLen)];
+        long end = valuePos + valueLen;
+        long pos = valuePos;
+        for (int i = 0; i < floats.length; i++) {
+            long valueEnd = valueEnd(input, pos, end);
+            floats[i] = (float) dicomInputToDouble.applyAsDouble(input, skipLeadingSpaces(input, pos, valueEnd), valueEnd);
+            pos = nextValue(input, valueEnd, end);
+        }
+        return floats;
+    }
+
+    @Override
+    public OptionalDouble doubleValue(DicomInput input, long valuePos, int valueLen, int index) {
+        if (dicomInputToDouble == null)
+            return OptionalDouble.empty();
+
+        long end = valuePos + valueLen;
+        long pos = valuePos(input, valuePos, end, index);
+        if (pos < 0)
+            return OptionalDouble.empty();
+
+        long valueEnd = valueEnd(input, pos, end);
+        pos = skipLeadingSpaces(input, pos, valueEnd);
+        return pos < valueEnd
+                ? OptionalDouble.of(dicomInputToDouble.applyAsDouble(input, pos, valueEnd))
+                : OptionalDouble.empty();
+    }
+
+    @Override
+    public double[] doubleValues(DicomInput input, long valuePos, int valueLen) {
+        if (dicomInputToDouble == null || valueLen == 0)
+            return DicomElement.EMPTY_DOUBLES;
+
+        double[] doubles = new double[countValues(input, valuePos, valueLen)];
+        long end = valuePos + valueLen;
+        long pos = valuePos;
+        for (int i = 0; i < doubles.length; i++) {
+            long valueEnd = valueEnd(input, pos, end);
+            doubles[i] = dicomInputToDouble.applyAsDouble(input, skipLeadingSpaces(input, pos, valueEnd), valueEnd);
+            pos = nextValue(input, valueEnd, end);
+        }
+        return doubles;
+    }
+
+    private static int countValues(DicomInput input, long valuePos, int valueLen) {
+        int count = 1;
+        for (long pos = valuePos, end = valuePos + valueLen; pos < end; pos++) {
+            if (input.byteAt(pos) == '\\')
+                count++;
+        }
+        return count;
+    }
+
+    private static long valuePos(DicomInput input, long pos, long end, int index) {
+        if (pos == end)
+            return -1L;
+
+        while (index-- > 0 && pos >= 0) {
+            pos = nextValue(input, pos, end);
+        }
+        return pos;
+    }
+
+    private static long nextValue(DicomInput input, long pos, long end) {
+        while (pos < end) {
+            if (input.byteAt(pos++) == '\\')
+                return pos;
+        }
+        return -1L;
+    }
+
+    private static long valueEnd(DicomInput input, long pos, long end) {
+        long valueEnd = pos;
+        while (valueEnd < end && input.byteAt(valueEnd) != '\\')
+            valueEnd++;
+        while (valueEnd > pos && isSpace(input.byteAt(valueEnd - 1)))
+            valueEnd--;
+        return valueEnd;
+    }
+
+    private static long skipLeadingSpaces(DicomInput input, long pos, long end) {
+        while (pos < end && isSpace(input.byteAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static boolean isSpace(byte b) {
+        return (b & 0xff) <= ' ';
+    }
+
     @Override
     public OptionalInt intValue(String value, int index) {
         if (stringToInt == null)
@@ -144,7 +316,13 @@ public enum StringVR implements VRType {
         if (stringToInt == null)
             return DicomElement.EMPTY_INTS;
 
-        String[] ss = stringValues(value);
+        return intValues(stringValues(value));
+    }
+
+    int[] intValues(String[] ss) {
+        if (stringToInt == null)
+            return DicomElement.EMPTY_INTS;
+
         int[] ints = new int[ss.length];
         for (int i = 0; i < ss.length; i++) {
             ints[i] = stringToInt.applyAsInt(ss[i]);
@@ -188,7 +366,13 @@ public enum StringVR implements VRType {
         if (stringToDouble == null)
             return DicomElement.EMPTY_DOUBLES;
 
-        String[] ss = stringValues(value);
+        return doubleValues(stringValues(value));
+    }
+
+    double[] doubleValues(String[] ss) {
+        if (stringToDouble == null)
+            return DicomElement.EMPTY_DOUBLES;
+
         double[] doubles = new double[ss.length];
         for (int i = 0; i < ss.length; i++) {
             doubles[i] = stringToDouble.applyAsDouble(ss[i]);
@@ -264,6 +448,16 @@ public enum StringVR implements VRType {
         return StringUtils.trimDS(Float.toString(value));
     }
 
+    @FunctionalInterface
+    private interface DicomInputToInt {
+        int applyAsInt(DicomInput input, long pos, long end);
+    }
+
+    @FunctionalInterface
+    private interface DicomInputToDouble {
+        double applyAsDouble(DicomInput input, long pos, long end);
+    }
+
     enum VM {
         SINGLE {
             @Override
@@ -6,6 +6,10 @@ import org.dcm4che6.util.function.StringValueConsumer;
 import org.dcm4che6.data.VR;
 import org.dcm4che6.util.OptionalFloat;
 
+import java.lang.reflect.Array;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -60,6 +64,10 @@ public interface VRType {
 
     default void forEachDoubleValue(DicomElement dcmElm, DoubleConsumer action) {}
 
+    default void forEachIntValue(DicomInput input, long valuePos, int valueLen, IntConsumer action) {}
+
+    default void forEachDoubleValue(DicomInput input, long valuePos, int valueLen, DoubleConsumer action) {}
+
     default OptionalInt intValue(DicomInput input, long valuePos, int valueLen, int index) {
         return OptionalInt.empty();
     }
@@ -132,6 +140,54 @@ public interface VRType {
         return DicomElement.EMPTY_DOUBLES;
     }
 
+    default int intValues(DicomInput input, long valpos, int vallen, int[] dest, int destPos) {
+        return copyValues(intValues(input, valpos, vallen), dest, destPos);
+    }
+
+    default int intValues(byte[] value, int[] dest, int destPos) {
+        return copyValues(intValues(value), dest, destPos);
+    }
+
+    default int floatValues(DicomInput input, long valpos, int vallen, float[] dest, int destPos) {
+        return copyValues(floatValues(input, valpos, vallen), dest, destPos);
+    }
+
+    default int floatValues(byte[] value, float[] dest, int destPos) {
+        return copyValues(floatValues(value), dest, destPos);
+    }
+
+    default int doubleValues(DicomInput input, long valpos, int vallen, double[] dest, int destPos) {
+        return copyValues(doubleValues(input, valpos, vallen), dest, destPos);
+    }
+
+    default int doubleValues(byte[] value, double[] dest, int destPos) {
+        return copyValues(doubleValues(value), dest, destPos);
+    }
+
+    default Optional<IntBuffer> intBuffer(DicomInput input, long valpos, int vallen) {
+        return Optional.empty();
+    }
+
+    default Optional<IntBuffer> intBuffer(byte[] value) {
+        return Optional.empty();
+    }
+
+    default Optional<FloatBuffer> floatBuffer(DicomInput input, long valpos, int vallen) {
+        return Optional.empty();
+    }
+
+    default Optional<FloatBuffer> floatBuffer(byte[] value) {
+        return Optional.empty();
+    }
+
+    default Optional<DoubleBuffer> doubleBuffer(DicomInput input, long valpos, int vallen) {
+        return Optional.empty();
+    }
+
+    default Optional<DoubleBuffer> doubleBuffer(byte[] value) {
+        return Optional.empty();
+    }
+
     default ToggleByteOrder toggleByteOrder() {
         return null;
     }
@@ -163,4 +219,10 @@ public interface VRType {
     default DicomElement elementOf(DicomObject dcmObj, int tag, VR vr, String[] vals) {
         throw new UnsupportedOperationException();
     }
+
+    private static int copyValues(Object src, Object dest, int destPos) {
+        int n = Math.min(Array.getLength(src), Array.getLength(dest) - destPos);
+        System.arraycopy(src, 0, dest, destPos, n);
+        return n;
+    }
 }
@@ -38,6 +38,11 @@ public class DicomInputStream extends InputStream {
         return this;
     }
 
+    public DicomInputStream withValueCache(int maxValueLength) {
+        parser.setValueCacheMaxLength(maxValueLength);
+        return this;
+    }
+
     public DicomInputStream withParseItems(Predicate<DicomElement> parseItemsPredicate) {
         parser.setParseItems(parseItemsPredicate);
         return this;
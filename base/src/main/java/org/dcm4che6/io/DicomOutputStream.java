@@ -2,6 +2,7 @@ package org.dcm4che6.io;
 
 import org.dcm4che6.data.*;
 import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.internal.DataSetWriteEvent;
 import org.dcm4che6.internal.DicomObjectImpl;
 import org.dcm4che6.data.VR;
 
@@ -28,6 +29,7 @@ public class DicomOutputStream extends OutputStream {
     private LengthEncoding sequenceLengthEncoding = LengthEncoding.UNDEFINED_OR_ZERO;
     private final byte[] header = new byte[12];
     private byte[] swapBuffer;
+    private long streamPosition;
 
     public DicomOutputStream(OutputStream out) {
         this.out = Objects.requireNonNull(out);
@@ -37,6 +39,10 @@ public class DicomOutputStream extends OutputStream {
         return encoding;
     }
 
+    public long getStreamPosition() {
+        return streamPosition;
+    }
+
     public DicomOutputStream withEncoding(DicomEncoding encoding) {
         this.encoding = Objects.requireNonNull(encoding);
         if (encoding.deflated) {
@@ -82,11 +88,13 @@ public class DicomOutputStream extends OutputStream {
     @Override
     public void write(int b) throws IOException {
         out.write(b);
+        streamPosition++;
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
         out.write(b, off, len);
+        streamPosition += len;
     }
 
     @Override
@@ -148,6 +156,9 @@ public class DicomOutputStream extends OutputStream {
             throw new IllegalStateException("encoding not initialized");
 
         Objects.requireNonNull(dcmobj);
+        DataSetWriteEvent event = new DataSetWriteEvent();
+        event.begin();
+        long pos0 = streamPosition;
         if (includeGroupLength || itemLengthEncoding.calculate || sequenceLengthEncoding.calculate) {
             ((DicomObjectImpl) dcmobj).calculateItemLength(this);
         }
@@ -155,6 +166,12 @@ public class DicomOutputStream extends OutputStream {
         if (out instanceof DeflaterOutputStream) {
             ((DeflaterOutputStream) out).finish();
         }
+        if (event.shouldCommit()) {
+            event.transferSyntaxUID = encoding.transferSyntaxUID;
+            event.sopClassUID = dcmobj.getString(Tag.SOPClassUID).orElse(null);
+            event.length = streamPosition - pos0;
+            event.commit();
+        }
     }
 
     public void writeCommandSet(DicomObject dcmobj) throws IOException {
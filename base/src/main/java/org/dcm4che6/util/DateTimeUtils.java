@@ -1,109 +1,70 @@
 package org.dcm4che6.util;
 
+import java.nio.charset.StandardCharsets;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAccessor;
 
 import static java.time.temporal.ChronoField.*;
-import static java.time.temporal.ChronoField.NANO_OF_SECOND;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
  * @since Apr 2019
  */
 public class DateTimeUtils {
-    private static final DateTimeFormatter DA_PARSER = new DateTimeFormatterBuilder()
-            .appendValue(YEAR, 4)
-            .optionalStart()
-            .appendLiteral('.')
-            .optionalEnd()
-            .appendValue(MONTH_OF_YEAR, 2)
-            .optionalStart()
-            .appendLiteral('.')
-            .optionalEnd()
-            .appendValue(DAY_OF_MONTH, 2)
-            .toFormatter();
-
-    private static final DateTimeFormatter DA_FORMATTER = new DateTimeFormatterBuilder()
-            .appendValue(YEAR, 4)
-            .appendValue(MONTH_OF_YEAR, 2)
-            .appendValue(DAY_OF_MONTH, 2)
-            .toFormatter();
-
-    private static final DateTimeFormatter TM_PARSER = new DateTimeFormatterBuilder()
-            .appendValue(HOUR_OF_DAY, 2)
-            .optionalStart()
-            .optionalStart()
-            .appendLiteral(':')
-            .optionalEnd()
-            .appendValue(MINUTE_OF_HOUR, 2)
-            .optionalStart()
-            .optionalStart()
-            .appendLiteral(':')
-            .optionalEnd()
-            .appendValue(SECOND_OF_MINUTE, 2)
-            .optionalStart()
-            .appendFraction(NANO_OF_SECOND, 0, 6, true)
-            .toFormatter();
-
-    private static final DateTimeFormatter TM_FORMATTER = new DateTimeFormatterBuilder()
-            .appendValue(HOUR_OF_DAY, 2)
-            .appendValue(MINUTE_OF_HOUR, 2)
-            .appendValue(SECOND_OF_MINUTE, 2)
-            .appendFraction(NANO_OF_SECOND, 6, 6, true)
-            .toFormatter();
-
-
-    private static final DateTimeFormatter DT_PARSER = new DateTimeFormatterBuilder()
-            .appendValue(YEAR, 4)
-            .optionalStart()
-            .appendValue(MONTH_OF_YEAR, 2)
-            .optionalStart()
-            .appendValue(DAY_OF_MONTH, 2)
-            .optionalStart()
-            .appendValue(HOUR_OF_DAY, 2)
-            .optionalStart()
-            .appendValue(MINUTE_OF_HOUR, 2)
-            .optionalStart()
-            .appendValue(SECOND_OF_MINUTE, 2)
-            .optionalStart()
-            .appendFraction(NANO_OF_SECOND, 0, 6, true)
-            .optionalEnd()
-            .optionalEnd()
-            .optionalEnd()
-            .optionalEnd()
-            .optionalEnd()
-            .optionalEnd()
-            .optionalStart()
-            .appendOffset("+HHMM", "+0000")
-            .toFormatter();
-
-    private static final DateTimeFormatter DT_FORMATTER = new DateTimeFormatterBuilder()
-            .appendValue(YEAR, 4)
-            .appendValue(MONTH_OF_YEAR, 2)
-            .appendValue(DAY_OF_MONTH, 2)
-            .appendValue(HOUR_OF_DAY, 2)
-            .appendValue(MINUTE_OF_HOUR, 2)
-            .appendValue(SECOND_OF_MINUTE, 2)
-            .appendFraction(NANO_OF_SECOND, 6, 6, true)
-            .optionalStart()
-            .appendOffset("+HHMM", "+0000")
-            .toFormatter();
-
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MINUTE = 60 * NANOS_PER_SECOND;
+    private static final long NANOS_PER_HOUR = 60 * NANOS_PER_MINUTE;
+    private static final int[] FRACTION_SCALE = {
+            1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000
+    };
 
     public static LocalDate parseDA(String value) {
-        return LocalDate.from(DA_PARSER.parse(value));
+        return LocalDate.ofEpochDay(parseDAEpochDay(value));
+    }
+
+    public static long parseDAEpochDay(CharSequence value) {
+        int length = value.length();
+        boolean dots = length == 10;
+        if (length != 8 && !dots)
+            throw new DateTimeParseException("Invalid DA value", value, 0);
+
+        int year = parseDigits(value, 0, 4);
+        if (dots) {
+            expect(value, 4, '.');
+            expect(value, 7, '.');
+        }
+        int month = parseDigits(value, dots ? 5 : 4, 2);
+        int day = parseDigits(value, dots ? 8 : 6, 2);
+        return epochDay(value, year, month, day);
     }
 
     public static String formatDA(Temporal value) {
-        return DA_FORMATTER.format(value);
+        byte[] b = new byte[8];
+        return new String(b, 0, formatDA(value, b, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    public static int formatDA(TemporalAccessor value, byte[] dest, int off) {
+        off = putDigits(dest, off, checkYear(value.get(YEAR)), 4);
+        off = putDigits(dest, off, value.get(MONTH_OF_YEAR), 2);
+        return putDigits(dest, off, value.get(DAY_OF_MONTH), 2);
+    }
+
+    public static StringBuilder formatDA(TemporalAccessor value, StringBuilder appendTo) {
+        appendDigits(appendTo, checkYear(value.get(YEAR)), 4);
+        appendDigits(appendTo, value.get(MONTH_OF_YEAR), 2);
+        return appendDigits(appendTo, value.get(DAY_OF_MONTH), 2);
     }
 
     public static LocalTime parseTM(String value) {
-        return LocalTime.from(TM_PARSER.parse(value));
+        return LocalTime.ofNanoOfDay(parseTMNanoOfDay(value));
+    }
+
+    public static long parseTMNanoOfDay(CharSequence value) {
+        return parseTime(value, 0, value.length(), true);
     }
 
     public static LocalTime parseTMMax(String value) {
@@ -111,25 +72,69 @@ public class DateTimeUtils {
     }
 
     public static String formatTM(Temporal value) {
-        return TM_FORMATTER.format(value);
+        byte[] b = new byte[13];
+        return new String(b, 0, formatTM(value, b, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    public static int formatTM(TemporalAccessor value, byte[] dest, int off) {
+        off = putDigits(dest, off, value.get(HOUR_OF_DAY), 2);
+        off = putDigits(dest, off, value.get(MINUTE_OF_HOUR), 2);
+        off = putDigits(dest, off, value.get(SECOND_OF_MINUTE), 2);
+        dest[off++] = '.';
+        return putDigits(dest, off, value.get(MICRO_OF_SECOND), 6);
+    }
+
+    public static StringBuilder formatTM(TemporalAccessor value, StringBuilder appendTo) {
+        appendDigits(appendTo, value.get(HOUR_OF_DAY), 2);
+        appendDigits(appendTo, value.get(MINUTE_OF_HOUR), 2);
+        appendDigits(appendTo, value.get(SECOND_OF_MINUTE), 2);
+        return appendDigits(appendTo.append('.'), value.get(MICRO_OF_SECOND), 6);
     }
 
     public static Temporal parseDT(String value) {
-        TemporalAccessor temporal = DT_PARSER.parse(value);
-        LocalDate date = temporal.isSupported(DAY_OF_MONTH)
-                ? LocalDate.from(temporal)
-                : LocalDate.of(temporal.get(YEAR), getMonth(temporal), 1);
-        LocalTime time = temporal.isSupported(HOUR_OF_DAY)
-                ? LocalTime.from(temporal)
-                : LocalTime.MIN;
-        LocalDateTime dateTime = LocalDateTime.of(date, time);
-        return temporal.isSupported(OFFSET_SECONDS)
-                ? ZonedDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(temporal.get(OFFSET_SECONDS)))
-                : dateTime;
+        int zoneIndex = indexOfZone(value);
+        int length = zoneIndex < 0 ? value.length() : zoneIndex;
+        if (length < 4 || length > 4 && length < 14 && (length & 1) != 0)
+            throw new DateTimeParseException("Invalid DT value", value, 0);
+
+        int year = parseDigits(value, 0, 4);
+        int month = length >= 6 ? parseDigits(value, 4, 2) : 1;
+        int day = length >= 8 ? parseDigits(value, 6, 2) : 1;
+        LocalDateTime dateTime = LocalDateTime.of(
+                LocalDate.ofEpochDay(epochDay(value, year, month, day)),
+                length > 8 ? LocalTime.ofNanoOfDay(parseTime(value, 8, length, false)) : LocalTime.MIN);
+        return zoneIndex < 0
+                ? dateTime
+                : ZonedDateTime.of(dateTime, parseOffset(value, zoneIndex));
     }
 
-    private static int getMonth(TemporalAccessor temporal) {
-        return temporal.isSupported(MONTH_OF_YEAR) ? temporal.get(MONTH_OF_YEAR) : 1;
+    public static String formatDT(Temporal value) {
+        byte[] b = new byte[26];
+        return new String(b, 0, formatDT(value, b, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    public static int formatDT(TemporalAccessor value, byte[] dest, int off) {
+        off = formatTM(value, dest, formatDA(value, dest, off));
+        if (value.isSupported(OFFSET_SECONDS)) {
+            int offsetMinutes = value.get(OFFSET_SECONDS) / 60;
+            dest[off++] = (byte) (offsetMinutes < 0 ? '-' : '+');
+            offsetMinutes = Math.abs(offsetMinutes);
+            off = putDigits(dest, off, offsetMinutes / 60, 2);
+            off = putDigits(dest, off, offsetMinutes % 60, 2);
+        }
+        return off;
+    }
+
+    public static StringBuilder formatDT(TemporalAccessor value, StringBuilder appendTo) {
+        formatTM(value, formatDA(value, appendTo));
+        if (value.isSupported(OFFSET_SECONDS)) {
+            int offsetMinutes = value.get(OFFSET_SECONDS) / 60;
+            appendTo.append(offsetMinutes < 0 ? '-' : '+');
+            offsetMinutes = Math.abs(offsetMinutes);
+            appendDigits(appendTo, offsetMinutes / 60, 2);
+            appendDigits(appendTo, offsetMinutes % 60, 2);
+        }
+        return appendTo;
     }
 
     public static Temporal parseDTMax(String value) {
@@ -141,10 +146,6 @@ public class DateTimeUtils {
                     .minus(1, ChronoUnit.NANOS);
     }
 
-    public static String formatDT(Temporal value) {
-        return DT_FORMATTER.format(value);
-    }
-
     public static String truncateTM(String value, int maxLength) {
         if (maxLength < 2)
             throw new IllegalArgumentException("maxLength %d < 2" + maxLength);
@@ -163,6 +164,113 @@ public class DateTimeUtils {
 
     }
 
+    private static long parseTime(CharSequence value, int pos, int end, boolean colons) {
+        int hour = parseDigits(value, pos, 2);
+        int minute = 0;
+        int second = 0;
+        int nanos = 0;
+        pos += 2;
+        if (pos < end) {
+            if (colons && value.charAt(pos) == ':')
+                pos++;
+            minute = parseDigits(value, pos, 2);
+            pos += 2;
+            if (pos < end) {
+                if (colons && value.charAt(pos) == ':')
+                    pos++;
+                second = parseDigits(value, pos, 2);
+                pos += 2;
+                if (pos < end) {
+                    expect(value, pos++, '.');
+                    int digits = end - pos;
+                    if (digits > 6)
+                        throw new DateTimeParseException("Invalid fraction of second", value, pos);
+                    nanos = digits > 0 ? parseDigits(value, pos, digits) * FRACTION_SCALE[digits] : 0;
+                }
+            }
+        }
+        if (hour > 23 || minute > 59 || second > 59)
+            throw new DateTimeParseException("Invalid time", value, 0);
+
+        return hour * NANOS_PER_HOUR + minute * NANOS_PER_MINUTE + second * NANOS_PER_SECOND + nanos;
+    }
+
+    private static ZoneOffset parseOffset(CharSequence value, int pos) {
+        int sign = value.charAt(pos) == '-' ? -1 : 1;
+        int hours = parseDigits(value, pos + 1, 2);
+        int minutes = parseDigits(value, pos + 3, 2);
+        try {
+            return ZoneOffset.ofHoursMinutes(sign * hours, sign * minutes);
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException(e.getMessage(), value, pos, e);
+        }
+    }
+
+    private static long epochDay(CharSequence value, int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > 31)
+            throw new DateTimeParseException("Invalid date", value, 0);
+
+        boolean leapYear = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        int monthLength = month == 2 ? (leapYear ? 29 : 28) : (month == 4 || month == 6 || month == 9 || month == 11)
+                ? 30 : 31;
+        if (day > monthLength)
+            day = monthLength;
+
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400
+                + (367 * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            total--;
+            if (!leapYear)
+                total--;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int parseDigits(CharSequence value, int pos, int n) {
+        if (pos + n > value.length())
+            throw new DateTimeParseException("Text too short", value, pos);
+
+        int result = 0;
+        for (int end = pos + n; pos < end; pos++) {
+            int digit = value.charAt(pos) - '0';
+            if (digit < 0 || digit > 9)
+                throw new DateTimeParseException("Invalid digit", value, pos);
+
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static void expect(CharSequence value, int pos, char ch) {
+        if (pos >= value.length() || value.charAt(pos) != ch)
+            throw new DateTimeParseException("Expected '" + ch + "'", value, pos);
+    }
+
+    private static int checkYear(int year) {
+        if (year < 0 || year > 9999)
+            throw new DateTimeException("Year not in range 0000-9999: " + year);
+
+        return year;
+    }
+
+    private static int putDigits(byte[] dest, int off, int value, int n) {
+        for (int i = off + n - 1; i >= off; i--) {
+            dest[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return off + n;
+    }
+
+    private static StringBuilder appendDigits(StringBuilder appendTo, int value, int n) {
+        int off = appendTo.length();
+        appendTo.setLength(off + n);
+        for (int i = off + n - 1; i >= off; i--) {
+            appendTo.setCharAt(i, (char) ('0' + value % 10));
+            value /= 10;
+        }
+        return appendTo;
+    }
+
     private static long nanosToAdd(String tm) {
         int length = tm.length();
         int index = tm.lastIndexOf(':');
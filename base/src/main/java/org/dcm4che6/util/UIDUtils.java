@@ -3,8 +3,9 @@ package org.dcm4che6.util;
 import org.dcm4che6.data.UID;
 import org.dcm4che6.io.ByteOrder;
 
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.UUID;
 
 /**
@@ -19,34 +20,100 @@ public class UIDUtils {
      * @see &lt;a href="http://www.oid-info.com/get/2.25">OID repository {joint-iso-itu-t(2) uuid(25)}$lt;/a>
      */
     private static final String UUID_ROOT = "2.25";
+    private static final int MAX_UUID_DIGITS = 39;
+    private static final long DIGITS_PER_STEP_DIVISOR = 1_000_000_000L;
+    private static final int DIGITS_PER_STEP = 9;
+
+    private static final ThreadLocal<Entropy> ENTROPY = ThreadLocal.withInitial(Entropy::new);
 
     public static String randomUID() {
-        return toUID(UUID_ROOT, UUID.randomUUID());
+        Entropy entropy = ENTROPY.get();
+        long msb = entropy.nextLong();
+        long lsb = entropy.nextLong();
+        return toUID(UUID_ROOT,
+                (msb & 0xffffffffffff0fffL) | 0x0000000000004000L,
+                (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L);
     }
 
     public static String nameUIDFromBytes(byte[] name) {
-        return toUID(UUID_ROOT, UUID.nameUUIDFromBytes(name));
+        UUID uuid = UUID.nameUUIDFromBytes(name);
+        return toUID(UUID_ROOT, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
 
     public static String nameUIDFromString(String name) {
         return nameUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
     }
 
-    private static String toUID(String root, UUID uuid) {
-        byte[] b17 = new byte[17];
-        ByteOrder.BIG_ENDIAN.longToBytes(uuid.getMostSignificantBits(), b17, 1);
-        ByteOrder.BIG_ENDIAN.longToBytes(uuid.getLeastSignificantBits(), b17, 9);
-        String uuidStr = new BigInteger(b17).toString();
+    private static String toUID(String root, long msb, long lsb) {
         int rootlen = root.length();
-        int uuidlen = uuidStr.length();
-        char[] cs = new char[rootlen + uuidlen + 1];
-        root.getChars(0, rootlen, cs, 0);
-        cs[rootlen] = '.';
-        uuidStr.getChars(0, uuidlen, cs, rootlen + 1);
-        return new String(cs);
+        char[] cs = new char[rootlen + 1 + MAX_UUID_DIGITS];
+        int begin = toDecimal(msb, lsb, cs, cs.length) - rootlen - 1;
+        root.getChars(0, rootlen, cs, begin);
+        cs[begin + rootlen] = '.';
+        return new String(cs, begin, cs.length - begin);
+    }
+
+    /**
+     * Writes the decimal representation of the unsigned 128-bit value {@code msb:lsb} into {@code dest}, ending
+     * before {@code end}.
+     *
+     * @return index of the first written digit
+     */
+    static int toDecimal(long msb, long lsb, char[] dest, int end) {
+        long w0 = msb >>> 32;
+        long w1 = msb & 0xffffffffL;
+        long w2 = lsb >>> 32;
+        long w3 = lsb & 0xffffffffL;
+        int pos = end;
+        while ((w0 | w1 | w2) != 0 || w3 >= DIGITS_PER_STEP_DIVISOR) {
+            long r = w0 % DIGITS_PER_STEP_DIVISOR;
+            w0 /= DIGITS_PER_STEP_DIVISOR;
+            long t = (r << 32) | w1;
+            w1 = t / DIGITS_PER_STEP_DIVISOR;
+            t = ((t % DIGITS_PER_STEP_DIVISOR) << 32) | w2;
+            w2 = t / DIGITS_PER_STEP_DIVISOR;
+            t = ((t % DIGITS_PER_STEP_DIVISOR) << 32) | w3;
+            w3 = t / DIGITS_PER_STEP_DIVISOR;
+            int digits = (int) (t % DIGITS_PER_STEP_DIVISOR);
+            for (int i = 0; i < DIGITS_PER_STEP; i++) {
+                dest[--pos] = (char) ('0' + digits % 10);
+                digits /= 10;
+            }
+        }
+        int digits = (int) w3;
+        do {
+            dest[--pos] = (char) ('0' + digits % 10);
+            digits /= 10;
+        } while (digits != 0);
+        return pos;
     }
 
     public static StringBuilder promptTo(String uid, StringBuilder sb) {
         return sb.append(uid).append(" - ").append(UID.nameOf(uid));
     }
+
+    private static final class Entropy {
+        private static final int BUFFER_SIZE = 256;
+        private final SecureRandom rnd = newSecureRandom();
+        private final byte[] buf = new byte[BUFFER_SIZE];
+        private int pos = BUFFER_SIZE;
+
+        long nextLong() {
+            if (pos == BUFFER_SIZE) {
+                rnd.nextBytes(buf);
+                pos = 0;
+            }
+            long val = ByteOrder.BIG_ENDIAN.bytesToLong(buf, pos);
+            pos += 8;
+            return val;
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
 }
@@ -12,9 +12,12 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -32,6 +35,9 @@ class VRTest {
     private static final String[] FLOAT_STRS = {"1.4E-45", "3.4028235E38", "-3.4028235E38", "-1.4E-45"};
     private static final String[] DOUBLE_STRS = {"1.401298464324817E-45", "3.4028234663852886E38",
             "-3.4028234663852886E38", "-1.401298464324817E-45"};
+    private static final String[] DS_STRS = {" 1", "-0.5 ", "1.2345678901234567890", "3.4028235E38",
+            "1e-7", "+12.", "0.000000000000000000000001"};
+    private static final String[] IS_STRS = {"1", " -2147483648", "2147483647 ", "+7", "-0"};
     private static final byte[] AT_LE = {114, 0, 96, 0, 16, 0, 0, 0,
             0, 0, 1, 0, 0, 0, -1, 127, -1, -1, 0, -128, -1, -1, -1, -1};
     private static final byte[] AT_BE = {0, 114, 0, 96, 'A', 'T', 0, 16,
@@ -164,6 +170,38 @@ class VRTest {
         testBinaryVR(Tag.SelectorUSValue, VR.US, UINT_STRS, UINTS, US_LE, US_BE);
     }
 
+    @Test
+    void DS() throws IOException {
+        testNumericStringVR(Tag.SelectorDSValue, VR.DS, DS_STRS);
+    }
+
+    @Test
+    void IS() throws IOException {
+        testNumericStringVR(Tag.SelectorISValue, VR.IS, IS_STRS);
+    }
+
+    private static void testNumericStringVR(int tag, VR vr, String[] strs) throws IOException {
+        DicomObject dcmObj = DicomObject.newDicomObject();
+        dcmObj.setString(tag, vr, strs);
+        int[] ints = dcmObj.getInts(tag).orElseGet(Assertions::fail);
+        float[] floats = dcmObj.getFloats(tag).orElseGet(Assertions::fail);
+        double[] doubles = dcmObj.getDoubles(tag).orElseGet(Assertions::fail);
+        assertEquals(strs.length, doubles.length);
+        DicomObject parsed = parseDicomObject(toBytes(dcmObj, DicomEncoding.IVR_LE), DicomEncoding.IVR_LE);
+        assertArrayEquals(ints, parsed.getInts(tag).orElseGet(Assertions::fail));
+        assertArrayEquals(floats, parsed.getFloats(tag).orElseGet(Assertions::fail));
+        assertArrayEquals(doubles, parsed.getDoubles(tag).orElseGet(Assertions::fail));
+        for (int i = 0; i < strs.length; i++) {
+            assertEquals(ints[i], parsed.getInt(tag, i).orElseGet(Assertions::fail));
+            assertEquals(floats[i], parsed.getFloat(tag, i).orElseGet(Assertions::fail));
+            assertEquals(doubles[i], parsed.getDouble(tag, i).orElseGet(Assertions::fail));
+        }
+        assertTrue(parsed.getDouble(tag, strs.length).isEmpty());
+        DoubleStream.Builder builder = DoubleStream.builder();
+        parsed.get(tag).orElseGet(Assertions::fail).forEachDoubleValue(builder);
+        assertArrayEquals(doubles, builder.build().toArray());
+    }
+
     private static void testBinaryVR(int tag, VR vr, String[] strs, int[] vals, byte[] bLE, byte[] bBE)
             throws IOException {
         testBinaryVR(tag, vr, strs, vals, bLE, bBE, toFloats(vals), bLE, bBE);
@@ -191,14 +229,20 @@ class VRTest {
         assertEquals(strs[2], dcmObj.getString(tag, 2).orElseGet(Assertions::fail));
         assertArrayEquals(bLE2, toBytes(dcmObj, DicomEncoding.IVR_LE));
         assertArrayEquals(bBE2, toBytes(dcmObj, DicomEncoding.EVR_BE));
+        dcmObj.setDouble(tag, vr, doubles);
+        assertBulkValues(dcmObj.get(tag).orElseGet(Assertions::fail), floats, doubles);
+        dcmObj.setInt(tag, vr, vals);
+        assertBulkValues(dcmObj.get(tag).orElseGet(Assertions::fail), vals);
         dcmObj = parseDicomObject(bLE, DicomEncoding.IVR_LE);
         assertArrayEquals(bLE, toBytes(dcmObj, DicomEncoding.IVR_LE));
         assertArrayEquals(bBE, toBytes(dcmObj, DicomEncoding.EVR_BE));
         assertArrayEquals(vals, dcmObj.getInts(tag).orElseGet(Assertions::fail));
         assertEquals(vals[2], dcmObj.getInt(tag, 2).orElseGet(Assertions::fail));
+        assertBulkValues(dcmObj.get(tag).orElseGet(Assertions::fail), vals);
         if (bLE2 != bLE) {
             dcmObj = parseDicomObject(bLE2, DicomEncoding.IVR_LE);
         }
+        assertBulkValues(dcmObj.get(tag).orElseGet(Assertions::fail), floats, doubles);
         assertArrayEquals(floats, dcmObj.getFloats(tag).orElseGet(Assertions::fail));
         assertEquals(floats[2], dcmObj.getFloat(tag, 2).orElseGet(Assertions::fail));
         assertArrayEquals(doubles, dcmObj.getDoubles(tag).orElseGet(Assertions::fail));
@@ -210,9 +254,11 @@ class VRTest {
         assertArrayEquals(bBE, toBytes(dcmObj, DicomEncoding.EVR_BE));
         assertArrayEquals(vals, dcmObj.getInts(tag).orElseGet(Assertions::fail));
         assertEquals(vals[2], dcmObj.getInt(tag, 2).orElseGet(Assertions::fail));
+        assertBulkValues(dcmObj.get(tag).orElseGet(Assertions::fail), vals);
         if (bBE2 != bBE) {
             dcmObj = parseDicomObject(bBE2, DicomEncoding.EVR_BE);
         }
+        assertBulkValues(dcmObj.get(tag).orElseGet(Assertions::fail), floats, doubles);
         assertArrayEquals(floats, dcmObj.getFloats(tag).orElseGet(Assertions::fail));
         assertEquals(floats[2], dcmObj.getFloat(tag, 2).orElseGet(Assertions::fail));
         assertArrayEquals(doubles, dcmObj.getDoubles(tag).orElseGet(Assertions::fail));
@@ -221,6 +267,37 @@ class VRTest {
         assertEquals(strs[2], dcmObj.getString(tag, 2).orElseGet(Assertions::fail));
     }
 
+    private static void assertBulkValues(DicomElement el, int[] vals) {
+        int[] dest = new int[vals.length + 1];
+        assertEquals(vals.length, el.intValues(dest, 1));
+        assertArrayEquals(vals, Arrays.copyOfRange(dest, 1, dest.length));
+        el.intBuffer().ifPresent(buf -> {
+            assertTrue(buf.isReadOnly());
+            int[] a = new int[buf.remaining()];
+            buf.get(a);
+            assertArrayEquals(vals, a);
+        });
+    }
+
+    private static void assertBulkValues(DicomElement el, float[] floats, double[] doubles) {
+        float[] floatDest = new float[floats.length + 1];
+        assertEquals(floats.length, el.floatValues(floatDest, 1));
+        assertArrayEquals(floats, Arrays.copyOfRange(floatDest, 1, floatDest.length));
+        double[] doubleDest = new double[doubles.length];
+        assertEquals(doubles.length, el.doubleValues(doubleDest, 0));
+        assertArrayEquals(doubles, doubleDest);
+        el.floatBuffer().ifPresent(buf -> {
+            float[] a = new float[buf.remaining()];
+            buf.get(a);
+            assertArrayEquals(floats, a);
+        });
+        el.doubleBuffer().ifPresent(buf -> {
+            double[] a = new double[buf.remaining()];
+            buf.get(a);
+            assertArrayEquals(doubles, a);
+        });
+    }
+
     private static float[] toFloats(int[] vals) {
         float[] floats = new float[vals.length];
         for (int i = 0; i < vals.length; i++) {
@@ -12,6 +12,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.zip.DeflaterOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +56,9 @@ public class MemoryCacheTest {
         assertEquals(0x04fc03fd02fe01ffL, cache.longAt(0, ByteOrder.LITTLE_ENDIAN));
         assertEquals(0xff01fe02fd03fc04L, cache.longAt(POS_BYTES, ByteOrder.BIG_ENDIAN));
         assertArrayEquals(BYTES, cache.bytesAt(POS_BYTES, BYTES.length));
+        assertEquals(ByteBuffer.wrap(BYTES), cache.byteBuffer(0, BYTES.length));
+        assertEquals(ByteBuffer.wrap(BYTES), cache.byteBuffer(POS_BYTES, BYTES.length));
+        assertTrue(cache.byteBuffer(POS_BYTES, BYTES.length).isReadOnly());
         assertEquals(POS_PN + 2, cache.loadFromStream(Integer.MAX_VALUE, in));
         Assertions.assertEquals(VR.PN.code, cache.vrcode(POS_PN));
         assertEquals("P", cache.stringAt(POS_PN, 1, SpecificCharacterSet.ASCII));
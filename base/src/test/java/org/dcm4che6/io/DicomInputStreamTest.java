@@ -58,6 +58,10 @@ class DicomInputStreamTest {
             0, 0, 16, 1, 2, 0, 0, 0, 1, 0,
             0, 0, 0, 8, 2, 0, 0, 0, 1, 1
     };
+    private static final byte[] PN_DS_EVR_LE = {
+            16, 0, 16, 0, 'P', 'N', 8, 0, 'D', 'o', 'e', '^', 'J', 'o', 'h', 'n',
+            40, 0, 48, 0, 'D', 'S', 10, 0, '0', '.', '5', '\\', '0', '.', '1', '2', '5', ' '
+    };
     private static final byte[] PER_FRAME_FUNCTIONAL_GROUPS_SEQ_IVR_LE = {
             0, 82, 48, -110, 40, 0, 0, 0,
             -2, -1, 0, -32, 32, 0, 0, 0,
@@ -77,6 +81,30 @@ class DicomInputStreamTest {
             -2, -1, -35, -32, 0, 0, 0, 0
     };
 
+    @Test
+    void withValueCache() throws IOException {
+        DicomObject data;
+        try (DicomInputStream dis = new DicomInputStream(new ByteArrayInputStream(PN_DS_EVR_LE))
+                .withEncoding(DicomEncoding.EVR_LE)
+                .withValueCache(64)) {
+            data = dis.readDataSet();
+        }
+        assertEquals("Doe^John", data.getString(Tag.PatientName).orElseGet(Assertions::fail));
+        DicomElement pixelSpacing = data.get(Tag.PixelSpacing).orElseGet(Assertions::fail);
+        String[] ss = pixelSpacing.stringValues();
+        assertArrayEquals(new String[]{ "0.5", "0.125" }, ss);
+        ss[0] = "1";
+        assertEquals("0.5", pixelSpacing.stringValue(0).orElseGet(Assertions::fail));
+        assertEquals(0.125, pixelSpacing.doubleValue(1).orElseGet(Assertions::fail));
+        assertArrayEquals(new double[]{ 0.5, 0.125 }, pixelSpacing.doubleValues());
+        assertArrayEquals(new float[]{ 0.5f, 0.125f }, pixelSpacing.floatValues());
+        assertEquals(0.125, pixelSpacing.doubleValue(1).orElseGet(Assertions::fail));
+        assertTrue(pixelSpacing.doubleValue(2).isEmpty());
+        data.purgeEncodedValues();
+        assertArrayEquals(new String[]{ "0.5", "0.125" }, pixelSpacing.stringValues());
+        assertArrayEquals(new int[]{ 0, 0 }, pixelSpacing.intValues());
+    }
+
     @Test
     void readDataSetIVR_LE() throws IOException {
         assertEquals(DicomEncoding.IVR_LE, readDataSet(IVR_LE));
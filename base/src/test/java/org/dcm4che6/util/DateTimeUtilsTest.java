@@ -26,9 +26,30 @@ class DateTimeUtilsTest {
         assertEquals(LOCAL_DATE, DateTimeUtils.parseDA("2007.04.19"));
     }
 
+    @Test
+    void parseDAEpochDay() {
+        assertEquals(LOCAL_DATE.toEpochDay(), DateTimeUtils.parseDAEpochDay("20070419"));
+        assertEquals(LOCAL_DATE.toEpochDay(), DateTimeUtils.parseDAEpochDay(new StringBuilder("2007.04.19")));
+        assertEquals(0L, DateTimeUtils.parseDAEpochDay("19700101"));
+        assertThrows(DateTimeException.class, () -> DateTimeUtils.parseDAEpochDay("20071319"));
+        assertThrows(DateTimeException.class, () -> DateTimeUtils.parseDAEpochDay("2007041"));
+    }
+
     @Test
     void formatDA() {
         assertEquals("20070419", DateTimeUtils.formatDA(LOCAL_DATE));
+        assertEquals("DA=20070419", DateTimeUtils.formatDA(LOCAL_DATE, new StringBuilder("DA=")).toString());
+        byte[] b = new byte[9];
+        assertEquals(9, DateTimeUtils.formatDA(LOCAL_DATE, b, 1));
+        assertEquals("20070419", new String(b, 1, 8));
+    }
+
+    @Test
+    void parseTMNanoOfDay() {
+        assertEquals(LOCAL_TIME.toNanoOfDay(), DateTimeUtils.parseTMNanoOfDay("102030.456789"));
+        assertEquals(LOCAL_TIME.toNanoOfDay(), DateTimeUtils.parseTMNanoOfDay("10:20:30.456789"));
+        assertThrows(DateTimeException.class, () -> DateTimeUtils.parseTMNanoOfDay("2400"));
+        assertThrows(DateTimeException.class, () -> DateTimeUtils.parseTMNanoOfDay("102030.4567891"));
     }
 
     @ParameterizedTest
@@ -58,6 +79,7 @@ class DateTimeUtilsTest {
     @Test
     void formatTM() {
         assertEquals("102030.456789", DateTimeUtils.formatTM(LOCAL_TIME));
+        assertEquals("102030.456789", DateTimeUtils.formatTM(LOCAL_TIME, new StringBuilder()).toString());
     }
 
     @ParameterizedTest
@@ -134,6 +156,11 @@ class DateTimeUtilsTest {
     void formatDT() {
         assertEquals("20070419102030.456789", DateTimeUtils.formatDT(LOCAL_DATE_TIME));
         assertEquals("20070419102030.456789+0200", DateTimeUtils.formatDT(ZONED_DATE_TIME));
+        assertEquals("20070419102030.456789-0330", DateTimeUtils.formatDT(
+                ZONED_DATE_TIME.withZoneSameLocal(ZoneOffset.ofHoursMinutes(-3, -30)), new StringBuilder()).toString());
+        byte[] b = new byte[26];
+        assertEquals(26, DateTimeUtils.formatDT(ZONED_DATE_TIME, b, 0));
+        assertEquals("20070419102030.456789+0200", new String(b));
     }
 
     @ParameterizedTest
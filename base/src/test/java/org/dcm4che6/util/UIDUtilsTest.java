@@ -0,0 +1,66 @@
+package org.dcm4che6.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class UIDUtilsTest {
+
+    @Test
+    void toDecimal() {
+        assertEquals("0", toDecimal(0L, 0L));
+        assertEquals("999999999", toDecimal(0L, 999999999L));
+        assertEquals("1000000000", toDecimal(0L, 1000000000L));
+        assertEquals("18446744073709551615", toDecimal(0L, -1L));
+        assertEquals("18446744073709551616", toDecimal(1L, 0L));
+        assertEquals("340282366920938463463374607431768211455", toDecimal(-1L, -1L));
+        SplittableRandom rnd = new SplittableRandom(4711);
+        for (int i = 0; i < 1000; i++) {
+            long msb = rnd.nextLong();
+            long lsb = rnd.nextLong();
+            assertEquals(toBigInteger(msb, lsb).toString(), toDecimal(msb, lsb));
+        }
+    }
+
+    @Test
+    void randomUID() {
+        Set<String> uids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String uid = UIDUtils.randomUID();
+            assertTrue(uid.startsWith("2.25."), uid);
+            assertTrue(uid.length() <= 64, uid);
+            BigInteger value = new BigInteger(uid.substring(5));
+            assertEquals(4, value.shiftRight(76).intValue() & 0xf, uid);
+            assertEquals(2, value.shiftRight(62).intValue() & 0x3, uid);
+            assertTrue(uids.add(uid), uid);
+        }
+    }
+
+    @Test
+    void nameUIDFromString() {
+        UUID uuid = UUID.nameUUIDFromBytes("dcm4che".getBytes(StandardCharsets.UTF_8));
+        assertEquals("2.25." + toBigInteger(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()),
+                UIDUtils.nameUIDFromString("dcm4che"));
+    }
+
+    private static String toDecimal(long msb, long lsb) {
+        char[] cs = new char[40];
+        int begin = UIDUtils.toDecimal(msb, lsb, cs, cs.length);
+        return new String(cs, begin, cs.length - begin);
+    }
+
+    private static BigInteger toBigInteger(long msb, long lsb) {
+        return new BigInteger(Long.toUnsignedString(msb)).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(lsb)));
+    }
+}
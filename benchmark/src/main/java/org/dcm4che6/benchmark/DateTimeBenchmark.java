@@ -0,0 +1,154 @@
+package org.dcm4che6.benchmark;
+
+import org.dcm4che6.util.DateTimeUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.temporal.ChronoField.*;
+
+/**
+ * Compares {@link DateTimeUtils} with the {@link DateTimeFormatter} based parsing and formatting of DA, TM and DT
+ * values it replaced.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeBenchmark {
+
+    private static final DateTimeFormatter DA_PARSER = new DateTimeFormatterBuilder()
+            .appendValue(YEAR, 4)
+            .optionalStart()
+            .appendLiteral('.')
+            .optionalEnd()
+            .appendValue(MONTH_OF_YEAR, 2)
+            .optionalStart()
+            .appendLiteral('.')
+            .optionalEnd()
+            .appendValue(DAY_OF_MONTH, 2)
+            .toFormatter();
+
+    private static final DateTimeFormatter DA_FORMATTER = new DateTimeFormatterBuilder()
+            .appendValue(YEAR, 4)
+            .appendValue(MONTH_OF_YEAR, 2)
+            .appendValue(DAY_OF_MONTH, 2)
+            .toFormatter();
+
+    private static final DateTimeFormatter TM_PARSER = new DateTimeFormatterBuilder()
+            .appendValue(HOUR_OF_DAY, 2)
+            .optionalStart()
+            .optionalStart()
+            .appendLiteral(':')
+            .optionalEnd()
+            .appendValue(MINUTE_OF_HOUR, 2)
+            .optionalStart()
+            .optionalStart()
+            .appendLiteral(':')
+            .optionalEnd()
+            .appendValue(SECOND_OF_MINUTE, 2)
+            .optionalStart()
+            .appendFraction(NANO_OF_SECOND, 0, 6, true)
+            .toFormatter();
+
+    private static final DateTimeFormatter TM_FORMATTER = new DateTimeFormatterBuilder()
+            .appendValue(HOUR_OF_DAY, 2)
+            .appendValue(MINUTE_OF_HOUR, 2)
+            .appendValue(SECOND_OF_MINUTE, 2)
+            .appendFraction(NANO_OF_SECOND, 6, 6, true)
+            .toFormatter();
+
+    private static final DateTimeFormatter DT_FORMATTER = new DateTimeFormatterBuilder()
+            .appendValue(YEAR, 4)
+            .appendValue(MONTH_OF_YEAR, 2)
+            .appendValue(DAY_OF_MONTH, 2)
+            .appendValue(HOUR_OF_DAY, 2)
+            .appendValue(MINUTE_OF_HOUR, 2)
+            .appendValue(SECOND_OF_MINUTE, 2)
+            .appendFraction(NANO_OF_SECOND, 6, 6, true)
+            .optionalStart()
+            .appendOffset("+HHMM", "+0000")
+            .toFormatter();
+
+    private final String da = "20070419";
+    private final String tm = "102030.456789";
+    private final LocalDateTime dateTime = LocalDateTime.of(2007, 4, 19, 10, 20, 30, 456789000);
+    private final StringBuilder sb = new StringBuilder(26);
+    private final byte[] buf = new byte[26];
+
+    @Benchmark
+    public LocalDate parseDAFormatter() {
+        return LocalDate.from(DA_PARSER.parse(da));
+    }
+
+    @Benchmark
+    public LocalDate parseDA() {
+        return DateTimeUtils.parseDA(da);
+    }
+
+    @Benchmark
+    public long parseDAEpochDay() {
+        return DateTimeUtils.parseDAEpochDay(da);
+    }
+
+    @Benchmark
+    public LocalTime parseTMFormatter() {
+        return LocalTime.from(TM_PARSER.parse(tm));
+    }
+
+    @Benchmark
+    public LocalTime parseTM() {
+        return DateTimeUtils.parseTM(tm);
+    }
+
+    @Benchmark
+    public long parseTMNanoOfDay() {
+        return DateTimeUtils.parseTMNanoOfDay(tm);
+    }
+
+    @Benchmark
+    public String formatDAFormatter() {
+        return DA_FORMATTER.format(dateTime);
+    }
+
+    @Benchmark
+    public String formatDA() {
+        return DateTimeUtils.formatDA(dateTime);
+    }
+
+    @Benchmark
+    public String formatTMFormatter() {
+        return TM_FORMATTER.format(dateTime);
+    }
+
+    @Benchmark
+    public String formatTM() {
+        return DateTimeUtils.formatTM(dateTime);
+    }
+
+    @Benchmark
+    public String formatDTFormatter() {
+        return DT_FORMATTER.format(dateTime);
+    }
+
+    @Benchmark
+    public StringBuilder formatDTToStringBuilder() {
+        sb.setLength(0);
+        return DateTimeUtils.formatDT(dateTime, sb);
+    }
+
+    @Benchmark
+    public int formatDTToBytes() {
+        return DateTimeUtils.formatDT(dateTime, buf, 0);
+    }
+}
@@ -0,0 +1,205 @@
+package org.dcm4che6.benchmark;
+
+import org.dcm4che6.conf.model.ApplicationEntity;
+import org.dcm4che6.conf.model.Connection;
+import org.dcm4che6.conf.model.Device;
+import org.dcm4che6.conf.model.TransferCapability;
+import org.dcm4che6.data.UID;
+import org.dcm4che6.net.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opens short-lived associations from a Verification SCU to a Verification SCP on the loopback interface within one
+ * JVM - A-ASSOCIATE-RQ, C-ECHO-RQ, A-RELEASE-RQ - as monitoring systems do, sweeping the number of concurrent
+ * associations and the number of I/O event loops, and reports associations/s and the 50th and 99th percentile of
+ * the time from connect until the connection is closed.
+ * <p>
+ * Runs headless without any external services, e.g.:
+ * <pre>
+ * java -cp benchmarks.jar org.dcm4che6.benchmark.EchoStormBenchmark \
+ *      --concurrency 1,8,32 --event-loops 0,2 --associations 5000
+ * </pre>
+ * Exits with status 1 if any association failed.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class EchoStormBenchmark {
+
+    private int[] concurrency = { 1, 8, 32 };
+    private int[] eventLoops = { 0 };
+    private int associations = 2000;
+    private int echoes = 1;
+    private int contexts = 1;
+    private int warmup = 500;
+
+    public static void main(String[] args) throws Exception {
+        EchoStormBenchmark benchmark = new EchoStormBenchmark();
+        try {
+            benchmark.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: EchoStormBenchmark [--concurrency <n>,..] [--event-loops <n>,..] "
+                    + "[--associations <n>] [--echoes <n>] [--contexts <n>] [--warmup <n>]");
+            System.exit(2);
+        }
+        System.exit(benchmark.run() > 0 ? 1 : 0);
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            if (value == null)
+                throw new IllegalArgumentException("Missing value of " + args[i]);
+            switch (args[i++]) {
+                case "--concurrency":
+                    concurrency = parseInts(value);
+                    break;
+                case "--event-loops":
+                    eventLoops = parseInts(value);
+                    break;
+                case "--associations":
+                    associations = Integer.parseInt(value);
+                    break;
+                case "--echoes":
+                    echoes = Integer.parseInt(value);
+                    break;
+                case "--contexts":
+                    contexts = Integer.parseInt(value);
+                    if (contexts < 1 || contexts > 128)
+                        throw new IllegalArgumentException("--contexts must be 1..128");
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i - 1]);
+            }
+        }
+    }
+
+    private static int[] parseInts(String s) {
+        return Arrays.stream(s.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private long run() throws Exception {
+        System.out.format("%10s %11s %12s %10s %14s %10s %10s %8s%n",
+                "eventLoops", "concurrency", "associations", "seconds", "associations/s",
+                "p50(us)", "p99(us)", "failures");
+        long failures = 0L;
+        for (int loops : eventLoops) {
+            for (int i = 0; i < warmup; i += associations) {
+                runOnce(loops, concurrency[0], Math.min(associations, warmup - i));
+            }
+            for (int n : concurrency) {
+                RunResult result = runOnce(loops, n, associations);
+                System.out.format("%10d %11d %12d %10.2f %14.1f %10d %10d %8d%n",
+                        loops, n, associations, result.nanos / 1e9, associations * 1e9 / result.nanos,
+                        result.latency.getP50(), result.latency.getP99(), result.failures);
+                failures += result.failures;
+            }
+        }
+        return failures;
+    }
+
+    private RunResult runOnce(int loops, int n, int total) throws Exception {
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        TCPConnector<Association> scp = new TCPConnector<>(
+                (connector, role) -> new Association(connector, role, serviceRegistry), loops);
+        startDaemon(scp, "echoscp");
+        TCPConnector<Association> scu = new TCPConnector<>(
+                (connector, role) -> new Association(connector, role, serviceRegistry), loops);
+        startDaemon(scu, "echoscu");
+        ExecutorService workers = Executors.newFixedThreadPool(n);
+        ServerSocketChannel ssc = null;
+        try {
+            Connection scpConn = new Connection().setHostname("127.0.0.1").setPort(freePort());
+            ApplicationEntity ae = new ApplicationEntity().setAETitle("ECHOSCP").addConnection(scpConn);
+            ae.addTransferCapability(new TransferCapability()
+                    .setSOPClass("*")
+                    .setTransferSyntaxes(UID.ImplicitVRLittleEndian)
+                    .setRole(TransferCapability.Role.SCP));
+            new Device().setDeviceName("echoscp").addApplicationEntity(ae).addConnection(scpConn);
+            ssc = scp.bind(scpConn);
+            Connection scuConn = new Connection();
+            AtomicInteger remaining = new AtomicInteger(total);
+            LongAdder failures = new LongAdder();
+            Histogram latency = new Histogram();
+            List<Future<?>> futures = new ArrayList<>(n);
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                futures.add(workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long t0 = System.nanoTime();
+                        try {
+                            echo(scu, scuConn, scpConn);
+                            latency.record((System.nanoTime() - t0) / 1000);
+                        } catch (Exception e) {
+                            failures.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            RunResult result = new RunResult();
+            result.nanos = System.nanoTime() - start;
+            result.failures = failures.sum();
+            result.latency = latency.snapshot();
+            return result;
+        } finally {
+            workers.shutdown();
+            if (ssc != null) {
+                ssc.close();
+            }
+            scu.close();
+            scp.close();
+        }
+    }
+
+    private void echo(TCPConnector<Association> scu, Connection scuConn, Connection scpConn) throws Exception {
+        AAssociate.RQ rq = new AAssociate.RQ();
+        rq.setCallingAETitle("ECHOSCU");
+        rq.setCalledAETitle("ECHOSCP");
+        rq.putPresentationContext((byte) 1, UID.VerificationSOPClass, UID.ImplicitVRLittleEndian);
+        for (int i = 1; i < contexts; i++) {
+            rq.putPresentationContext((byte) (i * 2 + 1), UID.CTImageStorage + '.' + i,
+                    UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian);
+        }
+        Association as = scu.connect(scuConn, scpConn).thenCompose(a -> a.open(rq)).get(10, TimeUnit.SECONDS);
+        for (int i = 0; i < echoes; i++) {
+            as.cecho().get(10, TimeUnit.SECONDS);
+        }
+        as.release().get(10, TimeUnit.SECONDS);
+        as.onClose().get(10, TimeUnit.SECONDS);
+    }
+
+    private static void startDaemon(Runnable connector, String name) {
+        Thread thread = new Thread(connector, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket ss = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            return ss.getLocalPort();
+        }
+    }
+
+    private static class RunResult {
+        long nanos;
+        long failures;
+        Histogram.Snapshot latency;
+    }
+}
@@ -0,0 +1,275 @@
+package org.dcm4che6.benchmark;
+
+import org.dcm4che6.conf.model.ApplicationEntity;
+import org.dcm4che6.conf.model.Connection;
+import org.dcm4che6.conf.model.Device;
+import org.dcm4che6.conf.model.TransferCapability;
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.data.Tag;
+import org.dcm4che6.data.UID;
+import org.dcm4che6.data.VR;
+import org.dcm4che6.io.DicomEncoding;
+import org.dcm4che6.io.DicomOutputStream;
+import org.dcm4che6.net.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+/**
+ * Sends synthetic composite objects from a Storage SCU to a Storage SCP on the loopback interface within one JVM,
+ * sweeping the PDU length, the asynchronous operations window, the object size distribution and the number of
+ * associations, and reports objects/s, MB/s and the 50th and 99th percentile of the C-STORE response time.
+ * <p>
+ * Runs headless without any external services, e.g.:
+ * <pre>
+ * java -cp benchmarks.jar org.dcm4che6.benchmark.StoreLoopbackBenchmark \
+ *      --pdu-length 16378,65536 --max-ops 1,16 --sizes small,ct,mixed --associations 1,4 --objects 1000
+ * </pre>
+ * Exits with status 1 if any C-STORE failed.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class StoreLoopbackBenchmark {
+    private static final String SOP_CLASS_UID = UID.CTImageStorage;
+    private static final String TRANSFER_SYNTAX = UID.ImplicitVRLittleEndian;
+    private static final byte[] ZEROS = new byte[0x10000];
+
+    private int[] pduLengths = { AAssociate.DEF_MAX_PDU_LENGTH, 65536 };
+    private int[] maxOpsInvoked = { 1, 16 };
+    private String[] sizes = { "small", "ct", "mixed" };
+    private int[] associations = { 1, 4 };
+    private int objects = 500;
+    private int warmup = 1;
+    private long seed = 4711;
+
+    public static void main(String[] args) throws Exception {
+        StoreLoopbackBenchmark benchmark = new StoreLoopbackBenchmark();
+        try {
+            benchmark.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: StoreLoopbackBenchmark [--pdu-length <n>,..] [--max-ops <n>,..] "
+                    + "[--sizes small|mr|ct|mixed|<bytes>,..] [--associations <n>,..] [--objects <n>] "
+                    + "[--warmup <n>] [--seed <n>]");
+            System.exit(2);
+        }
+        System.exit(benchmark.run() > 0 ? 1 : 0);
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            if (value == null)
+                throw new IllegalArgumentException("Missing value of " + args[i]);
+            switch (args[i++]) {
+                case "--pdu-length":
+                    pduLengths = parseInts(value);
+                    break;
+                case "--max-ops":
+                    maxOpsInvoked = parseInts(value);
+                    break;
+                case "--sizes":
+                    sizes = value.split(",");
+                    for (String size : sizes) {
+                        sizeDistribution(size);
+                    }
+                    break;
+                case "--associations":
+                    associations = parseInts(value);
+                    break;
+                case "--objects":
+                    objects = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i - 1]);
+            }
+        }
+    }
+
+    private static int[] parseInts(String s) {
+        return Arrays.stream(s.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private long run() throws Exception {
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry()
+                .setDefaultRQHandler(StoreLoopbackBenchmark::onCStoreRQ);
+        TCPConnector<Association> scp = new TCPConnector<>(
+                (connector, role) -> new Association(connector, role, serviceRegistry));
+        startDaemon(scp, "storescp");
+        Connection scpConn = new Connection().setHostname("127.0.0.1").setPort(freePort());
+        ApplicationEntity ae = new ApplicationEntity().setAETitle("STORESCP").addConnection(scpConn);
+        ae.addTransferCapability(new TransferCapability()
+                .setSOPClass("*")
+                .setTransferSyntaxes("*")
+                .setRole(TransferCapability.Role.SCP));
+        new Device().setDeviceName("storescp").addApplicationEntity(ae).addConnection(scpConn);
+        scp.bind(scpConn);
+
+        for (int i = 0; i < warmup; i++) {
+            runOnce(scpConn, pduLengths[0], maxOpsInvoked[0], sizes[0], associations[0]);
+        }
+        System.out.format("%10s %7s %8s %6s %8s %10s %10s %10s %10s %10s %8s%n",
+                "pduLength", "maxOps", "sizes", "assocs", "objects", "MB", "objects/s", "MB/s",
+                "p50(us)", "p99(us)", "failures");
+        long failures = 0L;
+        for (int pduLength : pduLengths)
+            for (int maxOps : maxOpsInvoked)
+                for (String size : sizes)
+                    for (int assocs : associations) {
+                        RunResult result = runOnce(scpConn, pduLength, maxOps, size, assocs);
+                        System.out.format("%10d %7d %8s %6d %8d %10.1f %10.1f %10.1f %10d %10d %8d%n",
+                                pduLength, maxOps, size, assocs, result.objects, result.bytes / 1e6,
+                                result.objects * 1e9 / result.nanos, result.bytes * 1e3 / result.nanos,
+                                result.latency.getP50(), result.latency.getP99(), result.failures);
+                        failures += result.failures;
+                    }
+        return failures;
+    }
+
+    private RunResult runOnce(Connection scpConn, int pduLength, int maxOps, String size, int assocs)
+            throws Exception {
+        scpConn.setMaxPDULengthReceive(pduLength);
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        TCPConnector<Association> scu = new TCPConnector<>(
+                (connector, role) -> new Association(connector, role, serviceRegistry));
+        startDaemon(scu, "storescu");
+        try {
+            ParallelStoreSCU storescu = new ParallelStoreSCU(scu, new Connection(), scpConn)
+                    .setCalledAETitle("STORESCP")
+                    .setMaxOpsInvoked(maxOps)
+                    .setParallelism(assocs);
+            List<ParallelStoreSCU.Instance> instances = createInstances(sizeDistribution(size));
+            long start = System.nanoTime();
+            storescu.send(instances).join();
+            RunResult result = new RunResult();
+            result.nanos = System.nanoTime() - start;
+            result.objects = storescu.getSentObjects();
+            result.bytes = storescu.getSentBytes();
+            result.failures = storescu.getFailures();
+            result.latency = scu.getMetrics().getDimseResponseTime(Dimse.C_STORE_RQ, SOP_CLASS_UID).snapshot();
+            return result;
+        } finally {
+            scu.close();
+        }
+    }
+
+    private List<ParallelStoreSCU.Instance> createInstances(ToIntFunction<Random> distribution) throws IOException {
+        Random random = new Random(seed);
+        List<ParallelStoreSCU.Instance> instances = new ArrayList<>(objects);
+        for (int i = 0; i < objects; i++) {
+            String iuid = "1.2.40.0.13.1.1.99." + seed + '.' + (i + 1);
+            SyntheticDataWriter dataWriter = new SyntheticDataWriter(iuid, distribution.applyAsInt(random));
+            instances.add(new ParallelStoreSCU.Instance(SOP_CLASS_UID, iuid, TRANSFER_SYNTAX,
+                    dataWriter.length(), dataWriter));
+        }
+        return instances;
+    }
+
+    private static void onCStoreRQ(Association as, Byte pcid, Dimse dimse, DicomObject commandSet,
+            InputStream dataStream) throws IOException {
+        dataStream.transferTo(OutputStream.nullOutputStream());
+        as.writeRSP(pcid, dimse, commandSet, Status.Success);
+    }
+
+    private static void startDaemon(Runnable connector, String name) {
+        Thread thread = new Thread(connector, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket ss = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            return ss.getLocalPort();
+        }
+    }
+
+    private static class RunResult {
+        long nanos;
+        long objects;
+        long bytes;
+        long failures;
+        Histogram.Snapshot latency;
+    }
+
+    private static ToIntFunction<Random> sizeDistribution(String s) {
+        switch (s) {
+            case "small":
+                return StoreLoopbackBenchmark::smallSize;
+            case "mr":
+                return random -> 256 * 256 * 2;
+            case "ct":
+                return random -> 512 * 512 * 2;
+            case "mixed":
+                return StoreLoopbackBenchmark::mixedSize;
+        }
+        try {
+            int size = Integer.parseInt(s) & ~1;
+            return random -> size;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size distribution: " + s);
+        }
+    }
+
+    private static int smallSize(Random random) {
+        return 4096 + (random.nextInt(61440) & ~1);
+    }
+
+    private static int mixedSize(Random random) {
+        int p = random.nextInt(100);
+        return p < 70 ? smallSize(random)
+                : p < 98 ? 512 * 512 * 2
+                : (4 << 20) + (random.nextInt(12 << 20) & ~1);
+    }
+
+    private static class SyntheticDataWriter implements Association.DataWriter {
+        private final byte[] attributes;
+        private final int pixelDataLength;
+
+        SyntheticDataWriter(String iuid, int pixelDataLength) throws IOException {
+            DicomObject dcmobj = DicomObject.newDicomObject();
+            dcmobj.setString(Tag.SOPClassUID, VR.UI, SOP_CLASS_UID);
+            dcmobj.setString(Tag.SOPInstanceUID, VR.UI, iuid);
+            dcmobj.setString(Tag.StudyInstanceUID, VR.UI, "1.2.40.0.13.1.1.99.20200301");
+            dcmobj.setString(Tag.SeriesInstanceUID, VR.UI, "1.2.40.0.13.1.1.99.20200301.1");
+            dcmobj.setString(Tag.Modality, VR.CS, "CT");
+            dcmobj.setString(Tag.PatientID, VR.LO, "PID-4711");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new DicomOutputStream(out).withEncoding(DicomEncoding.IVR_LE).writeDataSet(dcmobj);
+            this.attributes = out.toByteArray();
+            this.pixelDataLength = pixelDataLength;
+        }
+
+        long length() {
+            return attributes.length + 8 + pixelDataLength;
+        }
+
+        @Override
+        public void writeTo(OutputStream out, String tsuid) throws IOException {
+            out.write(attributes);
+            DicomOutputStream dos = new DicomOutputStream(out).withEncoding(DicomEncoding.IVR_LE);
+            dos.writeHeader(Tag.PixelData, VR.OW, pixelDataLength);
+            int remaining = pixelDataLength;
+            while (remaining > 0) {
+                int n = Math.min(remaining, ZEROS.length);
+                out.write(ZEROS, 0, n);
+                remaining -= n;
+            }
+        }
+    }
+}
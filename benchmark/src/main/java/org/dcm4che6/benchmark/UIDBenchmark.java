@@ -0,0 +1,43 @@
+package org.dcm4che6.benchmark;
+
+import org.dcm4che6.util.UIDUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of concurrent {@link UIDUtils#randomUID()} invocations compared to UID generation from
+ * {@link UUID#randomUUID()} converted by {@link BigInteger}. Run with {@code -t <threads>} to vary the concurrency.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class UIDBenchmark {
+
+    @Benchmark
+    public String uuidBigInteger() {
+        UUID uuid = UUID.randomUUID();
+        byte[] b17 = new byte[17];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            b17[8 - i] = (byte) (msb >>> (i << 3));
+            b17[16 - i] = (byte) (lsb >>> (i << 3));
+        }
+        return "2.25." + new BigInteger(b17);
+    }
+
+    @Benchmark
+    public String randomUID() {
+        return UIDUtils.randomUID();
+    }
+}
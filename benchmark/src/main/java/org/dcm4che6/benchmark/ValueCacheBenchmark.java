@@ -0,0 +1,84 @@
+package org.dcm4che6.benchmark;
+
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.data.Tag;
+import org.dcm4che6.data.UID;
+import org.dcm4che6.data.VR;
+import org.dcm4che6.io.DicomEncoding;
+import org.dcm4che6.io.DicomInputStream;
+import org.dcm4che6.io.DicomOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares repeated access of attribute values of parsed Data Sets with and without decode cache.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueCacheBenchmark {
+
+    @Param({"0", "64"})
+    int valueCache;
+
+    @Param({"1", "10", "50"})
+    int accessCount;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        DicomObject dcmobj = DicomObject.newDicomObject();
+        dcmobj.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 192");
+        dcmobj.setString(Tag.SOPClassUID, VR.UI, UID.CTImageStorage);
+        dcmobj.setString(Tag.SOPInstanceUID, VR.UI, "1.2.40.0.13.1.1.99.20200301.123456.1");
+        dcmobj.setString(Tag.StudyInstanceUID, VR.UI, "1.2.40.0.13.1.1.99.20200301.123456");
+        dcmobj.setString(Tag.SeriesInstanceUID, VR.UI, "1.2.40.0.13.1.1.99.20200301.123456.0");
+        dcmobj.setString(Tag.Modality, VR.CS, "CT");
+        dcmobj.setString(Tag.PatientName, VR.PN, "Müller^Hans^Peter");
+        dcmobj.setString(Tag.PatientID, VR.LO, "PID-4711");
+        dcmobj.setString(Tag.ImagePositionPatient, VR.DS, "-125.0", "-125.0", "-310.25");
+        dcmobj.setString(Tag.ImageOrientationPatient, VR.DS, "1", "0", "0", "0", "1", "0");
+        dcmobj.setString(Tag.PixelSpacing, VR.DS, "0.48828125", "0.48828125");
+        dcmobj.setString(Tag.RescaleIntercept, VR.DS, "-1024");
+        dcmobj.setString(Tag.RescaleSlope, VR.DS, "1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(out).withEncoding(DicomEncoding.EVR_LE)) {
+            dos.writeDataSet(dcmobj);
+        }
+        encoded = out.toByteArray();
+    }
+
+    @Benchmark
+    public void repeatedAccess(Blackhole bh) throws IOException {
+        DicomObject dcmobj;
+        try (DicomInputStream dis = new DicomInputStream(new ByteArrayInputStream(encoded))
+                .withEncoding(DicomEncoding.EVR_LE)
+                .withValueCache(valueCache)) {
+            dcmobj = dis.readDataSet();
+        }
+        for (int i = 0; i < accessCount; i++) {
+            bh.consume(dcmobj.getString(Tag.SOPInstanceUID));
+            bh.consume(dcmobj.getString(Tag.StudyInstanceUID));
+            bh.consume(dcmobj.getString(Tag.SeriesInstanceUID));
+            bh.consume(dcmobj.getString(Tag.Modality));
+            bh.consume(dcmobj.getString(Tag.PatientName));
+            bh.consume(dcmobj.getString(Tag.PatientID));
+            bh.consume(dcmobj.getStrings(Tag.ImagePositionPatient));
+            bh.consume(dcmobj.getString(Tag.PixelSpacing, 1));
+            bh.consume(dcmobj.getDouble(Tag.RescaleIntercept));
+            bh.consume(dcmobj.getDouble(Tag.RescaleSlope));
+        }
+    }
+}
@@ -126,6 +126,9 @@ public class DeviceDeserializer implements JsonbDeserializer<Device> {
                             case "dcmLimitOpenAssociations":
                                 device.setLimitOpenAssociations(deserializeInt(parser));
                                 break;
+                            case "dcmEventLoopGroupSize":
+                                device.setEventLoopGroupSize(deserializeInt(parser));
+                                break;
                             case "dcmKeyStore":
                                 assertEvent(JsonParser.Event.START_ARRAY, parser.next());
                                 while ((event = parser.next()) == JsonParser.Event.START_OBJECT) {
@@ -234,6 +237,49 @@ public class DeviceDeserializer implements JsonbDeserializer<Device> {
                 case "dicomInstalled":
                     conn.setInstalled(deserializeBoolean(parser));
                     break;
+                case "dcmNetworkConnection":
+                    assertEvent(JsonParser.Event.START_OBJECT, parser.next());
+                    while ((event = parser.next()) == JsonParser.Event.KEY_NAME) {
+                        switch (key = parser.getString()) {
+                            case "dcmAARQTimeout":
+                                conn.setAARQTimeout(deserializeInt(parser));
+                                break;
+                            case "dcmIdleTimeout":
+                                conn.setIdleTimeout(deserializeInt(parser));
+                                break;
+                            case "dcmResponseTimeout":
+                                conn.setResponseTimeout(deserializeInt(parser));
+                                break;
+                            case "dcmSocketCloseDelay":
+                                conn.setSocketCloseDelay(deserializeInt(parser));
+                                break;
+                            case "dcmTCPBacklog":
+                                conn.setTCPBacklog(deserializeInt(parser));
+                                break;
+                            case "dcmTCPSendBufferSize":
+                                conn.setTCPSendBufferSize(deserializeInt(parser));
+                                break;
+                            case "dcmTCPReceiveBufferSize":
+                                conn.setTCPReceiveBufferSize(deserializeInt(parser));
+                                break;
+                            case "dcmTCPNoDelay":
+                                conn.setTCPNoDelay(deserializeBoolean(parser));
+                                break;
+                            case "dcmMaxPDULengthReceive":
+                                conn.setMaxPDULengthReceive(deserializeInt(parser));
+                                break;
+                            case "dcmMaxPDULengthSend":
+                                conn.setMaxPDULengthSend(deserializeInt(parser));
+                                break;
+                            case "dcmMaxPDULengthSendAutotune":
+                                conn.setMaxPDULengthSendAutotune(deserializeBoolean(parser));
+                                break;
+                            default:
+                                unexpectedKey(key);
+                        }
+                    }
+                    assertEvent(JsonParser.Event.END_OBJECT, event);
+                    break;
                 default:
                     unexpectedKey(key);
             }
@@ -48,6 +48,7 @@ public class DeviceSerializer implements JsonbSerializer<Device> {
         if (!device.isStrictDicom()) {
             gen.writeStartObject("dcmDevice");
             serializeInt("dcmLimitOpenAssociations", device.getLimitOpenAssociations(), gen);
+            serializeInt("dcmEventLoopGroupSize", device.getEventLoopGroupSize(), gen);
             serializeKeyStoreConfs(device.getKeyStoreConfigurations(), gen);
             device.getKeyManagerConfiguration().ifPresent(km -> serializeKeyManagerConf(km, gen));
             device.getTrustManagerConfiguration().ifPresent(km -> serializeTrustManagerConf(km, gen));
@@ -94,6 +95,21 @@ public class DeviceSerializer implements JsonbSerializer<Device> {
         serializeInt("dicomPort", conn.getPort(), gen);
         serializeArray("dicomTLSCipherSuite", conn.getTlsCipherSuites(), gen);
         serializeBoolean("dicomInstalled", conn.getInstalled(), gen);
+        if (!conn.isStrictDicom()) {
+            gen.writeStartObject("dcmNetworkConnection");
+            serializeInt("dcmAARQTimeout", conn.getAARQTimeout(), gen);
+            serializeInt("dcmIdleTimeout", conn.getIdleTimeout(), gen);
+            serializeInt("dcmResponseTimeout", conn.getResponseTimeout(), gen);
+            serializeInt("dcmSocketCloseDelay", conn.getSocketCloseDelay(), gen);
+            serializeInt("dcmTCPBacklog", conn.getTCPBacklog(), gen);
+            serializeInt("dcmTCPSendBufferSize", conn.getTCPSendBufferSize(), gen);
+            serializeInt("dcmTCPReceiveBufferSize", conn.getTCPReceiveBufferSize(), gen);
+            serializeBoolean("dcmTCPNoDelay", conn.getTCPNoDelay(), gen);
+            serializeInt("dcmMaxPDULengthReceive", conn.getMaxPDULengthReceive(), gen);
+            serializeInt("dcmMaxPDULengthSend", conn.getMaxPDULengthSend(), gen);
+            serializeBoolean("dcmMaxPDULengthSendAutotune", conn.getMaxPDULengthSendAutotune(), gen);
+            gen.writeEnd();
+        }
         gen.writeEnd();
     }
 
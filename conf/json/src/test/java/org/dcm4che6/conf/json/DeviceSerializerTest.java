@@ -11,6 +11,7 @@ import javax.json.bind.JsonbBuilder;
 import javax.json.bind.JsonbConfig;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -29,7 +30,12 @@ class DeviceSerializerTest {
                 .setName("dicom-tls")
                 .setHostname("hostname")
                 .setPort(2762)
-                .setTlsCipherSuites(Connection.TLS_RSA_WITH_AES_128_CBC_SHA);
+                .setTlsCipherSuites(Connection.TLS_RSA_WITH_AES_128_CBC_SHA)
+                .setAARQTimeout(10000)
+                .setIdleTimeout(60000)
+                .setTCPSendBufferSize(4194304)
+                .setTCPNoDelay(true)
+                .setMaxPDULengthSendAutotune(true);
         ApplicationEntity ae = new ApplicationEntity()
                 .setAETitle("DCM4CHEE")
                 .addConnection(conn)
@@ -51,6 +57,7 @@ class DeviceSerializerTest {
                 .setIssuerOfPatientID(issuerOfPatientID)
                 .setInstitutionCodes(code)
                 .setLimitOpenAssociations(100)
+                .setEventLoopGroupSize(4)
                 .setTrustManagerConfiguration(new TrustManagerConfiguration()
                         .setKeyStoreConfiguration(trustStore))
                 .setKeyManagerConfiguration(new KeyManagerConfiguration()
@@ -72,6 +79,16 @@ class DeviceSerializerTest {
         assertEquals(Optional.of(issuerOfPatientID), device1.getIssuerOfPatientID());
         assertEquals(List.of("ARCHIVE"), device1.getPrimaryDeviceTypes());
         assertEquals(List.of(code), device1.getInstitutionCodes());
+        assertEquals(OptionalInt.of(100), device1.getLimitOpenAssociations());
+        assertEquals(OptionalInt.of(4), device1.getEventLoopGroupSize());
+        Connection conn1 = device1.getConnections().get(0);
+        assertEquals(OptionalInt.of(10000), conn1.getAARQTimeout());
+        assertEquals(OptionalInt.of(60000), conn1.getIdleTimeout());
+        assertEquals(OptionalInt.empty(), conn1.getResponseTimeout());
+        assertEquals(OptionalInt.of(4194304), conn1.getTCPSendBufferSize());
+        assertEquals(Optional.of(true), conn1.getTCPNoDelay());
+        assertEquals(Optional.of(true), conn1.getMaxPDULengthSendAutotune());
+        assertEquals(OptionalInt.empty(), conn1.getMaxPDULengthReceive());
         assertSame(device1.getKeyStoreConfiguration("trustStore").get(),
                 device1.getTrustManagerConfiguration().get().getKeyStoreConfiguration());
         assertSame(device1.getKeyStoreConfiguration("keyStore").get(),
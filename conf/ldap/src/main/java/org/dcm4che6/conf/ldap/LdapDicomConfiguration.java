@@ -252,6 +252,7 @@ public class LdapDicomConfiguration implements Closeable {
         if (!device.isStrictDicom()) {
             addObjectClass(attrSet, "dcmDevice");
             putInt(attrSet, "dcmLimitOpenAssociations", device.getLimitOpenAssociations());
+            putInt(attrSet, "dcmEventLoopGroupSize", device.getEventLoopGroupSize());
         }
         return attrSet;
     }
@@ -320,6 +321,7 @@ public class LdapDicomConfiguration implements Closeable {
 
         if (hasObjectClass(attrSet, "dcmDevice")) {
             LdapUtils.ifPresent(attrSet, "dcmLimitOpenAssociations", device::setLimitOpenAssociations);
+            LdapUtils.ifPresent(attrSet, "dcmEventLoopGroupSize", device::setEventLoopGroupSize);
             forEach(ctx, name, "dcmKeyStore",
                     searchResult -> device.addKeyStoreConfiguration(
                             toKeyStoreConfiguration(searchResult.getAttributes())));
@@ -383,6 +385,8 @@ public class LdapDicomConfiguration implements Closeable {
                 a.isInstalled(), b.isInstalled());
         diffOptionalInt(mods, "dcmLimitOpenAssociations",
                 a.getLimitOpenAssociations(), b.getLimitOpenAssociations());
+        diffOptionalInt(mods, "dcmEventLoopGroupSize",
+                a.getEventLoopGroupSize(), b.getEventLoopGroupSize());
         return mods;
     }
 
@@ -409,6 +413,20 @@ public class LdapDicomConfiguration implements Closeable {
         putInt(attrSet, "dicomPort", conn.getPort());
         putValues(attrSet, "dicomTLSCipherSuite", conn.getTlsCipherSuites());
         putBoolean(attrSet, "dicomInstalled", conn.getInstalled());
+        if (!conn.isStrictDicom()) {
+            addObjectClass(attrSet, "dcmNetworkConnection");
+            putInt(attrSet, "dcmAARQTimeout", conn.getAARQTimeout());
+            putInt(attrSet, "dcmIdleTimeout", conn.getIdleTimeout());
+            putInt(attrSet, "dcmResponseTimeout", conn.getResponseTimeout());
+            putInt(attrSet, "dcmSocketCloseDelay", conn.getSocketCloseDelay());
+            putInt(attrSet, "dcmTCPBacklog", conn.getTCPBacklog());
+            putInt(attrSet, "dcmTCPSendBufferSize", conn.getTCPSendBufferSize());
+            putInt(attrSet, "dcmTCPReceiveBufferSize", conn.getTCPReceiveBufferSize());
+            putBoolean(attrSet, "dcmTCPNoDelay", conn.getTCPNoDelay());
+            putInt(attrSet, "dcmMaxPDULengthReceive", conn.getMaxPDULengthReceive());
+            putInt(attrSet, "dcmMaxPDULengthSend", conn.getMaxPDULengthSend());
+            putBoolean(attrSet, "dcmMaxPDULengthSendAutotune", conn.getMaxPDULengthSendAutotune());
+        }
         return attrSet;
     }
 
@@ -431,6 +449,21 @@ public class LdapDicomConfiguration implements Closeable {
                 conn::setTlsCipherSuites);
         ifPresent(attrSet, "dicomInstalled", booleanMapping,
                 conn::setInstalled);
+        if (hasObjectClass(attrSet, "dcmNetworkConnection")) {
+            LdapUtils.ifPresent(attrSet, "dcmAARQTimeout", conn::setAARQTimeout);
+            LdapUtils.ifPresent(attrSet, "dcmIdleTimeout", conn::setIdleTimeout);
+            LdapUtils.ifPresent(attrSet, "dcmResponseTimeout", conn::setResponseTimeout);
+            LdapUtils.ifPresent(attrSet, "dcmSocketCloseDelay", conn::setSocketCloseDelay);
+            LdapUtils.ifPresent(attrSet, "dcmTCPBacklog", conn::setTCPBacklog);
+            LdapUtils.ifPresent(attrSet, "dcmTCPSendBufferSize", conn::setTCPSendBufferSize);
+            LdapUtils.ifPresent(attrSet, "dcmTCPReceiveBufferSize", conn::setTCPReceiveBufferSize);
+            ifPresent(attrSet, "dcmTCPNoDelay", booleanMapping,
+                    conn::setTCPNoDelay);
+            LdapUtils.ifPresent(attrSet, "dcmMaxPDULengthReceive", conn::setMaxPDULengthReceive);
+            LdapUtils.ifPresent(attrSet, "dcmMaxPDULengthSend", conn::setMaxPDULengthSend);
+            ifPresent(attrSet, "dcmMaxPDULengthSendAutotune", booleanMapping,
+                    conn::setMaxPDULengthSendAutotune);
+        }
         return conn;
     }
 
@@ -462,6 +495,28 @@ public class LdapDicomConfiguration implements Closeable {
                 a.getTlsCipherSuites(), b.getTlsCipherSuites());
         diffOptionalBoolean(mods, "dicomInstalled",
                 a.getInstalled(), b.getInstalled());
+        diffOptionalInt(mods, "dcmAARQTimeout",
+                a.getAARQTimeout(), b.getAARQTimeout());
+        diffOptionalInt(mods, "dcmIdleTimeout",
+                a.getIdleTimeout(), b.getIdleTimeout());
+        diffOptionalInt(mods, "dcmResponseTimeout",
+                a.getResponseTimeout(), b.getResponseTimeout());
+        diffOptionalInt(mods, "dcmSocketCloseDelay",
+                a.getSocketCloseDelay(), b.getSocketCloseDelay());
+        diffOptionalInt(mods, "dcmTCPBacklog",
+                a.getTCPBacklog(), b.getTCPBacklog());
+        diffOptionalInt(mods, "dcmTCPSendBufferSize",
+                a.getTCPSendBufferSize(), b.getTCPSendBufferSize());
+        diffOptionalInt(mods, "dcmTCPReceiveBufferSize",
+                a.getTCPReceiveBufferSize(), b.getTCPReceiveBufferSize());
+        diffOptionalBoolean(mods, "dcmTCPNoDelay",
+                a.getTCPNoDelay(), b.getTCPNoDelay());
+        diffOptionalInt(mods, "dcmMaxPDULengthReceive",
+                a.getMaxPDULengthReceive(), b.getMaxPDULengthReceive());
+        diffOptionalInt(mods, "dcmMaxPDULengthSend",
+                a.getMaxPDULengthSend(), b.getMaxPDULengthSend());
+        diffOptionalBoolean(mods, "dcmMaxPDULengthSendAutotune",
+                a.getMaxPDULengthSendAutotune(), b.getMaxPDULengthSendAutotune());
         return mods;
     }
 
@@ -3,6 +3,7 @@ package org.dcm4che6.conf.model;
 import org.dcm4che6.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -18,6 +19,8 @@ public class ApplicationEntity {
     private volatile boolean initiator = true;
     private volatile Boolean installed;
     private volatile Device device;
+    private volatile TransferCapabilityIndex tcIndex;
+    private final AtomicInteger transferCapabilitiesVersion = new AtomicInteger();
 
     private final List<Connection> conns = new ArrayList<>();
     private final List<TransferCapability> tcs = new ArrayList<>();
@@ -43,6 +46,8 @@ public class ApplicationEntity {
 
     public ApplicationEntity setAETitle(String title) {
         this.aeTitle = StringUtils.requireNonBlank(title);
+        if (device != null)
+            device.invalidateApplicationEntityIndex();
         return this;
     }
 
@@ -133,7 +138,9 @@ public class ApplicationEntity {
 
     public Optional<TransferCapability> getTransferCapabilityOrDefault(
             TransferCapability.Role role, String abstractSyntax) {
-        return getTransferCapability(role, abstractSyntax).or(() -> getDefaultTransferCapability(role));
+        Map<String, TransferCapability> tcsBySOPClass = transferCapabilityIndex().get(role);
+        TransferCapability tc = tcsBySOPClass.get(abstractSyntax);
+        return Optional.ofNullable(tc != null ? tc : tcsBySOPClass.get("*"));
     }
 
     public Optional<TransferCapability> getDefaultTransferCapability(TransferCapability.Role role) {
@@ -141,18 +148,61 @@ public class ApplicationEntity {
     }
 
     public Optional<TransferCapability> getTransferCapability(TransferCapability.Role role, String abstractSyntax) {
-        return tcs.stream()
-                .filter(tc -> tc.getRole().equals(role) && tc.getSOPClass().equals(abstractSyntax))
-                .findFirst();
+        return Optional.ofNullable(transferCapabilityIndex().get(role).get(abstractSyntax));
     }
 
     public ApplicationEntity removeTransferCapability(TransferCapability tc) {
-        tcs.remove(Objects.requireNonNull(tc));
+        if (tcs.remove(Objects.requireNonNull(tc))) {
+            tc.setApplicationEntity(null);
+            invalidateTransferCapabilityIndex();
+        }
         return this;
     }
 
     public ApplicationEntity addTransferCapability(TransferCapability tc) {
-        tcs.add(Objects.requireNonNull(tc));
+        tcs.add(tc.setApplicationEntity(this));
+        invalidateTransferCapabilityIndex();
         return this;
     }
+
+    /**
+     * Returns a counter which is incremented on each change of the Transfer Capabilities of this AE, so cached
+     * results of association negotiations can be detected as stale.
+     */
+    public int getTransferCapabilitiesVersion() {
+        return transferCapabilitiesVersion.get();
+    }
+
+    void invalidateTransferCapabilityIndex() {
+        transferCapabilitiesVersion.incrementAndGet();
+    }
+
+    private Map<TransferCapability.Role, Map<String, TransferCapability>> transferCapabilityIndex() {
+        int version = transferCapabilitiesVersion.get();
+        TransferCapabilityIndex index = tcIndex;
+        if (index == null || index.version != version) {
+            tcIndex = index = new TransferCapabilityIndex(version, tcs);
+        }
+        return index.tcsByRole;
+    }
+
+    /**
+     * Transfer Capabilities by Role and SOP Class, built from the Transfer Capabilities at the given version or
+     * later. An index published concurrently to a change does not match the incremented version and is rebuilt.
+     */
+    private static class TransferCapabilityIndex {
+        final int version;
+        final Map<TransferCapability.Role, Map<String, TransferCapability>> tcsByRole =
+                new EnumMap<>(TransferCapability.Role.class);
+
+        TransferCapabilityIndex(int version, List<TransferCapability> tcs) {
+            this.version = version;
+            for (TransferCapability.Role role : TransferCapability.Role.values()) {
+                tcsByRole.put(role, new HashMap<>());
+            }
+            for (TransferCapability tc : tcs) {
+                tcsByRole.get(tc.getRole()).putIfAbsent(tc.getSOPClass(), tc);
+            }
+        }
+    }
 }
@@ -14,6 +14,7 @@ import java.util.OptionalInt;
  */
 public class Connection {
     public static final int NOT_LISTENING = -1;
+    public static final int MIN_MAX_PDU_LENGTH = 1024;
     public static final String TLS_RSA_WITH_NULL_SHA = "SSL_RSA_WITH_NULL_SHA";
     public static final String TLS_RSA_WITH_3DES_EDE_CBC_SHA = "SSL_RSA_WITH_3DES_EDE_CBC_SHA";
     public static final String TLS_RSA_WITH_AES_128_CBC_SHA = "TLS_RSA_WITH_AES_128_CBC_SHA";
@@ -23,6 +24,17 @@ public class Connection {
     private volatile int port = NOT_LISTENING;
     private volatile String[] tlsCipherSuites = {};
     private volatile Boolean installed;
+    private volatile int aarqTimeout = -1;
+    private volatile int idleTimeout = -1;
+    private volatile int responseTimeout = -1;
+    private volatile int socketCloseDelay = -1;
+    private volatile int tcpBacklog = -1;
+    private volatile int tcpSendBufferSize = -1;
+    private volatile int tcpReceiveBufferSize = -1;
+    private volatile Boolean tcpNoDelay;
+    private volatile int maxPDULengthReceive = -1;
+    private volatile int maxPDULengthSend = -1;
+    private volatile Boolean maxPDULengthSendAutotune;
     private volatile Device device;
 
 
@@ -91,6 +103,135 @@ public class Connection {
         return this;
     }
 
+    public OptionalInt getAARQTimeout() {
+        return aarqTimeout >= 0 ? OptionalInt.of(aarqTimeout) : OptionalInt.empty();
+    }
+
+    public Connection setAARQTimeout(int aarqTimeout) {
+        this.aarqTimeout = aarqTimeout;
+        return this;
+    }
+
+    public OptionalInt getIdleTimeout() {
+        return idleTimeout >= 0 ? OptionalInt.of(idleTimeout) : OptionalInt.empty();
+    }
+
+    public Connection setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    public OptionalInt getResponseTimeout() {
+        return responseTimeout >= 0 ? OptionalInt.of(responseTimeout) : OptionalInt.empty();
+    }
+
+    public Connection setResponseTimeout(int responseTimeout) {
+        this.responseTimeout = responseTimeout;
+        return this;
+    }
+
+    public OptionalInt getSocketCloseDelay() {
+        return socketCloseDelay >= 0 ? OptionalInt.of(socketCloseDelay) : OptionalInt.empty();
+    }
+
+    public Connection setSocketCloseDelay(int socketCloseDelay) {
+        this.socketCloseDelay = socketCloseDelay;
+        return this;
+    }
+
+    public OptionalInt getTCPBacklog() {
+        return tcpBacklog >= 0 ? OptionalInt.of(tcpBacklog) : OptionalInt.empty();
+    }
+
+    public Connection setTCPBacklog(int tcpBacklog) {
+        this.tcpBacklog = tcpBacklog;
+        return this;
+    }
+
+    public OptionalInt getTCPSendBufferSize() {
+        return tcpSendBufferSize >= 0 ? OptionalInt.of(tcpSendBufferSize) : OptionalInt.empty();
+    }
+
+    public Connection setTCPSendBufferSize(int tcpSendBufferSize) {
+        this.tcpSendBufferSize = tcpSendBufferSize;
+        return this;
+    }
+
+    public OptionalInt getTCPReceiveBufferSize() {
+        return tcpReceiveBufferSize >= 0 ? OptionalInt.of(tcpReceiveBufferSize) : OptionalInt.empty();
+    }
+
+    public Connection setTCPReceiveBufferSize(int tcpReceiveBufferSize) {
+        this.tcpReceiveBufferSize = tcpReceiveBufferSize;
+        return this;
+    }
+
+    public Optional<Boolean> getTCPNoDelay() {
+        return Optional.ofNullable(tcpNoDelay);
+    }
+
+    public Connection setTCPNoDelay(Boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    public OptionalInt getMaxPDULengthReceive() {
+        return maxPDULengthReceive >= 0 ? OptionalInt.of(maxPDULengthReceive) : OptionalInt.empty();
+    }
+
+    /**
+     * Sets the maximal length of received PDUs offered to the peer; {@code 0} indicates no limit. Positive values
+     * less than {@link #MIN_MAX_PDU_LENGTH} are rejected.
+     */
+    public Connection setMaxPDULengthReceive(int maxPDULengthReceive) {
+        if (maxPDULengthReceive > 0 && maxPDULengthReceive < MIN_MAX_PDU_LENGTH)
+            throw new IllegalArgumentException("maxPDULengthReceive < " + MIN_MAX_PDU_LENGTH);
+        this.maxPDULengthReceive = maxPDULengthReceive;
+        return this;
+    }
+
+    public OptionalInt getMaxPDULengthSend() {
+        return maxPDULengthSend >= 0 ? OptionalInt.of(maxPDULengthSend) : OptionalInt.empty();
+    }
+
+    /**
+     * Sets the maximal length of sent PDUs, if the peer does not offer a smaller limit. Values from {@code 0} to
+     * {@link #MIN_MAX_PDU_LENGTH} exclusive are rejected.
+     */
+    public Connection setMaxPDULengthSend(int maxPDULengthSend) {
+        if (maxPDULengthSend >= 0 && maxPDULengthSend < MIN_MAX_PDU_LENGTH)
+            throw new IllegalArgumentException("maxPDULengthSend < " + MIN_MAX_PDU_LENGTH);
+        this.maxPDULengthSend = maxPDULengthSend;
+        return this;
+    }
+
+    /**
+     * Indicates if the length of sent PDUs is limited by the size of the socket send buffer, instead of by
+     * {@link #getMaxPDULengthSend()}.
+     */
+    public Optional<Boolean> getMaxPDULengthSendAutotune() {
+        return Optional.ofNullable(maxPDULengthSendAutotune);
+    }
+
+    public Connection setMaxPDULengthSendAutotune(Boolean maxPDULengthSendAutotune) {
+        this.maxPDULengthSendAutotune = maxPDULengthSendAutotune;
+        return this;
+    }
+
+    public boolean isStrictDicom() {
+        return aarqTimeout < 0
+                && idleTimeout < 0
+                && responseTimeout < 0
+                && socketCloseDelay < 0
+                && tcpBacklog < 0
+                && tcpSendBufferSize < 0
+                && tcpReceiveBufferSize < 0
+                && tcpNoDelay == null
+                && maxPDULengthReceive < 0
+                && maxPDULengthSend < 0
+                && maxPDULengthSendAutotune == null;
+    }
+
     boolean match(Connection other) {
         return name != null
                 ? name.equals(other.name)
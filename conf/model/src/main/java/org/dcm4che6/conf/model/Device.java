@@ -6,6 +6,7 @@ import org.dcm4che6.util.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -41,11 +42,14 @@ public class Device {
     private volatile boolean installed = true;
 
     private volatile int limitOpenAssociations = -1;
+    private volatile int eventLoopGroupSize = -1;
     private volatile KeyManagerConfiguration keyManagerConfiguration;
     private volatile TrustManagerConfiguration trustManagerConfiguration;
 
     private final List<Connection> conns = new ArrayList<>();
     private final List<ApplicationEntity> aes = new ArrayList<>();
+    private volatile ApplicationEntityIndex aeIndex;
+    private final AtomicInteger applicationEntitiesVersion = new AtomicInteger();
     private final List<KeyStoreConfiguration> keyStoreConfigurations = new ArrayList<>();
     private final Map<Class,Object> deviceExtensions = new ConcurrentHashMap<>();
 
@@ -283,6 +287,15 @@ public class Device {
         return this;
     }
 
+    public OptionalInt getEventLoopGroupSize() {
+        return eventLoopGroupSize >= 0 ? OptionalInt.of(eventLoopGroupSize) : OptionalInt.empty();
+    }
+
+    public Device setEventLoopGroupSize(int eventLoopGroupSize) {
+        this.eventLoopGroupSize = eventLoopGroupSize;
+        return this;
+    }
+
     public Optional<KeyManagerConfiguration> getKeyManagerConfiguration() {
         return Optional.ofNullable(keyManagerConfiguration);
     }
@@ -335,21 +348,36 @@ public class Device {
     }
 
     public Optional<ApplicationEntity> getApplicationEntity(String name) {
-        return aes.stream().filter(ae -> ae.getAETitle().equals(name)).findFirst();
+        return Optional.ofNullable(applicationEntityIndex().get(name));
     }
 
     public Device addApplicationEntity(ApplicationEntity ae) {
         aes.add(ae.setDevice(this));
+        invalidateApplicationEntityIndex();
         return this;
     }
 
     public Device removeApplicationEntity(ApplicationEntity ae) {
         if (aes.remove(Objects.requireNonNull(ae))) {
             ae.setDevice(null);
+            invalidateApplicationEntityIndex();
         }
         return this;
     }
 
+    void invalidateApplicationEntityIndex() {
+        applicationEntitiesVersion.incrementAndGet();
+    }
+
+    private Map<String, ApplicationEntity> applicationEntityIndex() {
+        int version = applicationEntitiesVersion.get();
+        ApplicationEntityIndex index = aeIndex;
+        if (index == null || index.version != version) {
+            aeIndex = index = new ApplicationEntityIndex(version, aes);
+        }
+        return index.aesByTitle;
+    }
+
     public List<KeyStoreConfiguration> getKeyStoreConfigurations() {
         return Collections.unmodifiableList(keyStoreConfigurations);
     }
@@ -383,7 +411,20 @@ public class Device {
 
     public boolean isStrictDicom() {
         return limitOpenAssociations < 0
+                && eventLoopGroupSize < 0
                 && keyStoreConfigurations.isEmpty()
                 && deviceExtensions.isEmpty();
     }
+
+    private static class ApplicationEntityIndex {
+        final int version;
+        final Map<String, ApplicationEntity> aesByTitle = new HashMap<>();
+
+        ApplicationEntityIndex(int version, List<ApplicationEntity> aes) {
+            this.version = version;
+            for (ApplicationEntity ae : aes) {
+                aesByTitle.putIfAbsent(ae.getAETitle(), ae);
+            }
+        }
+    }
 }
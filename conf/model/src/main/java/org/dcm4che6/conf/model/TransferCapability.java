@@ -19,6 +19,20 @@ public class TransferCapability {
     private String sopClass = UID.VerificationSOPClass;
     private Role role = Role.SCP;
     private String[] transferSyntaxes = {};
+    private volatile ApplicationEntity ae;
+
+    public Optional<ApplicationEntity> getApplicationEntity() {
+        return Optional.ofNullable(ae);
+    }
+
+    TransferCapability setApplicationEntity(ApplicationEntity ae) {
+        if (this.ae != ae) {
+            if (this.ae != null && ae != null)
+                throw new IllegalStateException("TransferCapability already contained by " + this.ae);
+            this.ae = ae;
+        }
+        return this;
+    }
 
     public Optional<String> getName() {
         return Optional.ofNullable(name);
@@ -35,6 +49,7 @@ public class TransferCapability {
 
     public TransferCapability setSOPClass(String sopClass) {
         this.sopClass = StringUtils.requireNonBlank(sopClass);
+        changed();
         return this;
     }
 
@@ -44,6 +59,7 @@ public class TransferCapability {
 
     public TransferCapability setRole(Role role) {
         this.role = Objects.requireNonNull(role);
+        changed();
         return this;
     }
 
@@ -53,14 +69,28 @@ public class TransferCapability {
 
     public TransferCapability setTransferSyntaxes(String... transferSyntaxes) {
         this.transferSyntaxes = Objects.requireNonNullElse(transferSyntaxes, StringUtils.EMPTY_STRINGS);
+        changed();
         return this;
     }
 
     public Optional<String> selectTransferSyntax(Predicate<String> predicate) {
-        return List.of(transferSyntaxes).stream().filter(predicate).findFirst();
+        for (String ts : transferSyntaxes) {
+            if (predicate.test(ts))
+                return Optional.of(ts);
+        }
+        return Optional.empty();
     }
 
     public boolean anyTransferSyntax() {
-        return List.of(transferSyntaxes).contains("*");
+        for (String ts : transferSyntaxes) {
+            if (ts.equals("*"))
+                return true;
+        }
+        return false;
+    }
+
+    private void changed() {
+        if (ae != null)
+            ae.invalidateTransferCapabilityIndex();
     }
 }
@@ -5,6 +5,8 @@
 module org.dcm4che.net {
     requires org.dcm4che.base;
     requires org.dcm4che.conf.model;
+    requires java.management;
+    requires jdk.jfr;
 
     requires org.slf4j;
 
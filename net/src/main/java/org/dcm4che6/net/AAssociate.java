@@ -11,7 +11,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
-import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -291,10 +290,24 @@ public abstract class AAssociate {
         return (asyncOpsWindow != -1 ? 24 : 16)
                 + implClassUID.length()
                 + implVersionName.length()
-                + roleSelectionMap.keySet().stream().mapToInt(cuid -> 8 + cuid.length()).sum()
-                + extNegMap.entrySet().stream()
-                    .mapToInt(e -> 6 + e.getKey().length() + e.getValue().length)
-                    .sum();
+                + roleSelectionLength()
+                + extNegLength();
+    }
+
+    private int roleSelectionLength() {
+        int len = 0;
+        for (String cuid : roleSelectionMap.keySet()) {
+            len += 8 + cuid.length();
+        }
+        return len;
+    }
+
+    private int extNegLength() {
+        int len = 0;
+        for (Map.Entry<String, byte[]> e : extNegMap.entrySet()) {
+            len += 6 + e.getKey().length() + e.getValue().length;
+        }
+        return len;
     }
 
     void writeTo(ByteBuffer buffer) {
@@ -341,7 +354,7 @@ public abstract class AAssociate {
 
     public static class RQ extends AAssociate {
 
-        private final Map<Byte, PresentationContext> pcs = new LinkedHashMap<>();
+        private final PresentationContextTable<PresentationContext> pcs = new PresentationContextTable<>();
         private final Map<String, CommonExtendedNegotation> commonExtNegMap = new LinkedHashMap<>();
         private UserIdentity userIdentity;
 
@@ -364,13 +377,12 @@ public abstract class AAssociate {
             if (pcs.size() >= 128)
                 throw new IllegalStateException("Maximal number (128) of Presentation Contexts reached");
 
-            Byte pcid = IntStream.iterate(pcs.size() * 2 + 1, i -> i + 2)
-                    .mapToObj(i -> Byte.valueOf((byte) i))
-                    .filter(((Predicate<Byte>) pcs.keySet()::contains).negate())
-                    .findFirst()
-                    .get();
-            pcs.put(pcid, new PresentationContext(abstractSyntax, transferSyntax));
-            return pcid;
+            int pcid = pcs.size() * 2 + 1;
+            while (pcs.get((byte) pcid) != null) {
+                pcid += 2;
+            }
+            pcs.put((byte) pcid, new PresentationContext(abstractSyntax, transferSyntax));
+            return (byte) pcid;
         }
 
         public PresentationContext getPresentationContext(Byte id) {
@@ -382,15 +394,11 @@ public abstract class AAssociate {
         }
 
         Stream<Byte> pcidsFor(String abstractSyntax) {
-            return pcs.entrySet().stream()
-                    .filter(e -> e.getValue().equalsAbstractSyntax(abstractSyntax))
-                    .map(Map.Entry::getKey);
+            return pcs.ids().filter(pcid -> pcs.get(pcid).equalsAbstractSyntax(abstractSyntax));
         }
 
         Stream<Byte> pcidsFor(String abstractSyntax, String transferSyntax) {
-            return pcs.entrySet().stream()
-                    .filter(e -> e.getValue().matches(abstractSyntax, transferSyntax))
-                    .map(Map.Entry::getKey);
+            return pcs.ids().filter(pcid -> pcs.get(pcid).matches(abstractSyntax, transferSyntax));
         }
 
         public void putCommonExtendedNegotation(String cuid, String serviceClass, String... relatedSOPClasses) {
@@ -469,16 +477,20 @@ public abstract class AAssociate {
 
         @Override
         int presentationContextLength() {
-            return pcs.values().stream().mapToInt(pc -> 4 + pc.itemLength()).sum();
+            int len = 0;
+            for (int i = 0, n = pcs.size(); i < n; i++) {
+                len += 4 + pcs.valueAt(i).itemLength();
+            }
+            return len;
         }
 
         @Override
         int userItemLength() {
-            return super.userItemLength()
-                    + commonExtNegMap.entrySet().stream()
-                        .mapToInt(e -> 6 + e.getKey().length() + e.getValue().length())
-                        .sum()
-                    + (userIdentity != null ? 4 + userIdentity.itemLength() : 0);
+            int len = super.userItemLength();
+            for (Map.Entry<String, CommonExtendedNegotation> e : commonExtNegMap.entrySet()) {
+                len += 6 + e.getKey().length() + e.getValue().length();
+            }
+            return len + (userIdentity != null ? 4 + userIdentity.itemLength() : 0);
         }
 
         @Override
@@ -563,18 +575,20 @@ public abstract class AAssociate {
             }
 
             int itemLength() {
-                return 8 + abstractSyntax.length()
-                        + transferSyntaxList.stream().mapToInt(s -> 4 + s.length()).sum();
+                int len = 8 + abstractSyntax.length();
+                for (String s : transferSyntaxList) {
+                    len += 4 + s.length();
+                }
+                return len;
             }
 
             void writeTo(ByteBuffer buffer, byte[] b64) {
                 buffer.putInt(0x3000);
                 ByteBufferUtils.putLengthASCII(buffer, abstractSyntax, b64);
-                transferSyntaxList.stream().forEach(
-                        s -> {
-                            buffer.putShort((short) 0x4000);
-                            ByteBufferUtils.putLengthASCII(buffer, s, b64);
-                        });
+                for (String s : transferSyntaxList) {
+                    buffer.putShort((short) 0x4000);
+                    ByteBufferUtils.putLengthASCII(buffer, s, b64);
+                }
             }
 
             void promptTo(Byte pcid, StringBuilder sb) {
@@ -595,7 +609,7 @@ public abstract class AAssociate {
 
     public static class AC extends AAssociate {
 
-        private final Map<Byte, PresentationContext> pcs = new LinkedHashMap<>();
+        private final PresentationContextTable<PresentationContext> pcs = new PresentationContextTable<>();
         private byte[] userIdentityServerResponse;
 
         public AC() {}
@@ -664,7 +678,11 @@ public abstract class AAssociate {
 
         @Override
         int presentationContextLength() {
-            return pcs.values().stream().mapToInt(pc -> 4 + pc.itemLength()).sum();
+            int len = 0;
+            for (int i = 0, n = pcs.size(); i < n; i++) {
+                len += 4 + pcs.valueAt(i).itemLength();
+            }
+            return len;
         }
 
         @Override
@@ -780,6 +798,47 @@ public abstract class AAssociate {
         }
     }
 
+    /**
+     * Presentation Contexts indexed by their ID, in order of insertion.
+     */
+    static final class PresentationContextTable<T> {
+        private final Object[] byID = new Object[256];
+        private final byte[] ids = new byte[256];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(Byte id) {
+            return id != null ? (T) byID[id & 0xff] : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        T valueAt(int index) {
+            return (T) byID[ids[index] & 0xff];
+        }
+
+        void put(Byte id, T pc) {
+            int i = id & 0xff;
+            if (byID[i] == null) {
+                ids[size++] = id;
+            }
+            byID[i] = Objects.requireNonNull(pc);
+        }
+
+        void forEach(BiConsumer<Byte, T> action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(ids[i], valueAt(i));
+            }
+        }
+
+        Stream<Byte> ids() {
+            return IntStream.range(0, size).mapToObj(i -> ids[i]);
+        }
+    }
+
     static void requireItemType(int expected, int itemType) {
         if (itemType != expected) {
             throw new IllegalArgumentException(String.format("Item-type: %2XH - expected: %2XH", itemType, expected));
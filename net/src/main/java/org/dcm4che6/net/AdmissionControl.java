@@ -0,0 +1,187 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.Device;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control of associations requested from remote AEs.
+ * <p>
+ * Counts open associations accepted by the connector per {@link Device} and per calling AE title. A-ASSOCIATE-RQs are
+ * rejected with local-limit-exceeded if accepting them would exceed {@link Device#getLimitOpenAssociations()} or
+ * {@link #getLimitOpenAssociationsPerCallingAE()}, and with temporary-congestion if the heap usage exceeds
+ * {@link #getMaxHeapUsage()} or the number of tasks executed or queued by the worker executor exceeds
+ * {@link #getMaxWorkerTasks()}. Counters are removed when they drop to 0, so connections from many distinct calling
+ * AE titles do not accumulate.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class AdmissionControl {
+    static final Logger LOG = LoggerFactory.getLogger(AdmissionControl.class);
+
+    private final Executor executor;
+    private final Map<Device, Integer> openPerDevice = new ConcurrentHashMap<>();
+    private final Map<String, Integer> openPerCallingAE = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final LongAdder rejectedLimitExceeded = new LongAdder();
+    private final LongAdder rejectedCongestion = new LongAdder();
+    private volatile int limitOpenAssociationsPerCallingAE;
+    private volatile double maxHeapUsage;
+    private volatile int maxWorkerTasks;
+
+    AdmissionControl(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    public int getLimitOpenAssociationsPerCallingAE() {
+        return limitOpenAssociationsPerCallingAE;
+    }
+
+    /**
+     * Sets the maximal number of open associations accepted from one calling AE; 0 = unlimited.
+     */
+    public AdmissionControl setLimitOpenAssociationsPerCallingAE(int limitOpenAssociationsPerCallingAE) {
+        if (limitOpenAssociationsPerCallingAE < 0)
+            throw new IllegalArgumentException(
+                    "limitOpenAssociationsPerCallingAE: " + limitOpenAssociationsPerCallingAE);
+        this.limitOpenAssociationsPerCallingAE = limitOpenAssociationsPerCallingAE;
+        return this;
+    }
+
+    public double getMaxHeapUsage() {
+        return maxHeapUsage;
+    }
+
+    /**
+     * Sets the maximal fraction of the maximal heap size in use after which associations are rejected; 0 = no limit.
+     */
+    public AdmissionControl setMaxHeapUsage(double maxHeapUsage) {
+        if (maxHeapUsage < 0 || maxHeapUsage > 1)
+            throw new IllegalArgumentException("maxHeapUsage: " + maxHeapUsage);
+        this.maxHeapUsage = maxHeapUsage;
+        return this;
+    }
+
+    public int getMaxWorkerTasks() {
+        return maxWorkerTasks;
+    }
+
+    /**
+     * Sets the maximal number of tasks executed or queued by the worker executor after which associations are
+     * rejected; 0 = no limit. Only effective if the executor is a {@link ThreadPoolExecutor}; in particular, not
+     * for a virtual thread per task executor. As a cached thread pool does not queue tasks, the number of active
+     * threads is included.
+     */
+    public AdmissionControl setMaxWorkerTasks(int maxWorkerTasks) {
+        if (maxWorkerTasks < 0)
+            throw new IllegalArgumentException("maxWorkerTasks: " + maxWorkerTasks);
+        this.maxWorkerTasks = maxWorkerTasks;
+        return this;
+    }
+
+    public int getNumberOfOpenAssociations() {
+        return open.get();
+    }
+
+    public int getNumberOfOpenAssociations(Device device) {
+        return openPerDevice.getOrDefault(device, 0);
+    }
+
+    public int getNumberOfOpenAssociations(String callingAETitle) {
+        return openPerCallingAE.getOrDefault(callingAETitle, 0);
+    }
+
+    /**
+     * Returns the number of distinct calling AE titles with open associations.
+     */
+    public int getNumberOfCallingAEs() {
+        return openPerCallingAE.size();
+    }
+
+    public long getNumberOfRejectedLimitExceeded() {
+        return rejectedLimitExceeded.sum();
+    }
+
+    public long getNumberOfRejectedCongestion() {
+        return rejectedCongestion.sum();
+    }
+
+    void admit(Device device, String callingAETitle) throws AAssociateRJ {
+        if (isCongested()) {
+            rejectedCongestion.increment();
+            throw new AAssociateRJ(Association.temporary_congestion);
+        }
+        OptionalInt limit = device != null ? device.getLimitOpenAssociations() : OptionalInt.empty();
+        if (device != null && !tryIncrement(openPerDevice, device, limit.orElse(0))) {
+            rejectedLimitExceeded.increment();
+            LOG.info("Number of open associations of {} exceeds limit {}", device, limit.getAsInt());
+            throw new AAssociateRJ(Association.local_limit_exceeded);
+        }
+        int limitPerCallingAE = limitOpenAssociationsPerCallingAE;
+        if (!tryIncrement(openPerCallingAE, callingAETitle, limitPerCallingAE)) {
+            if (device != null) decrement(openPerDevice, device);
+            rejectedLimitExceeded.increment();
+            LOG.info("Number of open associations from {} exceeds limit {}", callingAETitle, limitPerCallingAE);
+            throw new AAssociateRJ(Association.local_limit_exceeded);
+        }
+        open.incrementAndGet();
+    }
+
+    void release(Device device, String callingAETitle) {
+        if (device != null) {
+            decrement(openPerDevice, device);
+        }
+        decrement(openPerCallingAE, callingAETitle);
+        open.decrementAndGet();
+    }
+
+    private boolean isCongested() {
+        double maxHeapUsage = this.maxHeapUsage;
+        if (maxHeapUsage > 0) {
+            Runtime rt = Runtime.getRuntime();
+            long used = rt.totalMemory() - rt.freeMemory();
+            if (used > rt.maxMemory() * maxHeapUsage) {
+                LOG.info("Heap usage {} MB exceeds {} of {} MB",
+                        used >> 20, maxHeapUsage, rt.maxMemory() >> 20);
+                return true;
+            }
+        }
+        int maxWorkerTasks = this.maxWorkerTasks;
+        if (maxWorkerTasks > 0 && executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
+            int tasks = tpe.getActiveCount() + tpe.getQueue().size();
+            if (tasks > maxWorkerTasks) {
+                LOG.info("Number of executed and queued tasks {} exceeds {}", tasks, maxWorkerTasks);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <K> boolean tryIncrement(Map<K, Integer> counts, K key, int limit) {
+        boolean[] incremented = new boolean[1];
+        counts.compute(key, (k, count) -> {
+            int prev = count != null ? count : 0;
+            if (limit > 0 && prev >= limit) {
+                return count;
+            }
+            incremented[0] = true;
+            return prev + 1;
+        });
+        return incremented[0];
+    }
+
+    private static <K> void decrement(Map<K, Integer> counts, K key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+}
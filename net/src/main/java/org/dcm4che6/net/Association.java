@@ -3,24 +3,30 @@ package org.dcm4che6.net;
 import org.dcm4che6.conf.model.ApplicationEntity;
 import org.dcm4che6.conf.model.Connection;
 import org.dcm4che6.conf.model.Device;
-import org.dcm4che6.conf.model.TransferCapability;
 import org.dcm4che6.data.DicomObject;
 import org.dcm4che6.data.Tag;
 import org.dcm4che6.data.UID;
 import org.dcm4che6.io.DicomEncoding;
-import org.dcm4che6.io.DicomInputStream;
 import org.dcm4che6.io.DicomOutputStream;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -33,29 +39,38 @@ public class Association extends TCPConnection<Association> {
     private static final int called_AE_title_not_recognized = 0x010107;
     private static final int acse_no_reason_given = 0x010201;
     private static final int protocol_version_not_supported = 0x010202;
-    private static final int temporary_congestion = 0x000301;
-    private static final int local_limit_exceeded = 0x000302;
+    static final int temporary_congestion = 0x020301;
+    static final int local_limit_exceeded = 0x020302;
 
-    private static final int MAX_PDU_LENGTH = 1048576;
+    private static final int DEF_MAX_PDU_LENGTH_SEND = 1048576;
+    private static final int DEFAULT_SOCKET_CLOSE_DELAY = 1000;
 
     private final Handler handler;
     private final CompletableFuture<Association> aaacReceived = new CompletableFuture<>();
     private final CompletableFuture<Association> arrpReceived = new CompletableFuture<>();
     private final AtomicInteger messageID = new AtomicInteger();
     private final Semaphore readSemaphore = new Semaphore(0);
+    private final ReadCursor cursor = new ReadCursor(this::nextBuffer);
     private volatile ByteBuffer readBuffer;
     private int pduLength;
     private int pdvLength;
     private Byte pcid;
     private MCH mch;
-    private State state = State.STA_1;
+    private volatile State state = State.STA_1;
     private int resultSourceReason;
     private AAssociate.RQ aarq;
     private AAssociate.AC aaac;
-    private BlockingQueue<OutstandingRSP> outstandingRSPs;
+    private final Map<Integer, OutstandingRSP> outstandingRSPs = new ConcurrentHashMap<>();
+    private volatile OperationWindow operationWindow;
     private int maxPDULength;
     private String asname;
     private ApplicationEntity ae;
+    private final AtomicBoolean admitted = new AtomicBoolean();
+    private volatile TimingWheel.Timeout artim;
+    private volatile TimingWheel.Timeout idleCheck;
+    private volatile long lastActivity;
+    private int idleTimeout;
+    private int responseTimeout;
 
     public interface Handler extends DimseHandler {
         void onAAssociateRQ(Association as) throws AAssociateRJ;
@@ -81,7 +96,17 @@ public class Association extends TCPConnection<Association> {
 
     @Override
     public String toString() {
-        return asname != null ? asname : super.toString();
+        String s = asname;
+        if (s == null) {
+            AAssociate.RQ rq = aarq;
+            if (rq == null) {
+                return super.toString();
+            }
+            asname = s = role == Role.REQUESTOR
+                    ? rq.getCallingAETitle() + "->" + rq.getCalledAETitle() + "(" + id + ")"
+                    : rq.getCalledAETitle() + "<-" + rq.getCallingAETitle() + "(" + id + ")";
+        }
+        return s;
     }
 
     AAssociate.CommonExtendedNegotation commonExtendedNegotationFor(String cuid) {
@@ -101,15 +126,60 @@ public class Association extends TCPConnection<Association> {
         readSemaphore.release();
     }
 
+    @Override
+    public void write(ByteBuffer src, Consumer<Association> action) throws ClosedChannelException {
+        metrics.onPDUWritten();
+        PDUEvent event = new PDUEvent();
+        event.begin();
+        int pduType = src.get(src.position()) & 0xff;
+        int pduLength = src.remaining() - 6;
+        super.write(src, action);
+        if (event.shouldCommit()) {
+            event.association = toString();
+            event.direction = "write";
+            event.pduType = pduType;
+            event.pduLength = pduLength;
+            event.commit();
+        }
+    }
+
+    private void onPDURead(int pduType, int pduLength) {
+        metrics.onPDURead();
+        PDUEvent event = new PDUEvent();
+        if (event.shouldCommit()) {
+            event.association = toString();
+            event.direction = "read";
+            event.pduType = pduType;
+            event.pduLength = pduLength;
+            event.commit();
+        }
+    }
+
+    @Override
+    protected void onEndOfStream() {
+        super.onEndOfStream();
+        readSemaphore.release();
+    }
+
     private void startReading() {
-        CompletableFuture.runAsync(this::run);
+        CompletableFuture.runAsync(this::run, connector.getExecutor());
     }
 
     private void run() {
         LOG.trace("{}: start reading", this);
-        ByteBuffer buffer;
-        while ((buffer = nextBuffer()) != null) {
-            processNext(buffer);
+        try {
+            while (cursor.fill()) {
+                processNext();
+            }
+        } catch (EOFException e) {
+            LOG.trace("{}: unexpected end of stream", this);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            cursor.clear();
+        }
+        if (isOpen()) {
+            aa_4();
         }
         LOG.trace("{}: stop reading", this);
     }
@@ -131,42 +201,77 @@ public class Association extends TCPConnection<Association> {
         return buffer;
     }
 
-    private void processNext(ByteBuffer buffer) {
-        while (!state.discard && buffer.hasRemaining()) {
-            buffer = ensureRemaining(buffer, 10);
-            int pduType = buffer.getShort() >>> 8;
-            pduLength = buffer.getInt();
-            buffer = state.action(this, pduType, pduLength, buffer);
+    private void processNext() throws IOException {
+        while (!state.discard && cursor.hasRemaining()) {
+            cursor.ensureRemaining(6);
+            lastActivity = System.nanoTime();
+            int pduType = cursor.getUnsignedShort() >>> 8;
+            pduLength = cursor.getInt();
+            onPDURead(pduType, pduLength);
+            state.action(this, pduType, pduLength);
+        }
+        if (state.discard) {
+            cursor.clear();
         }
-        ByteBufferPool.free(buffer);
     }
 
-    private ByteBuffer ensureRemaining(ByteBuffer buffer, int remaining) {
-        while (buffer.remaining() < remaining) {
-            buffer = cat(buffer, nextBuffer());
+    void onDimseRQ(Byte pcid, Dimse dimse, DicomObject commandSet, InputStream dataStream) throws IOException {
+        DimseHandlerEvent event = new DimseHandlerEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            handler.accept(this, pcid, dimse, commandSet, dataStream);
+        } finally {
+            String cuid = commandSet.getString(dimse.tagOfSOPClassUID).orElse(null);
+            connector.getMetrics().onDimseHandled(dimse, cuid, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.association = toString();
+                event.command = dimse.name();
+                event.messageID = commandSet.getInt(dimse.tagOfMessageID).orElse(0);
+                event.sopClassUID = cuid;
+                if (dimse.tagOfSOPInstanceUID != 0) {
+                    event.sopInstanceUID = commandSet.getString(dimse.tagOfSOPInstanceUID).orElse(null);
+                }
+                event.transferSyntaxUID = dataStream != null ? getTransferSyntax(pcid) : null;
+                event.commit();
+            }
         }
-        return buffer;
     }
 
-    private static ByteBuffer cat(ByteBuffer bb1, ByteBuffer bb2) {
-        ByteBuffer bb = ByteBufferPool.allocate(bb1.remaining() + bb2.remaining());
-        bb.put(bb1);
-        bb.put(bb2);
-        ByteBufferPool.free(bb1);
-        ByteBufferPool.free(bb2);
-        return bb.flip();
+    void onDimseRSP(Byte pcid, Dimse dimse, DicomObject commandSet, DicomObject dataSet) {
+        int messageID = commandSet.getInt(Tag.MessageIDBeingRespondedTo).getAsInt();
+        int status = commandSet.getInt(Tag.Status).orElse(0);
+        OutstandingRSP outstandingRSP = Status.isPending(status)
+                ? outstandingRSPs.get(messageID)
+                : outstandingRSPs.remove(messageID);
+        if (outstandingRSP == null) {
+            LOG.info("{}: ignore response to Message ID {} - timed out or not invoked", this, messageID);
+            return;
+        }
+        if (Status.isPending(status)) {
+            outstandingRSP.restartTimeout();
+            return;
+        }
+        operationWindow.release();
+        connector.getMetrics().onDimseRSP(outstandingRSP.dimse, outstandingRSP.sopClassUID,
+                System.nanoTime() - outstandingRSP.invoked);
+        outstandingRSP.complete(new DimseRSP(dimse, commandSet, dataSet));
     }
 
-    void onDimseRQ(Byte pcid, Dimse dimse, DicomObject commandSet, InputStream dataStream) throws IOException {
-        handler.accept(this, pcid, dimse, commandSet, dataStream);
+    /**
+     * Returns the number of invoked operations waiting for their response.
+     */
+    public int getNumberOfOutstandingRSPs() {
+        return outstandingRSPs.size();
     }
 
-    void onDimseRSP(Byte pcid, Dimse dimse, DicomObject commandSet, DicomObject dataSet) {
-        int messageID = commandSet.getInt(Tag.MessageIDBeingRespondedTo).getAsInt();
-        OutstandingRSP outstandingRSP =
-                outstandingRSPs.stream().filter(o -> o.messageID == messageID).findFirst().get();
-        outstandingRSPs.remove(outstandingRSP);
-        outstandingRSP.futureDimseRSP.complete(new DimseRSP(dimse, commandSet, dataSet));
+    /**
+     * Returns a future which completes when fewer operations than the negotiated maximum number of outstanding
+     * operations are invoked, so invoking a further operation will not block. The future does not reserve the slot for
+     * the caller; concurrent invokers may have to wait nevertheless.
+     */
+    public CompletableFuture<Association> whenInvokable() {
+        return operationWindow.whenAvailable().thenApply(x -> this);
     }
 
     void onCancelRQ(Byte pcid, Dimse dimse, DicomObject commandSet, InputStream dataStream) {
@@ -189,6 +294,7 @@ public class Association extends TCPConnection<Association> {
         aaac = new AAssociate.AC();
         aaac.setCalledAETitle(aarq.getCalledAETitle());
         aaac.setCallingAETitle(aarq.getCallingAETitle());
+        local.getMaxPDULengthReceive().ifPresent(aaac::setMaxPDULength);
         if (aarq.hasAsyncOpsWindow()) {
             aaac.setAsyncOpsWindow(aarq.getMaxOpsInvoked(), aarq.getMaxOpsPerformed());
         }
@@ -196,38 +302,12 @@ public class Association extends TCPConnection<Association> {
     }
 
     private void negotiate(Byte pcid, AAssociate.RQ.PresentationContext pc) {
-        Optional<TransferCapability> tc = getTransferCapability(pc.abstractSyntax());
-        if (tc.isPresent()) {
-            Optional<String> ts = tc.get().selectTransferSyntax(pc::containsTransferSyntax);
-            if (ts.isPresent()) {
-                aaac.putPresentationContext(pcid, AAssociate.AC.Result.ACCEPTANCE, ts.get());
-            } else {
-                aaac.putPresentationContext(pcid,
-                        tc.get().anyTransferSyntax()
-                                ? AAssociate.AC.Result.ACCEPTANCE
-                                : AAssociate.AC.Result.TRANSFER_SYNTAXES_NOT_SUPPORTED,
-                        pc.anyTransferSyntax());
-            }
-        } else {
-            aaac.putPresentationContext(pcid,
-                    AAssociate.AC.Result.ABSTRACT_SYNTAX_NOT_SUPPORTED, pc.anyTransferSyntax());
+        AAssociate.RoleSelection roleSelection = aarq.getRoleSelection(pc.abstractSyntax());
+        NegotiationCache.Outcome outcome = connector.negotiationCache().negotiate(ae, pc, roleSelection);
+        if (outcome.roleSelection != null) {
+            aaac.putRoleSelection(pc.abstractSyntax(), outcome.roleSelection);
         }
-    }
-
-    private Optional<TransferCapability> getTransferCapability(String abstractSyntax) {
-        AAssociate.RoleSelection roleSelection = aarq.getRoleSelection(abstractSyntax);
-        if (roleSelection == null) {
-            return ae.getTransferCapabilityOrDefault(TransferCapability.Role.SCP, abstractSyntax);
-        }
-        Optional<TransferCapability> scuTC = roleSelection.scu
-                ? ae.getTransferCapabilityOrDefault(TransferCapability.Role.SCU, abstractSyntax)
-                : Optional.empty();
-        Optional<TransferCapability> scpTC = roleSelection.scp
-                ? ae.getTransferCapabilityOrDefault(TransferCapability.Role.SCP, abstractSyntax)
-                : Optional.empty();
-        aaac.putRoleSelection(abstractSyntax,
-                roleSelection = AAssociate.RoleSelection.of(scuTC.isPresent(), scpTC.isPresent()));
-        return roleSelection == AAssociate.RoleSelection.SCU ? scuTC : scpTC;
+        aaac.putPresentationContext(pcid, outcome.result, outcome.transferSyntax);
     }
 
     private ApplicationEntity aeOf(String aeTitle) {
@@ -245,9 +325,10 @@ public class Association extends TCPConnection<Association> {
     }
 
     private static ByteBuffer toBuffer(short pduType, AAssociate aaxx) {
-        ByteBuffer buffer = ByteBufferPool.allocate();
+        int pduLength = aaxx.pduLength();
+        ByteBuffer buffer = ByteBufferPool.allocate(6 + pduLength);
         buffer.putShort(pduType);
-        buffer.putInt(aaxx.pduLength());
+        buffer.putInt(pduLength);
         aaxx.writeTo(buffer);
         buffer.flip();
         return buffer;
@@ -275,14 +356,45 @@ public class Association extends TCPConnection<Association> {
     }
 
     void writeDimse(Byte pcid, Dimse dimse, DicomObject commandSet, DataWriter dataWriter) throws IOException {
-        writePDataTF(writeDataSet(pcid, dataWriter, writeCommandSet(pcid, dimse, commandSet)));
+        writeDimse(pcid, writeCommandSet(pcid, dimse, commandSet), dataWriter);
     }
 
     void writeDimse(Byte pcid, Dimse dimse, DicomObject commandSet, DicomObject dataSet) throws IOException {
-        writeDimse(pcid, dimse, commandSet,((out, tsuid) ->
-                new DicomOutputStream(out)
-                    .withEncoding(DicomEncoding.of(getTransferSyntax(pcid)))
-                    .writeDataSet(dataSet)));
+        writeDimse(pcid, dimse, commandSet, dataWriterOf(dataSet));
+    }
+
+    /**
+     * Writes the response with given status to the request received with {@code commandSet}. The command set of
+     * the response is encoded directly into the PDU, without creating a {@code DicomObject}.
+     */
+    public void writeRSP(Byte pcid, Dimse dimse, DicomObject commandSet, int status) throws IOException {
+        writePDataTF(writeCommandRSP(pcid, dimse, commandSet, Dimse.NO_DATASET, status, null));
+    }
+
+    /**
+     * Writes the response with given status and data set, e.g. a pending C-FIND-RSP with an Identifier, to the
+     * request received with {@code commandSet}.
+     */
+    public void writeRSP(Byte pcid, Dimse dimse, DicomObject commandSet, int status, DicomObject dataSet)
+            throws IOException {
+        DataWriter dataWriter = dataWriterOf(dataSet);
+        writeDimse(pcid, writeCommandRSP(pcid, dimse, commandSet, Dimse.WITH_DATASET, status, dataWriter),
+                dataWriter);
+    }
+
+    private void writeDimse(Byte pcid, ByteBuffer command, DataWriter dataWriter) throws IOException {
+        if (dataWriter instanceof FileDataWriter) {
+            writePDataTF(command);
+            transferDataSet(pcid, (FileDataWriter) dataWriter);
+        } else {
+            writePDataTF(writeDataSet(pcid, dataWriter, command));
+        }
+    }
+
+    private static DataWriter dataWriterOf(DicomObject dataSet) {
+        return (out, tsuid) -> new DicomOutputStream(out)
+                .withEncoding(DicomEncoding.of(tsuid))
+                .writeDataSet(dataSet);
     }
 
     private ByteBuffer writeDataSet(Byte pcid, DataWriter dataWriter, ByteBuffer buffer) throws IOException {
@@ -294,16 +406,89 @@ public class Association extends TCPConnection<Association> {
         return buffer;
     }
 
+    private void transferDataSet(Byte pcid, FileDataWriter dataWriter) throws IOException {
+        LOG.debug("{} << Data start", this);
+        FileChannel src = dataWriter.open();
+        try {
+            int maxPDVLength = maxPDULength - 6;
+            long position = dataWriter.position;
+            long remaining = dataWriter.length;
+            do {
+                int pdvLength = (int) Math.min(remaining, maxPDVLength);
+                remaining -= pdvLength;
+                MCH mch = remaining > 0 ? MCH.DATA_PDV : MCH.LAST_DATA_PDV;
+                ByteBuffer header = ByteBufferPool.allocate(12);
+                header.putShort((short) 0x0400).putInt(pdvLength + 6)
+                        .putInt(pdvLength + 2).put(pcid).put(mch.value())
+                        .flip();
+                LOG.debug("{} << P-DATA-TF[length: {}]", this, pdvLength + 6);
+                LOG.debug("{} << PDV[length: {}, pcid: {}, mch: {}]", this, pdvLength + 2, pcid, mch.value());
+                write(header, x -> {});
+                transferFrom(src, position, pdvLength, remaining > 0 ? x -> {} : x -> closeFile(src));
+                position += pdvLength;
+            } while (remaining > 0);
+        } catch (IOException | RuntimeException e) {
+            closeFile(src);
+            throw e;
+        }
+        LOG.debug("{} << Data finished", this);
+    }
+
+    private void closeFile(FileChannel src) {
+        try {
+            src.close();
+        } catch (IOException e) {
+            LOG.warn("{}: failed to close file source", this, e);
+        }
+    }
+
     private ByteBuffer writeCommandSet(Byte pcid, Dimse dimse, DicomObject commandSet) throws IOException {
         LOG.info("{} << {}", this, dimse.toString(pcid, commandSet, getTransferSyntax(pcid)));
         LOG.debug("{} << Command:\n{}", this, commandSet);
+        lastActivity = System.nanoTime();
         ByteBuffer buffer = ByteBufferPool.allocate(maxPDULength + 6).position(6);
         PDVOutputStream pdv = new PDVOutputStream(pcid, MCH.COMMAND_PDV, buffer);
         new DicomOutputStream(pdv).writeCommandSet(commandSet);
         return pdv.writePDVHeader(MCH.LAST_COMMAND_PDV);
     }
 
-    private void writePDataTF(ByteBuffer buffer) {
+    private ByteBuffer writeCommandRSP(Byte pcid, Dimse dimse, DicomObject commandSet, int dataSetType, int status,
+            DataWriter dataWriter) throws IOException {
+        return writeCommand(pcid, dimse.rsp, commandSet.getIntOrElseThrow(Tag.MessageID),
+                commandSet.getStringOrElseThrow(dimse.tagOfSOPClassUID),
+                dimse.tagOfSOPInstanceUID != 0 ? commandSet.getStringOrElseThrow(dimse.tagOfSOPInstanceUID) : null,
+                dataSetType, status, dataWriter);
+    }
+
+    /**
+     * Encodes the command set into a new P-DATA-TF PDU, which only provides space for the data set, if
+     * {@code dataWriter} will write it into the same PDU.
+     */
+    private ByteBuffer writeCommand(Byte pcid, Dimse dimse, int msgID, String cuid, String iuid, int dataSetType,
+            int status, DataWriter dataWriter) throws IOException {
+        int length = CommandEncoder.length(dimse, cuid, iuid);
+        if (length + 6 > maxPDULength) {
+            return writeCommandSet(pcid, dimse, dimse.mkCommand(msgID, cuid, iuid, dataSetType, status));
+        }
+        LOG.info("{} << {}", this, dimse.toString(pcid, msgID, cuid, iuid,
+                CommandEncoder.isRSP(dimse) ? status : -1, getTransferSyntax(pcid)));
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} << Command:\n{}", this, dimse.mkCommand(msgID, cuid, iuid, dataSetType, status));
+        }
+        lastActivity = System.nanoTime();
+        ByteBuffer buffer = ByteBufferPool.allocate(dataWriter == null || dataWriter instanceof FileDataWriter
+                ? length + 12
+                : maxPDULength + 6)
+                .position(12);
+        CommandEncoder.encode(buffer, dimse, msgID, cuid, iuid, dataSetType, status);
+        LOG.debug("{} << PDV[length: {}, pcid: {}, mch: {}]", this, length + 2, pcid, MCH.LAST_COMMAND_PDV.value());
+        buffer.putInt(6, length + 2);
+        buffer.put(10, pcid);
+        buffer.put(11, MCH.LAST_COMMAND_PDV.value());
+        return buffer;
+    }
+
+    private void writePDataTF(ByteBuffer buffer) throws ClosedChannelException {
         buffer.flip();
         int pduLength = buffer.remaining() - 6;
         buffer.putShort(0, (short) 0x0400);
@@ -312,19 +497,130 @@ public class Association extends TCPConnection<Association> {
         write(buffer, x -> {});
     }
 
+    /**
+     * Writes an A-ASSOCIATE, A-RELEASE or A-ABORT PDU. If the connection was already closed, the PDU is dropped:
+     * closing the connection already completed the futures waiting for the answer of the peer.
+     */
+    private void writeUnlessClosed(ByteBuffer buffer, Consumer<Association> action) {
+        try {
+            write(buffer, action);
+        } catch (ClosedChannelException e) {
+            LOG.debug("{}: connection already closed", this);
+        }
+    }
+
     private void closeAfterDelay() {
-        CompletableFuture.delayedExecutor(1000, TimeUnit.MILLISECONDS).execute(this::safeClose);
         changeState(State.STA_13);
+        startARTIM(local.getSocketCloseDelay().orElse(DEFAULT_SOCKET_CLOSE_DELAY));
+    }
+
+    private void startARTIM(int timeout) {
+        artim = connector.timingWheel().schedule(timeout, this::onARTIMExpired);
+    }
+
+    private void stopARTIM() {
+        TimingWheel.Timeout timeout = artim;
+        if (timeout != null) {
+            artim = null;
+            timeout.cancel();
+        }
+    }
+
+    private void onARTIMExpired() {
+        if (state == State.STA_13) {
+            LOG.debug("{}: close connection", this);
+        } else {
+            LOG.info("{}: ARTIM timer expired in {}", this, state);
+        }
+        safeClose();
+    }
+
+    private void scheduleIdleCheck(long delay) {
+        idleCheck = connector.timingWheel().schedule(delay, this::checkIdle);
+    }
+
+    private void checkIdle() {
+        if (state != State.STA_6) {
+            return;
+        }
+        long idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+        if (!outstandingRSPs.isEmpty()) {
+            scheduleIdleCheck(idleTimeout);
+        } else if (idle < idleTimeout) {
+            scheduleIdleCheck(idleTimeout - idle);
+        } else {
+            LOG.info("{}: idle timeout expired", this);
+            try {
+                if (role == Role.REQUESTOR) {
+                    release();
+                } else {
+                    LOG.info("{} << A-ABORT", this);
+                    writeUnlessClosed(toBuffer((short) 0x0700, 0), Association::closeAfterDelay);
+                }
+            } catch (IllegalStateException e) {
+                LOG.debug("{}: failed to release idle association", this, e);
+            }
+        }
+    }
+
+    private void onResponseTimeout(int msgid) {
+        OutstandingRSP futureDimseRSP = outstandingRSPs.remove(msgid);
+        if (futureDimseRSP != null) {
+            operationWindow.release();
+            LOG.info("{}: response timeout expired for Message ID {}", this, msgid);
+            futureDimseRSP.completeExceptionally(
+                    new TimeoutException(this + ": no response received for Message ID " + msgid));
+        }
     }
 
     private void safeClose() {
+        stopARTIM();
+        TimingWheel.Timeout timeout = idleCheck;
+        if (timeout != null) {
+            timeout.cancel();
+        }
         try {
             close();
         } catch (IOException e) {
             e.printStackTrace();
         }
         changeState(State.STA_1);
+        releaseAdmission();
         readSemaphore.release();
+        aaacReceived.completeExceptionally(new IOException(this + ": connection closed"));
+        arrpReceived.completeExceptionally(new IOException(this + ": connection closed"));
+        failOutstandingRSPs();
+    }
+
+    private void releaseAdmission() {
+        if (admitted.compareAndSet(true, false)) {
+            connector.getAdmissionControl().release(local.getDevice().orElse(null), aarq.getCallingAETitle());
+        }
+    }
+
+    /**
+     * Returns {@code true} if the association is established and the connection was not closed by the peer.
+     */
+    public boolean isReadyForDataTransfer() {
+        return state == State.STA_6 && isOpen();
+    }
+
+    private void failOutstandingRSPs() {
+        for (Integer msgid : outstandingRSPs.keySet()) {
+            OutstandingRSP futureDimseRSP = outstandingRSPs.remove(msgid);
+            if (futureDimseRSP != null) {
+                operationWindow.release();
+                futureDimseRSP.completeExceptionally(new IOException(this + ": connection closed"));
+            }
+        }
+    }
+
+    public AAssociate.RQ getAAssociateRQ() {
+        return aarq;
+    }
+
+    public AAssociate.AC getAAssociateAC() {
+        return aaac;
     }
 
     public String getTransferSyntax(Byte pcid) {
@@ -342,34 +638,56 @@ public class Association extends TCPConnection<Association> {
 
     public CompletableFuture<DimseRSP> cecho(String sopClassUID) throws IOException, InterruptedException {
         int msgid = messageID.incrementAndGet();
-        return invoke(sopClassUID, msgid, Dimse.C_ECHO_RQ,
-                Dimse.C_ECHO_RQ.mkRQ(msgid, sopClassUID, null, Dimse.NO_DATASET));
+        return invoke(sopClassUID, null, msgid, Dimse.C_ECHO_RQ);
     }
 
     public CompletableFuture<DimseRSP> cstore(String sopClassUID, String sopInstanceUID,
             DataWriter dataWriter, String transferSyntax) throws IOException, InterruptedException {
         int msgid = messageID.incrementAndGet();
-        return invoke(sopClassUID, msgid, Dimse.C_STORE_RQ,
-                Dimse.C_STORE_RQ.mkRQ(msgid, sopClassUID, sopInstanceUID, Dimse.WITH_DATASET),
-                dataWriter, transferSyntax);
+        return invoke(sopClassUID, sopInstanceUID, msgid, Dimse.C_STORE_RQ, dataWriter, transferSyntax);
     }
 
-    private CompletableFuture<DimseRSP> invoke(String abstractSyntax, int msgid, Dimse dimse, DicomObject commandSet)
+    private CompletableFuture<DimseRSP> invoke(String cuid, String iuid, int msgid, Dimse dimse)
             throws IOException, InterruptedException {
-        Byte pcid = pcidFor(abstractSyntax);
-        OutstandingRSP outstandingRSP = new OutstandingRSP(msgid, new CompletableFuture<>());
-        outstandingRSPs.put(outstandingRSP);
-        writeDimse(pcid, dimse, commandSet);
-        return outstandingRSP.futureDimseRSP;
+        Byte pcid = pcidFor(cuid);
+        CompletableFuture<DimseRSP> futureDimseRSP = addOutstandingRSP(msgid, dimse, cuid);
+        try {
+            writePDataTF(writeCommand(pcid, dimse, msgid, cuid, iuid, Dimse.NO_DATASET, 0, null));
+        } catch (IOException | RuntimeException e) {
+            removeOutstandingRSP(msgid);
+            throw e;
+        }
+        return futureDimseRSP;
     }
 
-    private CompletableFuture<DimseRSP> invoke(String abstractSyntax, int msgid, Dimse dimse, DicomObject commandSet,
+    private CompletableFuture<DimseRSP> invoke(String cuid, String iuid, int msgid, Dimse dimse,
             DataWriter dataWriter, String transferSyntax) throws IOException, InterruptedException {
-        Byte pcid = pcidFor(abstractSyntax, transferSyntax);
-        OutstandingRSP outstandingRSP = new OutstandingRSP(msgid, new CompletableFuture<>());
-        outstandingRSPs.put(outstandingRSP);
-        writeDimse(pcid, dimse, commandSet, dataWriter);
-        return outstandingRSP.futureDimseRSP;
+        Byte pcid = pcidFor(cuid, transferSyntax);
+        CompletableFuture<DimseRSP> futureDimseRSP = addOutstandingRSP(msgid, dimse, cuid);
+        try {
+            writeDimse(pcid, writeCommand(pcid, dimse, msgid, cuid, iuid, Dimse.WITH_DATASET, 0, dataWriter),
+                    dataWriter);
+        } catch (IOException | RuntimeException e) {
+            removeOutstandingRSP(msgid);
+            throw e;
+        }
+        return futureDimseRSP;
+    }
+
+    private CompletableFuture<DimseRSP> addOutstandingRSP(int msgid, Dimse dimse, String sopClassUID)
+            throws InterruptedException {
+        operationWindow.acquire();
+        OutstandingRSP futureDimseRSP = new OutstandingRSP(dimse, sopClassUID, msgid);
+        outstandingRSPs.put(msgid, futureDimseRSP);
+        futureDimseRSP.restartTimeout();
+        futureDimseRSP.whenComplete((rsp, e) -> futureDimseRSP.cancelTimeout());
+        return futureDimseRSP;
+    }
+
+    private void removeOutstandingRSP(int msgid) {
+        if (outstandingRSPs.remove(msgid) != null) {
+            operationWindow.release();
+        }
     }
 
     private Byte pcidFor(String abstractSyntax) {
@@ -391,6 +709,16 @@ public class Association extends TCPConnection<Association> {
         return arrpReceived;
     }
 
+    /**
+     * Aborts the association by an A-ABORT PDU and closes the connection after the socket close delay.
+     */
+    public void abort() {
+        if (state != State.STA_13 && isOpen()) {
+            LOG.info("{} << A-ABORT", this);
+            writeUnlessClosed(toBuffer((short) 0x0700, 0), Association::closeAfterDelay);
+        }
+    }
+
     @Override
     protected void connected() {
         state.connected(this);
@@ -401,8 +729,8 @@ public class Association extends TCPConnection<Association> {
         STA_1(false, true, "Sta1 - Idle"),
         STA_2(true, false, "Sta2 - Transport connection open (Awaiting A-ASSOCIATE-RQ PDU)") {
             @Override
-            ByteBuffer onAAssociateRQ(Association as, ByteBuffer buffer) {
-                return as.ae_6(buffer);
+            void onAAssociateRQ(Association as) throws IOException {
+                as.ae_6();
             }
         },
         STA_3(true, true, "Sta3 - Awaiting local A-ASSOCIATE response primitive (from local user)"),
@@ -421,24 +749,24 @@ public class Association extends TCPConnection<Association> {
         },
         STA_5(true, false, "Sta5 - Awaiting A-ASSOCIATE-AC or A-ASSOCIATE-RJ PDU"){
             @Override
-            ByteBuffer onAAssociateAC(Association as, ByteBuffer buffer) {
-                return as.ae_3(buffer);
+            void onAAssociateAC(Association as) throws IOException {
+                as.ae_3();
             }
 
             @Override
-            ByteBuffer onAAssociateRJ(Association as, ByteBuffer buffer) {
-                return as.ae_4(buffer);
+            void onAAssociateRJ(Association as) throws IOException {
+                as.ae_4();
             }
         },
         STA_6(true, false, "Sta6 - Association established and ready for data transfer") {
             @Override
-            ByteBuffer onPDataTF(Association as, ByteBuffer buffer) {
-                return as.dt_2(buffer);
+            void onPDataTF(Association as) throws IOException {
+                as.dt_2();
             }
 
             @Override
-            ByteBuffer onAReleaseRQ(Association as, ByteBuffer buffer) {
-                return as.ar_2(buffer);
+            void onAReleaseRQ(Association as) throws IOException {
+                as.ar_2();
             }
 
             @Override
@@ -448,13 +776,13 @@ public class Association extends TCPConnection<Association> {
         },
         STA_7(true, false, "Sta7 - Awaiting A-RELEASE-RP PDU") {
             @Override
-            ByteBuffer onPDataTF(Association as, ByteBuffer buffer) {
-                return as.dt_2(buffer);
+            void onPDataTF(Association as) throws IOException {
+                as.dt_2();
             }
 
             @Override
-            ByteBuffer onAReleaseRP(Association as, ByteBuffer buffer) {
-                return as.ar_3(buffer);
+            void onAReleaseRP(Association as) throws IOException {
+                as.ar_3();
             }
         },
         STA_8(true, true, "Sta8 - Awaiting local A-RELEASE response primitive (from local user)"),
@@ -479,63 +807,70 @@ public class Association extends TCPConnection<Association> {
             return description;
         }
 
-        ByteBuffer action(Association as, int pduType, int pduLength, ByteBuffer buffer) {
+        void action(Association as, int pduType, int pduLength) throws IOException {
             switch (pduType) {
                 case 1:
                     LOG.info("{} >> A-ASSOCIATE-RQ", as);
-                    return onAAssociateRQ(as, buffer);
+                    onAAssociateRQ(as);
+                    return;
                 case 2:
                     LOG.info("{} >> A-ASSOCIATE-AC", as);
-                    return onAAssociateAC(as, buffer);
+                    onAAssociateAC(as);
+                    return;
                 case 3:
-                    LOG.info("{} >> {}", as, AAssociateRJ.toString(buffer.getInt(buffer.position())));
-                    return onAAssociateRJ(as, buffer);
+                    as.cursor.ensureRemaining(4);
+                    onAAssociateRJ(as);
+                    return;
                 case 4:
                     LOG.debug("{} >> P-DATA-TF[length: {}]", as, pduLength);
-                    return onPDataTF(as, buffer);
+                    onPDataTF(as);
+                    return;
                 case 5:
                     LOG.info("{} >> A-RELEASE-RQ", as);
-                    return onAReleaseRQ(as, buffer);
+                    onAReleaseRQ(as);
+                    return;
                 case 6:
                     LOG.info("{} >> A-RELEASE-RP", as);
-                    return onAReleaseRP(as, buffer);
+                    onAReleaseRP(as);
+                    return;
                 case 7:
                     LOG.info("{} >> A-ABORT", as);
-                    return onAAbort(as, buffer);
+                    onAAbort(as);
+                    return;
             }
-            return onInvalidPDU(as, buffer, pduType);
+            onInvalidPDU(as, pduType);
         }
 
-        ByteBuffer onAAssociateRQ(Association as, ByteBuffer buffer) {
-            return as.aa_8(buffer);
+        void onAAssociateRQ(Association as) throws IOException {
+            as.aa_8();
         }
 
-        ByteBuffer onAAssociateAC(Association as, ByteBuffer buffer) {
-            return as.aa_8(buffer);
+        void onAAssociateAC(Association as) throws IOException {
+            as.aa_8();
         }
 
-        ByteBuffer onAAssociateRJ(Association as, ByteBuffer buffer) {
-            return as.aa_8(buffer);
+        void onAAssociateRJ(Association as) throws IOException {
+            as.aa_8();
         }
 
-        ByteBuffer onPDataTF(Association as, ByteBuffer buffer) {
-            return as.aa_8(buffer);
+        void onPDataTF(Association as) throws IOException {
+            as.aa_8();
         }
 
-        ByteBuffer onAReleaseRQ(Association as, ByteBuffer buffer) {
-            return as.aa_8(buffer);
+        void onAReleaseRQ(Association as) throws IOException {
+            as.aa_8();
         }
 
-        ByteBuffer onAReleaseRP(Association as, ByteBuffer buffer) {
-            return as.aa_8(buffer);
+        void onAReleaseRP(Association as) throws IOException {
+            as.aa_8();
         }
 
-        ByteBuffer onAAbort(Association as, ByteBuffer buffer) {
-            return as.aa_3(buffer);
+        void onAAbort(Association as) throws IOException {
+            as.aa_3();
         }
 
-        ByteBuffer onInvalidPDU(Association as, ByteBuffer buffer, int pduType) {
-            return as.aa_8(buffer);
+        void onInvalidPDU(Association as, int pduType) throws IOException {
+            as.aa_8();
         }
 
         public void connected(Association as) {
@@ -556,73 +891,93 @@ public class Association extends TCPConnection<Association> {
 
     private void ae_2(AAssociate.RQ aarq) {
         this.aarq = aarq;
-        asname = aarq.getCallingAETitle() + "->" + aarq.getCalledAETitle() + "(" + id + ")";
+        local.getMaxPDULengthReceive().ifPresent(aarq::setMaxPDULength);
         ByteBuffer buffer = toBuffer((short) 0x0100, this.aarq);
         LOG.info("{} << A-ASSOCIATE-RQ", this);
         LOG.debug("{}", aarq);
-        write(buffer, as -> as.changeState(State.STA_5));
+        writeUnlessClosed(buffer, as -> as.changeState(State.STA_5));
     }
 
-    private ByteBuffer ae_3(ByteBuffer buffer) {
-        buffer = ensureRemaining(buffer, pduLength);
-        aaac = new AAssociate.AC(buffer, pduLength);
+    /**
+     * Returns the maximal length of sent PDUs, limited to the largest PDU buffer of the {@link ByteBufferPool}, so
+     * PDU buffers are pooled also with a large autotuned socket send buffer - which Linux reports doubled - and a peer
+     * offering no limit.
+     */
+    private int maxPDULengthSend(int peerMaxPDULengthReceive) {
+        int max = Math.min(local.getMaxPDULengthSendAutotune().orElse(false)
+                ? getSendBufferSize()
+                : local.getMaxPDULengthSend().orElse(DEF_MAX_PDU_LENGTH_SEND),
+                ByteBufferPool.MAX_PDU_LENGTH);
+        return peerMaxPDULengthReceive > 0 ? Math.min(peerMaxPDULengthReceive, max) : max;
+    }
+
+    private void ae_3() throws IOException {
+        aaac = new AAssociate.AC(cursor.slice(pduLength), pduLength);
         LOG.debug("{}", aaac);
-        maxPDULength = aaac.getMaxPDULength();
-        outstandingRSPs = newBlockingQueue(aaac.getMaxOpsInvoked());
+        maxPDULength = maxPDULengthSend(aaac.getMaxPDULength());
+        operationWindow = new OperationWindow(aaac.getMaxOpsInvoked(), connector.getMetrics().outstandingOperations);
         onEstablished();
         aaacReceived.complete(this);
-        return buffer;
-    }
-
-    private static BlockingQueue<OutstandingRSP> newBlockingQueue(int limit) {
-        return new LinkedBlockingQueue<>(limit > 0 ? limit : Integer.MAX_VALUE);
     }
 
-    private ByteBuffer ae_4(ByteBuffer buffer) {
-        buffer = ensureRemaining(buffer, pduLength);
-        resultSourceReason = buffer.getInt();
+    private void ae_4() throws IOException {
+        resultSourceReason = cursor.getInt();
+        LOG.info("{} >> {}", this, AAssociateRJ.toString(resultSourceReason));
+        cursor.skipFully(pduLength - 4);
         aaacReceived.completeExceptionally(new AAssociateRJ(resultSourceReason));
         safeClose();
-        return buffer;
     }
 
     private void ae_5() {
         changeState(State.STA_2);
+        int aarqTimeout = local.getAARQTimeout().orElse(0);
+        if (aarqTimeout > 0) {
+            startARTIM(aarqTimeout);
+        }
         startReading();
     }
 
-    private ByteBuffer ae_6(ByteBuffer buffer) {
-        buffer = ensureRemaining(buffer, pduLength);
-        aarq = new AAssociate.RQ(buffer, pduLength);
-        asname = aarq.getCalledAETitle() + "<-" + aarq.getCallingAETitle() + "(" + id + ")";
+    private void ae_6() throws IOException {
+        stopARTIM();
+        aarq = new AAssociate.RQ(cursor.slice(pduLength), pduLength);
         LOG.debug("{}", aarq);
         changeState(State.STA_3);
         try {
+            connector.getAdmissionControl().admit(local.getDevice().orElse(null), aarq.getCallingAETitle());
+            admitted.set(true);
             handler.onAAssociateRQ(this);
-            maxPDULength = aarq.getMaxPDULength();
-            outstandingRSPs = newBlockingQueue(aaac.getMaxOpsPerformed());
+            maxPDULength = maxPDULengthSend(aarq.getMaxPDULength());
+            operationWindow = new OperationWindow(aaac.getMaxOpsPerformed(),
+                    connector.getMetrics().outstandingOperations);
             writeAAAC();
         } catch (AAssociateRJ aarj) {
             LOG.info("{} << {}", this, aarj.getMessage());
-            write(toBuffer((short) 0x0300, aarj.resultSourceReason), Association::closeAfterDelay);
+            releaseAdmission();
+            writeUnlessClosed(toBuffer((short) 0x0300, aarj.resultSourceReason), Association::closeAfterDelay);
         }
-        return buffer;
     }
 
     private void writeAAAC() {
         ByteBuffer buffer = toBuffer((short) 0x0200, aaac);
         LOG.info("{} << A-ASSOCIATE-AC", this);
         LOG.debug("{}", aaac);
-        write(buffer, Association::onEstablished);
+        writeUnlessClosed(buffer, Association::onEstablished);
     }
 
     private void writeARRP() {
         LOG.info("{} << A-RELEASE-RP", this);
-        write(toBuffer((short) 0x0600, 0), Association::closeAfterDelay);
+        writeUnlessClosed(toBuffer((short) 0x0600, 0), Association::closeAfterDelay);
     }
 
     private void onEstablished() {
         changeState(State.STA_6);
+        metrics.onEstablished();
+        responseTimeout = local.getResponseTimeout().orElse(0);
+        idleTimeout = local.getIdleTimeout().orElse(0);
+        if (idleTimeout > 0) {
+            lastActivity = System.nanoTime();
+            scheduleIdleCheck(idleTimeout);
+        }
 //        CompletableFuture.runAsync(this::run);
     }
 
@@ -633,62 +988,67 @@ public class Association extends TCPConnection<Association> {
         pdvSemaphore.release();
     }
 */
-    private ByteBuffer dt_2(ByteBuffer buffer) {
+    private void dt_2() throws EOFException {
         try {
-            buffer = ensureRemaining(buffer, 6);
-            readPDVHeader(buffer);
+            readPDVHeader();
             requireAcceptedPresentationContext(pcid);
             requireCommandPDV(mch);
-            PDVInputStream commandStream = new PDVInputStream(buffer);
-            DicomObject commandSet = new DicomInputStream(commandStream).readCommandSet();
-            Dimse dimse = Dimse.of(commandSet);
-            LOG.info("{} >> {}", this, dimse.toString(pcid, commandSet, getTransferSyntax(pcid)));
+            Command command = readCommand();
+            Dimse dimse = Dimse.of(command.getCommandField());
+            LOG.info("{} >> {}", this, dimse.toString(pcid, command.getMessageID(), command.getSOPClassUID(),
+                    command.getSOPInstanceUID(), command.getStatus(), getTransferSyntax(pcid)));
+            DicomObject commandSet = command.toDicomObject();
             LOG.debug("{} >> Command:\n{}", this, commandSet);
-            buffer = commandStream.buffer;
-            if (!Dimse.hasDataSet(commandSet)) {
+            if (!command.hasDataSet()) {
                 dimse.handler.accept(this, pcid, dimse, commandSet, null);
             } else {
                 if (pduLength == 0) {
-                    buffer = ensureRemaining(buffer, 10);
-                    if (buffer.getShort() >>> 8 != 4) {
-                        buffer.position(buffer.position() - 2);
-                        return buffer;
+                    if (cursor.peek() != 4) {
+                        return;
                     }
-                    pduLength = buffer.getInt();
-                    LOG.debug("{} >> P-DATA-TF[length: {}]", this, pduLength);
+                    readPDataTFHeader();
                 }
-                buffer = ensureRemaining(buffer, 6);
-                readPDVHeader(buffer);
                 Byte pcid0 = pcid;
+                readPDVHeader();
                 requirePresentationContextID(pcid, pcid0);
                 requireDataPDV(mch);
-                PDVInputStream dataStream = new PDVInputStream(buffer);
+                PDVInputStream dataStream = new PDVInputStream();
                 dimse.handler.accept(this, pcid, dimse, commandSet, dataStream);
-                buffer = dataStream.buffer;
+                dataStream.skipAll();
             }
+        } catch (EOFException e) {
+            throw e;
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return buffer;
+    }
+
+    private Command readCommand() throws IOException {
+        byte[] b;
+        if (mch.last) {
+            b = new byte[pdvLength - 2];
+            cursor.get(b, 0, b.length);
+        } else {
+            b = new PDVInputStream().readAllBytes();
+        }
+        return Command.decode(b);
     }
 
     private void ar_1() {
         LOG.info("{} << A-RELEASE-RQ", this);
-        write(mkAReleaseRQ(), as -> as.changeState(State.STA_7));
+        writeUnlessClosed(mkAReleaseRQ(), as -> as.changeState(State.STA_7));
     }
 
-    private ByteBuffer ar_2(ByteBuffer buffer) {
-        buffer.position(buffer.limit());
+    private void ar_2() throws IOException {
+        cursor.skipFully(pduLength);
         changeState(State.STA_8);
         writeARRP();
-        return buffer;
     }
 
-    private ByteBuffer ar_3(ByteBuffer buffer) {
+    private void ar_3() throws IOException {
         arrpReceived.complete(this);
-        buffer.position(buffer.limit());
+        cursor.skipFully(pduLength);
         safeClose();
-        return buffer;
     }
 
     private void aa_2() {
@@ -697,16 +1057,19 @@ public class Association extends TCPConnection<Association> {
         readSemaphore.release();
     }
 
-    private ByteBuffer aa_3(ByteBuffer buffer) {
-        buffer.position(buffer.limit());
+    private void aa_4() {
+        LOG.info("{}: connection closed by peer", this);
         safeClose();
-        return buffer;
     }
 
-    private ByteBuffer aa_8(ByteBuffer buffer) {
-        buffer.position(buffer.limit());
-        write(mkAAbort(), Association::closeAfterDelay);
-        return buffer;
+    private void aa_3() {
+        cursor.clear();
+        safeClose();
+    }
+
+    private void aa_8() {
+        cursor.clear();
+        writeUnlessClosed(mkAAbort(), Association::closeAfterDelay);
     }
 
     private enum MCH {
@@ -732,10 +1095,18 @@ public class Association extends TCPConnection<Association> {
         }
     }
 
-    private void readPDVHeader(ByteBuffer buffer) {
-        pdvLength = buffer.getInt();
-        pcid = buffer.get();
-        mch = MCH.of(buffer.get());
+    private void readPDataTFHeader() throws EOFException {
+        cursor.skipFully(2);
+        pduLength = cursor.getInt();
+        onPDURead(4, pduLength);
+        LOG.debug("{} >> P-DATA-TF[length: {}]", this, pduLength);
+    }
+
+    private void readPDVHeader() throws EOFException {
+        cursor.ensureRemaining(6);
+        pdvLength = cursor.getInt();
+        pcid = (byte) cursor.get();
+        mch = MCH.of(cursor.get());
         LOG.debug("{} >> PDV[length: {}, pcid: {}, mch: {}]", this, pdvLength, pcid, mch.value());
         pduLength -= 4 + pdvLength;
     }
@@ -772,7 +1143,7 @@ public class Association extends TCPConnection<Association> {
             }
         }
 
-        private void ensureRemaining() {
+        private void ensureRemaining() throws ClosedChannelException {
             if (!pdu.hasRemaining()) {
                 int size = pdu.limit();
                 writePDataTF(writePDVHeader(mch));
@@ -783,7 +1154,7 @@ public class Association extends TCPConnection<Association> {
 
         ByteBuffer writePDVHeader(MCH mch) {
             int pdvLen = pdu.position() - pdvPosition - 4;
-            LOG.debug("{} << PDV[length: {}, pcid: {}, mch: {}]", asname, pdvLen, pcid, mch.value());
+            LOG.debug("{} << PDV[length: {}, pcid: {}, mch: {}]", Association.this, pdvLen, pcid, mch.value());
             pdu.putInt(pdvPosition, pdvLen);
             pdu.put(pdvPosition + 4, pcid);
             pdu.put(pdvPosition + 5, mch.value());
@@ -791,76 +1162,79 @@ public class Association extends TCPConnection<Association> {
         }
     }
 
-    private class PDVInputStream extends InputStream {
-        ByteBuffer buffer;
+    class PDVInputStream extends InputStream {
         int pdvRemaining;
 
-        PDVInputStream(ByteBuffer buffer) {
-            this.buffer = buffer;
+        PDVInputStream() {
             pdvRemaining = pdvLength - 2;
         }
 
         @Override
-        public int read() {
+        public int read() throws IOException {
             if (eof()) {
                 return -1;
             }
             pdvRemaining--;
-            return buffer.get() & 0xff;
+            return cursor.get();
         }
 
         @Override
-        public int read(byte[] b, int off, int len) {
+        public int read(byte[] b, int off, int len) throws IOException {
             if (len == 0) {
                 return 0;
             }
             if (eof()) {
                 return -1;
             }
-            int read = Math.min(buffer.remaining(), Math.min(pdvRemaining, len));
-            buffer.get(b, off, read);
+            int read = cursor.read(b, off, Math.min(pdvRemaining, len));
             pdvRemaining -= read;
             return read;
         }
 
         @Override
-        public long skip(long n) {
+        public long skip(long n) throws IOException {
             if (n <= 0L || eof()) {
                 return 0;
             }
-            int skip = Math.min(buffer.remaining(), (int) Math.min(pdvRemaining, n));
-            buffer.position(buffer.position() + skip);
-            pdvRemaining =- skip;
+            int skip = cursor.skip((int) Math.min(pdvRemaining, n));
+            pdvRemaining -= skip;
             return skip;
         }
 
-        private boolean eof() {
-            while (pdvRemaining == 0 || !buffer.hasRemaining()) {
-                if (pdvRemaining == 0 && mch.last) {
+        long transferTo(GatheringByteChannel channel) throws IOException {
+            long transferred = 0L;
+            while (!eof()) {
+                int n = cursor.write(channel, pdvRemaining);
+                pdvRemaining -= n;
+                transferred += n;
+            }
+            return transferred;
+        }
+
+        void skipAll() throws IOException {
+            while (!eof()) {
+                cursor.skipFully(pdvRemaining);
+                pdvRemaining = 0;
+            }
+        }
+
+        private boolean eof() throws IOException {
+            while (pdvRemaining == 0) {
+                if (mch.last) {
                     return true;
                 }
-                if (!buffer.hasRemaining()) {
-                    ByteBufferPool.free(buffer);
-                    buffer = nextBuffer();
-                }
-                if (pdvRemaining == 0) {
-                    if (pduLength == 0) {
-                        buffer = ensureRemaining(buffer, 10);
-                        if (buffer.getShort() >>> 8 != 4) {
-                            buffer.position(buffer.position() - 2);
-                            return true;
-                        }
-                        pduLength = buffer.getInt();
-                        LOG.debug("{} >> P-DATA-TF[length: {}]", Association.this, pduLength);
+                if (pduLength == 0) {
+                    if (cursor.peek() != 4) {
+                        return true;
                     }
-                    buffer = ensureRemaining(buffer, 6);
-                    Byte pcid0 = pcid;
-                    MCH mch0 = mch;
-                    readPDVHeader(buffer);
-                    requirePresentationContextID(pcid, pcid0);
-                    mch = requireMatchingPDV(mch, mch0);
-                    pdvRemaining = Association.this.pdvLength - 2;
+                    readPDataTFHeader();
                 }
+                Byte pcid0 = pcid;
+                MCH mch0 = mch;
+                readPDVHeader();
+                requirePresentationContextID(pcid, pcid0);
+                mch = requireMatchingPDV(mch, mch0);
+                pdvRemaining = pdvLength - 2;
             }
             return false;
         }
@@ -897,13 +1271,73 @@ public class Association extends TCPConnection<Association> {
         void writeTo(OutputStream out, String tsuid) throws IOException;
     }
 
-    private static class OutstandingRSP {
-        final int messageID;
-        final CompletableFuture<DimseRSP> futureDimseRSP;
+    /**
+     * Invoked operation waiting for its final response. Pending responses restart the response timeout.
+     */
+    private class OutstandingRSP extends CompletableFuture<DimseRSP> {
+        final Dimse dimse;
+        final String sopClassUID;
+        final int msgid;
+        final long invoked = System.nanoTime();
+        private TimingWheel.Timeout timeout;
+
+        OutstandingRSP(Dimse dimse, String sopClassUID, int msgid) {
+            this.dimse = dimse;
+            this.sopClassUID = sopClassUID;
+            this.msgid = msgid;
+        }
+
+        synchronized void restartTimeout() {
+            if (responseTimeout > 0 && !isDone()) {
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                timeout = connector.timingWheel().schedule(responseTimeout, () -> onResponseTimeout(msgid));
+            }
+        }
+
+        synchronized void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel();
+                timeout = null;
+            }
+        }
+    }
 
-        private OutstandingRSP(int messageID, CompletableFuture<DimseRSP> futureDimseRSP) {
-            this.messageID = messageID;
-            this.futureDimseRSP = futureDimseRSP;
+    private static class OperationWindow {
+        final Semaphore permits;
+        final AtomicInteger outstanding;
+        final Queue<CompletableFuture<Void>> waiting = new ConcurrentLinkedQueue<>();
+
+        OperationWindow(int maxOps, AtomicInteger outstanding) {
+            this.permits = new Semaphore(maxOps > 0 ? maxOps : Integer.MAX_VALUE);
+            this.outstanding = outstanding;
+        }
+
+        void acquire() throws InterruptedException {
+            permits.acquire();
+            outstanding.incrementAndGet();
+        }
+
+        void release() {
+            outstanding.decrementAndGet();
+            permits.release();
+            CompletableFuture<Void> future;
+            while (permits.availablePermits() > 0 && (future = waiting.poll()) != null) {
+                future.complete(null);
+            }
+        }
+
+        CompletableFuture<Void> whenAvailable() {
+            if (permits.availablePermits() > 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            waiting.add(future);
+            if (permits.availablePermits() > 0 && waiting.remove(future)) {
+                future.complete(null);
+            }
+            return future;
         }
     }
 }
@@ -0,0 +1,272 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.Connection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of established associations, keyed by calling and called AE title, remote connection and requested
+ * presentation contexts.
+ * <p>
+ * {@link #lease} returns an idle association of the destination, after checking that it is still established, or
+ * opens a new one. {@link #release} returns it to the pool. Associations idle for longer than
+ * {@link #getIdleTimeout()} are released by A-RELEASE. The number of associations leased or being opened per
+ * destination is limited by {@link #getMaxAssociationsPerDestination()}; further leases complete when an association
+ * of the destination is released.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class AssociationPool {
+    static final Logger LOG = LoggerFactory.getLogger(AssociationPool.class);
+    public static final long DEFAULT_IDLE_TIMEOUT = 30000L;
+
+    private final TCPConnector<Association> connector;
+    private final Connection local;
+    private final Map<Key, Destination> destinations = new ConcurrentHashMap<>();
+    private final Map<Association, Destination> leased = new ConcurrentHashMap<>();
+    private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private volatile int maxAssociationsPerDestination;
+    private volatile boolean closed;
+
+    public AssociationPool(TCPConnector<Association> connector, Connection local) {
+        this.connector = Objects.requireNonNull(connector);
+        this.local = Objects.requireNonNull(local);
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public AssociationPool setIdleTimeout(long idleTimeout) {
+        if (idleTimeout <= 0)
+            throw new IllegalArgumentException("idleTimeout: " + idleTimeout);
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    public int getMaxAssociationsPerDestination() {
+        return maxAssociationsPerDestination;
+    }
+
+    /**
+     * Sets the maximal number of associations leased or being opened per destination; 0 = unlimited.
+     */
+    public AssociationPool setMaxAssociationsPerDestination(int maxAssociationsPerDestination) {
+        if (maxAssociationsPerDestination < 0)
+            throw new IllegalArgumentException("maxAssociationsPerDestination: " + maxAssociationsPerDestination);
+        this.maxAssociationsPerDestination = maxAssociationsPerDestination;
+        return this;
+    }
+
+    public int getNumberOfLeasedAssociations() {
+        return leased.size();
+    }
+
+    public int getNumberOfIdleAssociations() {
+        int count = 0;
+        for (Destination destination : destinations.values()) {
+            synchronized (destination) {
+                count += destination.idle.size();
+            }
+        }
+        return count;
+    }
+
+    public CompletableFuture<Association> lease(Connection remote, AAssociate.RQ rq) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("pool closed"));
+        }
+        Destination destination = destinations.computeIfAbsent(new Key(remote, rq), k -> new Destination(remote, rq));
+        CompletableFuture<Association> future;
+        synchronized (destination) {
+            Idle idle;
+            while ((idle = destination.idle.pollLast()) != null) {
+                if (idle.as.isReadyForDataTransfer()) {
+                    destination.active++;
+                    leased.put(idle.as, destination);
+                    LOG.debug("{}: lease idle association", idle.as);
+                    return CompletableFuture.completedFuture(idle.as);
+                }
+                LOG.debug("{}: discard closed idle association", idle.as);
+            }
+            int max = maxAssociationsPerDestination;
+            if (max > 0 && destination.active >= max) {
+                destination.waiting.add(future = new CompletableFuture<>());
+                return future;
+            }
+            destination.active++;
+        }
+        future = new CompletableFuture<>();
+        open(destination, future);
+        return future;
+    }
+
+    public void release(Association as) {
+        Destination destination = leased.remove(as);
+        if (destination == null) {
+            throw new IllegalArgumentException("Association not leased from pool: " + as);
+        }
+        CompletableFuture<Association> waiting;
+        synchronized (destination) {
+            waiting = destination.waiting.poll();
+            if (waiting == null) {
+                destination.active--;
+                if (!closed && as.isReadyForDataTransfer()) {
+                    destination.idle.addLast(new Idle(as, System.nanoTime()));
+                    scheduleEvictIdle(destination);
+                    return;
+                }
+            }
+        }
+        if (waiting == null) {
+            releaseQuietly(as);
+        } else if (as.isReadyForDataTransfer()) {
+            leased.put(as, destination);
+            waiting.complete(as);
+        } else {
+            open(destination, waiting);
+        }
+    }
+
+    /**
+     * Releases all idle associations; further leases fail. Leased associations are released on return to the pool.
+     */
+    public void close() {
+        closed = true;
+        for (Destination destination : destinations.values()) {
+            List<Association> evicted = new ArrayList<>();
+            synchronized (destination) {
+                destination.idle.forEach(idle -> evicted.add(idle.as));
+                destination.idle.clear();
+                destination.waiting.forEach(f -> f.completeExceptionally(new IllegalStateException("pool closed")));
+                destination.waiting.clear();
+            }
+            evicted.forEach(AssociationPool::releaseQuietly);
+        }
+    }
+
+    private void open(Destination destination, CompletableFuture<Association> future) {
+        CompletableFuture<Association> opened;
+        try {
+            opened = connector.connect(local, destination.remote).thenCompose(as -> as.open(destination.rq));
+        } catch (IOException e) {
+            opened = CompletableFuture.failedFuture(e);
+        }
+        opened.whenComplete((as, e) -> {
+            if (e == null) {
+                LOG.debug("{}: lease new association", as);
+                leased.put(as, destination);
+                future.complete(as);
+                return;
+            }
+            CompletableFuture<Association> waiting;
+            synchronized (destination) {
+                if ((waiting = destination.waiting.poll()) == null) {
+                    destination.active--;
+                }
+            }
+            future.completeExceptionally(e);
+            if (waiting != null) {
+                open(destination, waiting);
+            }
+        });
+    }
+
+    private void scheduleEvictIdle(Destination destination) {
+        connector.timingWheel().schedule(idleTimeout, () -> evictIdle(destination));
+    }
+
+    private void evictIdle(Destination destination) {
+        List<Association> evicted = new ArrayList<>();
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        synchronized (destination) {
+            Idle idle;
+            while ((idle = destination.idle.peekFirst()) != null && now - idle.since >= idleTimeoutNanos) {
+                evicted.add(destination.idle.pollFirst().as);
+            }
+        }
+        for (Association as : evicted) {
+            LOG.debug("{}: evict idle association", as);
+            releaseQuietly(as);
+        }
+    }
+
+    private static void releaseQuietly(Association as) {
+        if (as.isReadyForDataTransfer()) {
+            try {
+                as.release();
+            } catch (IllegalStateException e) {
+                LOG.debug("{}: failed to release association", as, e);
+            }
+        }
+    }
+
+    private static class Key {
+        final String callingAETitle;
+        final String calledAETitle;
+        final String hostname;
+        final int port;
+        final List<String> presentationContexts = new ArrayList<>();
+
+        Key(Connection remote, AAssociate.RQ rq) {
+            this.callingAETitle = rq.getCallingAETitle();
+            this.calledAETitle = rq.getCalledAETitle();
+            this.hostname = remote.getHostname();
+            this.port = remote.getPort().orElse(-1);
+            rq.forEachPresentationContext((pcid, pc) ->
+                    presentationContexts.add(pc.abstractSyntax() + '/' + String.join("\\", pc.transferSyntax())));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return port == key.port
+                    && callingAETitle.equals(key.callingAETitle)
+                    && calledAETitle.equals(key.calledAETitle)
+                    && Objects.equals(hostname, key.hostname)
+                    && presentationContexts.equals(key.presentationContexts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(callingAETitle, calledAETitle, hostname, port, presentationContexts);
+        }
+    }
+
+    private static class Destination {
+        final Connection remote;
+        final AAssociate.RQ rq;
+        final ArrayDeque<Idle> idle = new ArrayDeque<>();
+        final ArrayDeque<CompletableFuture<Association>> waiting = new ArrayDeque<>();
+        int active;
+
+        Destination(Connection remote, AAssociate.RQ rq) {
+            this.remote = remote;
+            this.rq = rq;
+        }
+    }
+
+    private static class Idle {
+        final Association as;
+        final long since;
+
+        Idle(Association as, long since) {
+            this.as = as;
+            this.since = since;
+        }
+    }
+}
@@ -1,52 +1,296 @@
 package org.dcm4che6.net;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Pool of direct byte buffers in size classes from 8 KiB to 1 MiB, and one size class for a P-DATA-TF PDU of the
+ * maximal PDU length of 1 MiB including its PDU header.
+ * <p>
+ * For size classes up to 64 KiB, threads which called {@link #useMagazines()} keep a magazine of free buffers in
+ * front of the shared stack of the size class. Other - e.g. virtual or short-lived worker - threads free buffers
+ * directly to the shared stacks, so they do not get lost with the thread. Shared stacks are bounded by
+ * {@code org.dcm4che6.net.ByteBufferPool.maxPooledBytes} per size class (default: 32 MiB). Setting system property
+ * {@code org.dcm4che6.net.ByteBufferPool.leakDetection=true} records the allocation stack trace of each lease and
+ * logs a warning for buffers garbage collected without being freed.
+ *
  * @author Gunter Zeilinger (gunterze@protonmail.com)
  * @since Nov 2019
  */
 class ByteBufferPool {
+    static final Logger LOG = LoggerFactory.getLogger(ByteBufferPool.class);
 
-    private static final ByteBufferPool BYTE_BUFFER_POOL_8K = new ByteBufferPool(0x2000);
-    private static final ByteBufferPool BYTE_BUFFER_POOL_32K = new ByteBufferPool(0x8000);
-
-    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
-    private final int size;
+    private static final int MIN_SIZE_SHIFT = 13;
+    private static final int MAX_SIZE_SHIFT = 20;
+    static final int MAX_PDU_LENGTH = 1 << MAX_SIZE_SHIFT;
+    private static final int MAX_SIZE = MAX_PDU_LENGTH + 6;
+    private static final int MAGAZINE_BYTES = 0x10000;
+    private static final long MAX_POOLED_BYTES =
+            Long.getLong("org.dcm4che6.net.ByteBufferPool.maxPooledBytes", 0x2000000L);
+    private static final boolean LEAK_DETECTION =
+            Boolean.getBoolean("org.dcm4che6.net.ByteBufferPool.leakDetection");
 
-    private ByteBufferPool(int size) {
-        this.size = size;
+    private static final SizeClass[] SIZE_CLASSES = new SizeClass[MAX_SIZE_SHIFT - MIN_SIZE_SHIFT + 2];
+    static {
+        for (int i = 0; i < SIZE_CLASSES.length - 1; i++) {
+            SIZE_CLASSES[i] = new SizeClass(i, 1 << (MIN_SIZE_SHIFT + i));
+        }
+        SIZE_CLASSES[SIZE_CLASSES.length - 1] = new SizeClass(SIZE_CLASSES.length - 1, MAX_SIZE);
     }
+    private static final ThreadLocal<Magazine[]> MAGAZINES = new ThreadLocal<>();
 
-    private ByteBuffer allocate0() {
-        ByteBuffer buffer = queue.poll();
-        return buffer != null ? buffer : ByteBuffer.allocate(size);
-    }
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder unpooled = new LongAdder();
+    private static final LongAdder discarded = new LongAdder();
 
-    private void free0(ByteBuffer buffer) {
-        queue.offer(buffer.clear());
-    }
+    private static final ReferenceQueue<ByteBuffer> leakQueue = new ReferenceQueue<>();
+    private static final Map<Integer, List<LeakTracker>> leases = new ConcurrentHashMap<>();
+
+    private ByteBufferPool() {}
 
     public static ByteBuffer allocate() {
-        return BYTE_BUFFER_POOL_8K.allocate0();
+        return allocate(SIZE_CLASSES[0]);
     }
 
     public static ByteBuffer allocate(int size) {
-        return size > 0x8000
-                ? ByteBuffer.allocate(size)
-                : (size > 0x2000 ? BYTE_BUFFER_POOL_32K : BYTE_BUFFER_POOL_8K).allocate0().limit(size);
+        SizeClass sizeClass = sizeClassOf(size);
+        if (sizeClass == null) {
+            unpooled.increment();
+            return ByteBuffer.allocate(size);
+        }
+        return allocate(sizeClass).limit(size);
     }
 
     public static void free(ByteBuffer buffer) {
-        switch (buffer.capacity()) {
-            case 0x2000:
-                BYTE_BUFFER_POOL_8K.free0(buffer);
-                break;
-            case 0x8000:
-                BYTE_BUFFER_POOL_32K.free0(buffer);
-                break;
+        SizeClass sizeClass;
+        if (!buffer.isDirect() || (sizeClass = sizeClassOf(buffer.capacity())) == null
+                || sizeClass.size != buffer.capacity()) {
+            return;
+        }
+        if (LEAK_DETECTION) {
+            release(buffer);
+        }
+        buffer.clear();
+        Magazine magazine = magazineOf(sizeClass);
+        if (magazine == null || !magazine.push(buffer)) {
+            if (!sizeClass.offer(buffer)) {
+                discarded.increment();
+            }
+        }
+    }
+
+    /**
+     * Keeps magazines of free buffers for the current thread. Shall only be called by long-lived threads, which
+     * shall call {@link #releaseMagazines()} before they terminate.
+     */
+    static void useMagazines() {
+        if (MAGAZINES.get() == null) {
+            MAGAZINES.set(newMagazines());
+        }
+    }
+
+    /**
+     * Returns the buffers in the magazines of the current thread to the shared stacks.
+     */
+    static void releaseMagazines() {
+        Magazine[] magazines = MAGAZINES.get();
+        if (magazines == null) {
+            return;
+        }
+        MAGAZINES.remove();
+        for (SizeClass sizeClass : SIZE_CLASSES) {
+            if (sizeClass.magazine) {
+                ByteBuffer buffer;
+                while ((buffer = magazines[sizeClass.index].pop()) != null) {
+                    if (!sizeClass.offer(buffer)) {
+                        discarded.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static long getUnpooled() {
+        return unpooled.sum();
+    }
+
+    public static long getDiscarded() {
+        return discarded.sum();
+    }
+
+    public static long getPooledBytes() {
+        long pooledBytes = 0L;
+        for (SizeClass sizeClass : SIZE_CLASSES) {
+            pooledBytes += (long) sizeClass.pooled.get() * sizeClass.size;
+        }
+        return pooledBytes;
+    }
+
+    private static SizeClass sizeClassOf(int size) {
+        if (size > (1 << MAX_SIZE_SHIFT)) {
+            return size > MAX_SIZE ? null : SIZE_CLASSES[SIZE_CLASSES.length - 1];
+        }
+        int shift = size <= (1 << MIN_SIZE_SHIFT) ? MIN_SIZE_SHIFT : 32 - Integer.numberOfLeadingZeros(size - 1);
+        return SIZE_CLASSES[shift - MIN_SIZE_SHIFT];
+    }
+
+    private static ByteBuffer allocate(SizeClass sizeClass) {
+        ByteBuffer buffer;
+        Magazine magazine = magazineOf(sizeClass);
+        if (magazine != null && (buffer = magazine.pop()) != null) {
+            hits.increment();
+        } else if ((buffer = sizeClass.poll()) != null) {
+            hits.increment();
+        } else {
+            buffer = ByteBuffer.allocateDirect(sizeClass.size);
+            misses.increment();
         }
+        if (LEAK_DETECTION) {
+            track(buffer);
+        }
+        return buffer;
+    }
+
+    private static Magazine magazineOf(SizeClass sizeClass) {
+        Magazine[] magazines;
+        return sizeClass.magazine && (magazines = MAGAZINES.get()) != null ? magazines[sizeClass.index] : null;
     }
 
+    private static Magazine[] newMagazines() {
+        Magazine[] magazines = new Magazine[SIZE_CLASSES.length];
+        for (SizeClass sizeClass : SIZE_CLASSES) {
+            if (sizeClass.magazine) {
+                magazines[sizeClass.index] = new Magazine(MAGAZINE_BYTES / sizeClass.size);
+            }
+        }
+        return magazines;
+    }
+
+    private static void track(ByteBuffer buffer) {
+        reportLeaks();
+        LeakTracker tracker = new LeakTracker(buffer);
+        leases.compute(tracker.hash, (k, list) -> {
+            if (list == null) {
+                list = new ArrayList<>(1);
+            }
+            list.add(tracker);
+            return list;
+        });
+    }
+
+    private static void release(ByteBuffer buffer) {
+        boolean[] found = new boolean[1];
+        leases.computeIfPresent(System.identityHashCode(buffer), (k, list) -> {
+            found[0] = list.removeIf(tracker -> tracker.get() == buffer);
+            return list.isEmpty() ? null : list;
+        });
+        if (!found[0]) {
+            LOG.warn("Free buffer not allocated from pool or already freed", new Throwable());
+        }
+    }
+
+    private static void reportLeaks() {
+        Reference<? extends ByteBuffer> ref;
+        while ((ref = leakQueue.poll()) != null) {
+            LeakTracker tracker = (LeakTracker) ref;
+            boolean[] leaked = new boolean[1];
+            leases.computeIfPresent(tracker.hash, (k, list) -> {
+                leaked[0] = list.remove(tracker);
+                return list.isEmpty() ? null : list;
+            });
+            if (leaked[0]) {
+                LOG.warn("Buffer garbage collected without being freed - allocated at:", tracker.allocated);
+            }
+        }
+    }
+
+    private static class SizeClass {
+        final int index;
+        final int size;
+        final int maxPooled;
+        final boolean magazine;
+        final ConcurrentLinkedDeque<ByteBuffer> stack = new ConcurrentLinkedDeque<>();
+        final AtomicInteger pooled = new AtomicInteger();
+
+        SizeClass(int index, int size) {
+            this.index = index;
+            this.size = size;
+            this.maxPooled = (int) Math.min(Integer.MAX_VALUE, MAX_POOLED_BYTES / size);
+            this.magazine = size <= MAGAZINE_BYTES;
+        }
+
+        ByteBuffer poll() {
+            ByteBuffer buffer = stack.pollFirst();
+            if (buffer != null) {
+                pooled.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        boolean offer(ByteBuffer buffer) {
+            if (pooled.incrementAndGet() > maxPooled) {
+                pooled.decrementAndGet();
+                return false;
+            }
+            stack.offerFirst(buffer);
+            return true;
+        }
+    }
+
+    private static class Magazine {
+        final ByteBuffer[] buffers;
+        int count;
+
+        Magazine(int size) {
+            buffers = new ByteBuffer[size];
+        }
+
+        ByteBuffer pop() {
+            if (count == 0) {
+                return null;
+            }
+            ByteBuffer buffer = buffers[--count];
+            buffers[count] = null;
+            return buffer;
+        }
+
+        boolean push(ByteBuffer buffer) {
+            if (count == buffers.length) {
+                return false;
+            }
+            buffers[count++] = buffer;
+            return true;
+        }
+    }
+
+    private static class LeakTracker extends WeakReference<ByteBuffer> {
+        final int hash;
+        final Throwable allocated = new Throwable();
+
+        LeakTracker(ByteBuffer buffer) {
+            super(buffer, leakQueue);
+            this.hash = System.identityHashCode(buffer);
+        }
+    }
 }
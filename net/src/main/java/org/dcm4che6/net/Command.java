@@ -0,0 +1,196 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.data.Tag;
+import org.dcm4che6.data.VR;
+import org.dcm4che6.io.DicomInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command set of a received DIMSE message, decoded from its Implicit VR Little Endian encoding without
+ * {@code DicomInputStream}. Only Command Group Length, SOP Class UID, Command Field, Message ID (Being Responded
+ * To), Priority, Command Data Set Type, Status and SOP Instance UID are decoded; if the command set contains other
+ * elements, {@link #toDicomObject()} falls back to parse the encoded command set.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+final class Command {
+    private final byte[] encoded;
+    private boolean compact = true;
+    private int groupLength = -1;
+    private int commandField = -1;
+    private int tagOfMessageID;
+    private int messageID = -1;
+    private int priority = -1;
+    private int dataSetType = -1;
+    private int status = -1;
+    private int tagOfSOPClassUID;
+    private String sopClassUID;
+    private int tagOfSOPInstanceUID;
+    private String sopInstanceUID;
+    private DicomObject dicomObject;
+
+    private Command(byte[] encoded) {
+        this.encoded = encoded;
+    }
+
+    static Command decode(byte[] b) {
+        Command cmd = new Command(b);
+        int pos = 0;
+        while (pos + 8 <= b.length) {
+            int tag = uint16(b, pos) << 16 | uint16(b, pos + 2);
+            int vlen = uint16(b, pos + 4) | uint16(b, pos + 6) << 16;
+            pos += 8;
+            if (vlen < 0 || vlen > b.length - pos) {
+                cmd.compact = false;
+                break;
+            }
+            switch (tag) {
+                case Tag.CommandGroupLength:
+                    if (vlen == 4) {
+                        cmd.groupLength = uint16(b, pos) | uint16(b, pos + 2) << 16;
+                    } else {
+                        cmd.compact = false;
+                    }
+                    break;
+                case Tag.AffectedSOPClassUID:
+                case Tag.RequestedSOPClassUID:
+                    if (cmd.sopClassUID == null) {
+                        cmd.tagOfSOPClassUID = tag;
+                        cmd.sopClassUID = uid(b, pos, vlen);
+                    } else {
+                        cmd.compact = false;
+                    }
+                    break;
+                case Tag.CommandField:
+                    cmd.commandField = us(cmd, b, pos, vlen);
+                    break;
+                case Tag.MessageID:
+                case Tag.MessageIDBeingRespondedTo:
+                    if (cmd.messageID < 0) {
+                        cmd.tagOfMessageID = tag;
+                        cmd.messageID = us(cmd, b, pos, vlen);
+                    } else {
+                        cmd.compact = false;
+                    }
+                    break;
+                case Tag.Priority:
+                    cmd.priority = us(cmd, b, pos, vlen);
+                    break;
+                case Tag.CommandDataSetType:
+                    cmd.dataSetType = us(cmd, b, pos, vlen);
+                    break;
+                case Tag.Status:
+                    cmd.status = us(cmd, b, pos, vlen);
+                    break;
+                case Tag.AffectedSOPInstanceUID:
+                case Tag.RequestedSOPInstanceUID:
+                    if (cmd.sopInstanceUID == null) {
+                        cmd.tagOfSOPInstanceUID = tag;
+                        cmd.sopInstanceUID = uid(b, pos, vlen);
+                    } else {
+                        cmd.compact = false;
+                    }
+                    break;
+                default:
+                    cmd.compact = false;
+            }
+            pos += vlen;
+        }
+        if (pos != b.length) {
+            cmd.compact = false;
+        }
+        return cmd;
+    }
+
+    int getCommandField() {
+        return commandField;
+    }
+
+    /**
+     * Returns the value of Message ID (0000,0110) or Message ID Being Responded To (0000,0120), or -1 if absent.
+     */
+    int getMessageID() {
+        return messageID;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    boolean hasDataSet() {
+        return dataSetType != Dimse.NO_DATASET;
+    }
+
+    /**
+     * Returns the value of Affected or Requested SOP Class UID, or {@code null} if absent.
+     */
+    String getSOPClassUID() {
+        return sopClassUID;
+    }
+
+    /**
+     * Returns the value of Affected or Requested SOP Instance UID, or {@code null} if absent.
+     */
+    String getSOPInstanceUID() {
+        return sopInstanceUID;
+    }
+
+    DicomObject toDicomObject() throws IOException {
+        if (dicomObject == null) {
+            dicomObject = compact
+                    ? newDicomObject()
+                    : new DicomInputStream(new ByteArrayInputStream(encoded)).readCommandSet();
+        }
+        return dicomObject;
+    }
+
+    private DicomObject newDicomObject() {
+        DicomObject commandSet = DicomObject.newDicomObject();
+        if (groupLength >= 0)
+            commandSet.setInt(Tag.CommandGroupLength, VR.UL, groupLength);
+        if (sopClassUID != null)
+            commandSet.setString(tagOfSOPClassUID, VR.UI, sopClassUID);
+        if (commandField >= 0)
+            commandSet.setInt(Tag.CommandField, VR.US, commandField);
+        if (messageID >= 0)
+            commandSet.setInt(tagOfMessageID, VR.US, messageID);
+        if (priority >= 0)
+            commandSet.setInt(Tag.Priority, VR.US, priority);
+        if (dataSetType >= 0)
+            commandSet.setInt(Tag.CommandDataSetType, VR.US, dataSetType);
+        if (status >= 0)
+            commandSet.setInt(Tag.Status, VR.US, status);
+        if (sopInstanceUID != null)
+            commandSet.setString(tagOfSOPInstanceUID, VR.UI, sopInstanceUID);
+        return commandSet;
+    }
+
+    private static int uint16(byte[] b, int off) {
+        return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8;
+    }
+
+    private static int us(Command cmd, byte[] b, int off, int vlen) {
+        if (vlen != 2) {
+            cmd.compact = false;
+            return -1;
+        }
+        return uint16(b, off);
+    }
+
+    private static String uid(byte[] b, int off, int vlen) {
+        int len = vlen;
+        while (len > 0 && (b[off + len - 1] == 0 || b[off + len - 1] == ' ')) {
+            len--;
+        }
+        return new String(b, off, len, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,89 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.data.Tag;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encodes the command set of a DIMSE message with fixed layout - SOP Class UID, Command Field, Message ID (Being
+ * Responded To), Command Data Set Type, Status (only responses) and SOP Instance UID (if applicable) - in Implicit
+ * VR Little Endian directly into a PDU buffer, with precomputed Command Group Length.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+final class CommandEncoder {
+
+    private CommandEncoder() {}
+
+    /**
+     * Returns the length of the encoded command set, including the Command Group Length element.
+     */
+    static int length(Dimse dimse, String sopClassUID, String sopInstanceUID) {
+        return 12 + groupLength(dimse, sopClassUID, sopInstanceUID);
+    }
+
+    static void encode(ByteBuffer pdu, Dimse dimse, int msgID, String sopClassUID, String sopInstanceUID,
+            int dataSetType, int status) {
+        ByteOrder order = pdu.order();
+        pdu.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            putTag(pdu, Tag.CommandGroupLength);
+            pdu.putInt(4).putInt(groupLength(dimse, sopClassUID, sopInstanceUID));
+            putUID(pdu, dimse.tagOfSOPClassUID, sopClassUID);
+            putUS(pdu, Tag.CommandField, dimse.commandField);
+            putUS(pdu, dimse.tagOfMessageID, msgID);
+            putUS(pdu, Tag.CommandDataSetType, dataSetType);
+            if (isRSP(dimse)) {
+                putUS(pdu, Tag.Status, status);
+            }
+            if (hasSOPInstanceUID(dimse, sopInstanceUID)) {
+                putUID(pdu, dimse.tagOfSOPInstanceUID, sopInstanceUID);
+            }
+        } finally {
+            pdu.order(order);
+        }
+    }
+
+    static boolean isRSP(Dimse dimse) {
+        return (dimse.commandField & 0x8000) != 0;
+    }
+
+    private static boolean hasSOPInstanceUID(Dimse dimse, String sopInstanceUID) {
+        return dimse.tagOfSOPInstanceUID != 0 && sopInstanceUID != null;
+    }
+
+    private static int groupLength(Dimse dimse, String sopClassUID, String sopInstanceUID) {
+        int len = 8 + evenLength(sopClassUID) + (isRSP(dimse) ? 40 : 30);
+        if (hasSOPInstanceUID(dimse, sopInstanceUID)) {
+            len += 8 + evenLength(sopInstanceUID);
+        }
+        return len;
+    }
+
+    private static int evenLength(String uid) {
+        return (uid.length() + 1) & ~1;
+    }
+
+    private static void putTag(ByteBuffer pdu, int tag) {
+        pdu.putShort((short) (tag >>> 16)).putShort((short) tag);
+    }
+
+    private static void putUS(ByteBuffer pdu, int tag, int value) {
+        putTag(pdu, tag);
+        pdu.putInt(2).putShort((short) value);
+    }
+
+    private static void putUID(ByteBuffer pdu, int tag, String uid) {
+        int len = uid.length();
+        putTag(pdu, tag);
+        pdu.putInt((len + 1) & ~1);
+        for (int i = 0; i < len; i++) {
+            pdu.put((byte) uid.charAt(i));
+        }
+        if ((len & 1) != 0) {
+            pdu.put((byte) 0);
+        }
+    }
+}
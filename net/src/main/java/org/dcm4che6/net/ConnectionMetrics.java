@@ -0,0 +1,74 @@
+package org.dcm4che6.net;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one connection, also accumulated in the {@link ConnectorMetrics} of its connector.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class ConnectionMetrics {
+    private final ConnectorMetrics connectorMetrics;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder pdusRead = new LongAdder();
+    private final LongAdder pdusWritten = new LongAdder();
+    private volatile long setupNanos = -1L;
+
+    ConnectionMetrics(ConnectorMetrics connectorMetrics) {
+        this.connectorMetrics = connectorMetrics;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long getPDUsRead() {
+        return pdusRead.sum();
+    }
+
+    public long getPDUsWritten() {
+        return pdusWritten.sum();
+    }
+
+    /**
+     * Returns the time in microseconds from opening the connection until the association was established, or -1 if
+     * no association was established.
+     */
+    public long getAssociationSetupTime() {
+        long nanos = setupNanos;
+        return nanos >= 0 ? nanos / 1000 : -1L;
+    }
+
+    void onBytesRead(int n) {
+        bytesRead.add(n);
+        connectorMetrics.bytesRead.add(n);
+    }
+
+    void onBytesWritten(long n) {
+        bytesWritten.add(n);
+        connectorMetrics.bytesWritten.add(n);
+    }
+
+    void onPDURead() {
+        pdusRead.increment();
+        connectorMetrics.pdusRead.increment();
+    }
+
+    void onPDUWritten() {
+        pdusWritten.increment();
+        connectorMetrics.pdusWritten.increment();
+    }
+
+    void onEstablished() {
+        setupNanos = System.nanoTime() - startNanos;
+        connectorMetrics.associationsEstablished.increment();
+        connectorMetrics.associationSetupTime.record(setupNanos / 1000);
+    }
+}
@@ -0,0 +1,167 @@
+package org.dcm4che6.net;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of all connections of one {@link TCPConnector}, accessible programmatically and as MXBean after
+ * {@link #registerMBean(String)}.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class ConnectorMetrics implements ConnectorMetricsMXBean {
+    final LongAdder bytesRead = new LongAdder();
+    final LongAdder bytesWritten = new LongAdder();
+    final LongAdder pdusRead = new LongAdder();
+    final LongAdder pdusWritten = new LongAdder();
+    final LongAdder connectionsOpened = new LongAdder();
+    final AtomicInteger openConnections = new AtomicInteger();
+    final LongAdder associationsEstablished = new LongAdder();
+    final AtomicInteger outstandingOperations = new AtomicInteger();
+    final Histogram associationSetupTime = new Histogram();
+    final Histogram selectorDispatchTime = new Histogram();
+    private final Map<Dimse, Map<String, Histogram>> dimseResponseTime = new ConcurrentHashMap<>();
+    private final Map<Dimse, Map<String, Histogram>> dimseHandlerTime = new ConcurrentHashMap<>();
+    private volatile ObjectName objectName;
+
+    ConnectorMetrics() {}
+
+    /**
+     * Registers the metrics as MXBean {@code org.dcm4che6.net:type=TCPConnector,name=<name>} at the platform
+     * MBean server.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("org.dcm4che6.net:type=TCPConnector,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+    public void unregisterMBean() throws JMException {
+        ObjectName objectName = this.objectName;
+        if (objectName != null) {
+            this.objectName = null;
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getPDUsRead() {
+        return pdusRead.sum();
+    }
+
+    @Override
+    public long getPDUsWritten() {
+        return pdusWritten.sum();
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    @Override
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    @Override
+    public long getAssociationsEstablished() {
+        return associationsEstablished.sum();
+    }
+
+    @Override
+    public int getOutstandingOperations() {
+        return outstandingOperations.get();
+    }
+
+    @Override
+    public Histogram.Snapshot getAssociationSetupTime() {
+        return associationSetupTime.snapshot();
+    }
+
+    @Override
+    public Map<String, Histogram.Snapshot> getDimseResponseTime() {
+        return snapshot(dimseResponseTime);
+    }
+
+    @Override
+    public Map<String, Histogram.Snapshot> getDimseHandlerTime() {
+        return snapshot(dimseHandlerTime);
+    }
+
+    @Override
+    public Histogram.Snapshot getSelectorDispatchTime() {
+        return selectorDispatchTime.snapshot();
+    }
+
+    @Override
+    public long getBufferPoolHits() {
+        return ByteBufferPool.getHits();
+    }
+
+    @Override
+    public long getBufferPoolMisses() {
+        return ByteBufferPool.getMisses();
+    }
+
+    @Override
+    public long getBufferPoolUnpooled() {
+        return ByteBufferPool.getUnpooled();
+    }
+
+    @Override
+    public long getBufferPoolDiscarded() {
+        return ByteBufferPool.getDiscarded();
+    }
+
+    @Override
+    public long getBufferPoolPooledBytes() {
+        return ByteBufferPool.getPooledBytes();
+    }
+
+    public Histogram getDimseResponseTime(Dimse dimse, String sopClassUID) {
+        return histogramOf(dimseResponseTime, dimse, sopClassUID);
+    }
+
+    public Histogram getDimseHandlerTime(Dimse dimse, String sopClassUID) {
+        return histogramOf(dimseHandlerTime, dimse, sopClassUID);
+    }
+
+    void onDimseRSP(Dimse dimse, String sopClassUID, long nanos) {
+        histogramOf(dimseResponseTime, dimse, sopClassUID).record(nanos / 1000);
+    }
+
+    void onDimseHandled(Dimse dimse, String sopClassUID, long nanos) {
+        histogramOf(dimseHandlerTime, dimse, sopClassUID).record(nanos / 1000);
+    }
+
+    private static Histogram histogramOf(Map<Dimse, Map<String, Histogram>> map, Dimse dimse, String sopClassUID) {
+        return map.computeIfAbsent(dimse, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(sopClassUID != null ? sopClassUID : "", k -> new Histogram());
+    }
+
+    private static Map<String, Histogram.Snapshot> snapshot(Map<Dimse, Map<String, Histogram>> map) {
+        Map<String, Histogram.Snapshot> snapshot = new TreeMap<>();
+        map.forEach((dimse, bySOPClass) -> bySOPClass.forEach((cuid, histogram) ->
+                snapshot.put(dimse.name() + ' ' + cuid, histogram.snapshot())));
+        return snapshot;
+    }
+}
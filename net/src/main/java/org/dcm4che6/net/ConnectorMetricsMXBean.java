@@ -0,0 +1,52 @@
+package org.dcm4che6.net;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ConnectorMetrics}. Durations are reported in microseconds.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public interface ConnectorMetricsMXBean {
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    long getPDUsRead();
+
+    long getPDUsWritten();
+
+    long getConnectionsOpened();
+
+    int getOpenConnections();
+
+    long getAssociationsEstablished();
+
+    int getOutstandingOperations();
+
+    Histogram.Snapshot getAssociationSetupTime();
+
+    /**
+     * Returns the time from invoking a DIMSE request until receiving its response by command and SOP Class,
+     * e.g. {@code "C_STORE_RQ 1.2.840.10008.5.1.4.1.1.2"}.
+     */
+    Map<String, Histogram.Snapshot> getDimseResponseTime();
+
+    /**
+     * Returns the time spent by the DIMSE handler to process received requests by command and SOP Class.
+     */
+    Map<String, Histogram.Snapshot> getDimseHandlerTime();
+
+    Histogram.Snapshot getSelectorDispatchTime();
+
+    long getBufferPoolHits();
+
+    long getBufferPoolMisses();
+
+    long getBufferPoolUnpooled();
+
+    long getBufferPoolDiscarded();
+
+    long getBufferPoolPooledBytes();
+}
@@ -24,7 +24,7 @@ public class DicomServiceRegistry implements Association.Handler {
             @Override
             protected void accept(Association as, Byte pcid, Dimse dimse, DicomObject commandSet, DicomObject dataSet)
                     throws IOException {
-                as.writeDimse(pcid, Dimse.C_ECHO_RSP, dimse.mkRSP(commandSet));
+                as.writeRSP(pcid, dimse, commandSet, Status.Success);
             }
         });
     }
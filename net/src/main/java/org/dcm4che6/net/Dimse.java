@@ -80,7 +80,10 @@ public enum Dimse {
     }
 
     public static Dimse of(DicomObject commandSet) {
-        int commandField = commandSet.getIntOrElseThrow(Tag.CommandField);
+        return of(commandSet.getIntOrElseThrow(Tag.CommandField));
+    }
+
+    public static Dimse of(int commandField) {
         switch (commandField) {
             case 0x8001:
                 return C_STORE_RSP;
@@ -160,6 +163,19 @@ public enum Dimse {
         return commandSet;
     }
 
+    DicomObject mkCommand(int msgID, String sopClassUID, String sopInstanceUID, int dataSetType, int status) {
+        DicomObject commandSet = DicomObject.newDicomObject();
+        commandSet.setString(tagOfSOPClassUID, VR.UI, sopClassUID);
+        commandSet.setInt(Tag.CommandField, VR.US, commandField);
+        commandSet.setInt(tagOfMessageID, VR.US, msgID);
+        commandSet.setInt(Tag.CommandDataSetType, VR.US, dataSetType);
+        if (CommandEncoder.isRSP(this))
+            commandSet.setInt(Tag.Status, VR.US, status);
+        if (tagOfSOPInstanceUID != 0 && sopInstanceUID != null)
+            commandSet.setString(tagOfSOPInstanceUID, VR.UI, sopInstanceUID);
+        return commandSet;
+    }
+
     static boolean hasDataSet(DicomObject commandSet) {
         return commandSet.getIntOrElseThrow(Tag.CommandDataSetType) != NO_DATASET;
     }
@@ -168,38 +184,41 @@ public enum Dimse {
         return new Object(){
             @Override
             public String toString() {
-                return promptTo(pcid, commandSet, tsuid, new StringBuilder(256)).toString();
+                return promptTo(pcid, commandSet.getIntOrElseThrow(tagOfMessageID),
+                        commandSet.getString(tagOfSOPClassUID).orElse(null),
+                        tagOfSOPInstanceUID != 0 ? commandSet.getString(tagOfSOPInstanceUID).orElse(null) : null,
+                        commandSet.getInt(Tag.Status).orElse(-1),
+                        tsuid, new StringBuilder(256)).toString();
+            }
+        };
+    }
+
+    Object toString(Byte pcid, int msgID, String sopClassUID, String sopInstanceUID, int status, String tsuid) {
+        return new Object(){
+            @Override
+            public String toString() {
+                return promptTo(pcid, msgID, sopClassUID, sopInstanceUID, status, tsuid, new StringBuilder(256))
+                        .toString();
             }
         };
     }
 
-    private StringBuilder promptTo(Byte pcid, DicomObject commandSet, String tsuid, StringBuilder sb) {
-        promptHeaderTo(commandSet, sb);
+    private StringBuilder promptTo(Byte pcid, int msgID, String sopClassUID, String sopInstanceUID, int status,
+            String tsuid, StringBuilder sb) {
+        sb.append(msgID).append(':').append(name().replace('_', '-'));
         sb.append("[pcid: ").append(pcid & 0xff);
-        commandSet.getInt(Tag.Status)
-                .ifPresent(status -> sb
-                        .append(", status: ")
-                        .append(Integer.toHexString(status))
-                        .append('H'));
-        commandSet.getString(tagOfSOPClassUID)
-                .ifPresent(uid -> UIDUtils.promptTo(uid, sb
-                        .append(System.lineSeparator())
-                        .append("  sop-class: ")));
-        if (tagOfSOPInstanceUID != 0) {
-            commandSet.getString(tagOfSOPInstanceUID)
-                    .ifPresent(uid -> UIDUtils.promptTo(uid, sb
-                            .append(System.lineSeparator())
-                            .append("  sop-instance: ")));
+        if (status >= 0) {
+            sb.append(", status: ").append(Integer.toHexString(status)).append('H');
+        }
+        if (sopClassUID != null) {
+            UIDUtils.promptTo(sopClassUID, sb.append(System.lineSeparator()).append("  sop-class: "));
+        }
+        if (sopInstanceUID != null) {
+            UIDUtils.promptTo(sopInstanceUID, sb.append(System.lineSeparator()).append("  sop-instance: "));
         }
         UIDUtils.promptTo(tsuid, sb
                         .append(System.lineSeparator())
                         .append("  transfer-syntax: "));
         return sb.append(']');
     }
-
-    private StringBuilder promptHeaderTo(DicomObject commandSet, StringBuilder sb) {
-        return sb.append(commandSet.getIntOrElseThrow(tagOfMessageID))
-                .append(':')
-                .append(name().replace('_', '-'));
-    }
 }
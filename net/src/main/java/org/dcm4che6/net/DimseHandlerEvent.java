@@ -0,0 +1,33 @@
+package org.dcm4che6.net;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted on invocation of the DIMSE handler for a received DIMSE request.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@Name("org.dcm4che6.net.DimseHandler")
+@Label("DIMSE Handler")
+@Category({"DICOM", "Network"})
+@StackTrace(false)
+class DimseHandlerEvent extends Event {
+    @Label("Association")
+    String association;
+
+    @Label("Command")
+    String command;
+
+    @Label("Message ID")
+    int messageID;
+
+    @Label("SOP Class UID")
+    String sopClassUID;
+
+    @Label("SOP Instance UID")
+    String sopInstanceUID;
+
+    @Label("Transfer Syntax UID")
+    String transferSyntaxUID;
+}
@@ -0,0 +1,61 @@
+package org.dcm4che6.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Writes the data set of a DIMSE request from a region of a local file.
+ * <p>
+ * If passed to {@link Association#cstore}, the data set is sent by {@link FileChannel#transferTo} into the socket,
+ * without copying it into PDU buffers.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class FileDataWriter implements Association.DataWriter {
+    final Path path;
+    final long position;
+    final long length;
+
+    public FileDataWriter(Path path, long position, long length) {
+        if (position < 0 || length < 0)
+            throw new IllegalArgumentException("position: " + position + ", length: " + length);
+        this.path = path;
+        this.position = position;
+        this.length = length;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(OutputStream out, String tsuid) throws IOException {
+        try (FileChannel ch = FileChannel.open(path);
+             InputStream in = Channels.newInputStream(ch.position(position))) {
+            byte[] b = new byte[0x2000];
+            long remaining = length;
+            int read;
+            while (remaining > 0 && (read = in.read(b, 0, (int) Math.min(b.length, remaining))) > 0) {
+                out.write(b, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    FileChannel open() throws IOException {
+        return FileChannel.open(path);
+    }
+}
@@ -0,0 +1,120 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.ApplicationEntity;
+import org.dcm4che6.conf.model.TransferCapability;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the outcome of the negotiation of a Presentation Context - result, selected Transfer Syntax and accepted
+ * SCP/SCU Role Selection - by the accepting AE, the proposed Abstract Syntax, SCP/SCU Role Selection and Transfer
+ * Syntaxes. Entries become stale on any change of the Transfer Capabilities of the AE.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class NegotiationCache {
+    static final int MAX_SIZE = 4096;
+    private final Map<Key, Outcome> outcomes = new ConcurrentHashMap<>();
+
+    Outcome negotiate(ApplicationEntity ae, AAssociate.RQ.PresentationContext pc,
+            AAssociate.RoleSelection roleSelection) {
+        Key key = new Key(ae, pc.abstractSyntax(), roleSelection, List.of(pc.transferSyntax()));
+        Outcome outcome = outcomes.get(key);
+        if (outcome == null) {
+            outcome = select(ae, pc, roleSelection);
+            if (outcomes.size() >= MAX_SIZE) {
+                outcomes.clear();
+            }
+            outcomes.put(key, outcome);
+        }
+        return outcome;
+    }
+
+    int size() {
+        return outcomes.size();
+    }
+
+    private static Outcome select(ApplicationEntity ae, AAssociate.RQ.PresentationContext pc,
+            AAssociate.RoleSelection roleSelection) {
+        String abstractSyntax = pc.abstractSyntax();
+        Optional<TransferCapability> tc;
+        if (roleSelection == null) {
+            tc = ae.getTransferCapabilityOrDefault(TransferCapability.Role.SCP, abstractSyntax);
+        } else {
+            Optional<TransferCapability> scuTC = roleSelection.scu
+                    ? ae.getTransferCapabilityOrDefault(TransferCapability.Role.SCU, abstractSyntax)
+                    : Optional.empty();
+            Optional<TransferCapability> scpTC = roleSelection.scp
+                    ? ae.getTransferCapabilityOrDefault(TransferCapability.Role.SCP, abstractSyntax)
+                    : Optional.empty();
+            roleSelection = AAssociate.RoleSelection.of(scuTC.isPresent(), scpTC.isPresent());
+            tc = roleSelection == AAssociate.RoleSelection.SCU ? scuTC : scpTC;
+        }
+        if (tc.isEmpty()) {
+            return new Outcome(AAssociate.AC.Result.ABSTRACT_SYNTAX_NOT_SUPPORTED, pc.anyTransferSyntax(),
+                    roleSelection);
+        }
+        Optional<String> ts = tc.get().selectTransferSyntax(pc::containsTransferSyntax);
+        if (ts.isPresent()) {
+            return new Outcome(AAssociate.AC.Result.ACCEPTANCE, ts.get(), roleSelection);
+        }
+        return new Outcome(tc.get().anyTransferSyntax()
+                        ? AAssociate.AC.Result.ACCEPTANCE
+                        : AAssociate.AC.Result.TRANSFER_SYNTAXES_NOT_SUPPORTED,
+                pc.anyTransferSyntax(), roleSelection);
+    }
+
+    static class Outcome {
+        final AAssociate.AC.Result result;
+        final String transferSyntax;
+        final AAssociate.RoleSelection roleSelection;
+
+        Outcome(AAssociate.AC.Result result, String transferSyntax, AAssociate.RoleSelection roleSelection) {
+            this.result = result;
+            this.transferSyntax = transferSyntax;
+            this.roleSelection = roleSelection;
+        }
+    }
+
+    private static class Key {
+        final ApplicationEntity ae;
+        final int version;
+        final String abstractSyntax;
+        final AAssociate.RoleSelection roleSelection;
+        final List<String> transferSyntaxes;
+        final int hash;
+
+        Key(ApplicationEntity ae, String abstractSyntax, AAssociate.RoleSelection roleSelection,
+                List<String> transferSyntaxes) {
+            this.ae = ae;
+            this.version = ae.getTransferCapabilitiesVersion();
+            this.abstractSyntax = abstractSyntax;
+            this.roleSelection = roleSelection;
+            this.transferSyntaxes = transferSyntaxes;
+            this.hash = Objects.hash(System.identityHashCode(ae), version, abstractSyntax, roleSelection,
+                    transferSyntaxes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return ae == other.ae
+                    && version == other.version
+                    && roleSelection == other.roleSelection
+                    && abstractSyntax.equals(other.abstractSyntax)
+                    && transferSyntaxes.equals(other.transferSyntaxes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.dcm4che6.net;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted on reading and writing of a PDU. The duration of written PDUs includes the time waiting for
+ * the write queue of the connection to drain below its high water mark.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+@Name("org.dcm4che6.net.PDU")
+@Label("PDU")
+@Category({"DICOM", "Network"})
+@StackTrace(false)
+class PDUEvent extends Event {
+    @Label("Association")
+    String association;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("PDU Type")
+    int pduType;
+
+    @Label("PDU Length")
+    @DataAmount
+    int pduLength;
+}
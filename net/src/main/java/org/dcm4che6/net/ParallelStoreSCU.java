@@ -0,0 +1,295 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.Connection;
+import org.dcm4che6.data.Tag;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Sends composite objects to a Storage SCP over several concurrent associations.
+ * <p>
+ * Objects are distributed over the associations by size, in the order of the list. Each association only proposes
+ * presentation contexts for its own objects and invokes C-STOREs asynchronously, up to the configured
+ * maximal number of outstanding operations.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class ParallelStoreSCU {
+    private final TCPConnector<Association> connector;
+    private final Connection local;
+    private final Connection remote;
+    private final LongAdder sentObjects = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private String callingAETitle = "STORESCU";
+    private String calledAETitle = "STORESCP";
+    private int parallelism = 1;
+    private int maxOpsInvoked;
+
+    public ParallelStoreSCU(TCPConnector<Association> connector, Connection local, Connection remote) {
+        this.connector = Objects.requireNonNull(connector);
+        this.local = Objects.requireNonNull(local);
+        this.remote = Objects.requireNonNull(remote);
+    }
+
+    public ParallelStoreSCU setCallingAETitle(String callingAETitle) {
+        this.callingAETitle = Objects.requireNonNull(callingAETitle);
+        return this;
+    }
+
+    public ParallelStoreSCU setCalledAETitle(String calledAETitle) {
+        this.calledAETitle = Objects.requireNonNull(calledAETitle);
+        return this;
+    }
+
+    public ParallelStoreSCU setParallelism(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the maximal number of outstanding operations invoked on each association; 0 = unlimited.
+     */
+    public ParallelStoreSCU setMaxOpsInvoked(int maxOpsInvoked) {
+        if (maxOpsInvoked < 0)
+            throw new IllegalArgumentException("maxOpsInvoked: " + maxOpsInvoked);
+        this.maxOpsInvoked = maxOpsInvoked;
+        return this;
+    }
+
+    public long getSentObjects() {
+        return sentObjects.sum();
+    }
+
+    public long getSentBytes() {
+        return sentBytes.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public CompletableFuture<List<Result>> send(List<Instance> instances) {
+        List<List<Instance>> shards = shard(instances);
+        List<CompletableFuture<Result>> results = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            results.add(new Sender(i, shards.get(i)).start());
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(x -> results.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private List<List<Instance>> shard(List<Instance> instances) {
+        int n = Math.min(parallelism, Math.max(1, instances.size()));
+        List<List<Instance>> shards = new ArrayList<>(n);
+        long[] shardBytes = new long[n];
+        for (int i = 0; i < n; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (Instance instance : instances) {
+            int min = 0;
+            for (int i = 1; i < n; i++) {
+                if (shardBytes[i] < shardBytes[min]) min = i;
+            }
+            shards.get(min).add(instance);
+            shardBytes[min] += instance.length;
+        }
+        return shards;
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<DimseRSP>> rsps) {
+        return CompletableFuture.allOf(rsps.toArray(CompletableFuture[]::new)).handle((x, e) -> null);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private void onDimseRSP(Result result, Instance instance, DimseRSP rsp, Throwable e) {
+        if (e != null || !isSuccessOrWarning(rsp.command.getInt(Tag.Status).orElse(-1))) {
+            result.failures.increment();
+            failures.increment();
+            return;
+        }
+        result.objects.increment();
+        result.bytes.add(instance.length);
+        sentObjects.increment();
+        sentBytes.add(instance.length);
+    }
+
+    private static boolean isSuccessOrWarning(int status) {
+        return status == Status.Success || status == Status.CoercionOfDataElements
+                || status == Status.ElementsDiscarded || status == Status.DataSetDoesNotMatchSOPClassWarning;
+    }
+
+    /**
+     * Sends the objects of one shard over its own association. If the operation window is full, the next C-STORE is
+     * invoked by a worker thread, when {@link Association#whenInvokable()} completes, without blocking a thread
+     * meanwhile.
+     */
+    private class Sender {
+        final List<Instance> instances;
+        final Iterator<Instance> next;
+        final Result result;
+        final List<CompletableFuture<DimseRSP>> rsps;
+        final CompletableFuture<Result> done = new CompletableFuture<>();
+        final long t0 = System.nanoTime();
+        volatile Association as;
+
+        Sender(int index, List<Instance> instances) {
+            this.instances = instances;
+            this.next = instances.iterator();
+            this.result = new Result(index);
+            this.rsps = new ArrayList<>(instances.size());
+        }
+
+        CompletableFuture<Result> start() {
+            AAssociate.RQ rq = new AAssociate.RQ();
+            rq.setCallingAETitle(callingAETitle);
+            rq.setCalledAETitle(calledAETitle);
+            if (maxOpsInvoked != 1) {
+                rq.setAsyncOpsWindow(maxOpsInvoked, 1);
+            }
+            instances.forEach(instance ->
+                    rq.findOrAddPresentationContext(instance.sopClassUID, instance.transferSyntax));
+            try {
+                connector.connect(local, remote)
+                        .thenCompose(conn -> conn.open(rq))
+                        .whenCompleteAsync(this::onOpen, connector.getExecutor());
+            } catch (IOException | RuntimeException e) {
+                finish(e);
+            }
+            return done;
+        }
+
+        private void onOpen(Association as, Throwable e) {
+            if (e != null) {
+                finish(unwrap(e));
+                return;
+            }
+            this.as = as;
+            result.openNanos = System.nanoTime() - t0;
+            invokeNext();
+        }
+
+        private void invokeNext() {
+            try {
+                while (next.hasNext()) {
+                    CompletableFuture<Association> invokable = as.whenInvokable();
+                    if (!invokable.isDone()) {
+                        invokable.thenRunAsync(this::invokeNext, connector.getExecutor());
+                        return;
+                    }
+                    Instance instance = next.next();
+                    rsps.add(as.cstore(instance.sopClassUID, instance.sopInstanceUID, instance.dataWriter,
+                                    instance.transferSyntax)
+                            .whenComplete((rsp, e) -> onDimseRSP(result, instance, rsp, e)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+                return;
+            } catch (IOException | RuntimeException e) {
+                abort(e);
+                return;
+            }
+            allOf(rsps)
+                    .thenCompose(x -> as.release())
+                    .whenComplete((x, e) -> {
+                        if (e != null) {
+                            abort(unwrap(e));
+                        } else {
+                            finish(null);
+                        }
+                    });
+        }
+
+        private void abort(Throwable e) {
+            as.abort();
+            allOf(rsps).thenRun(() -> finish(e));
+        }
+
+        private void finish(Throwable e) {
+            result.error = e;
+            int notInvoked = instances.size() - rsps.size();
+            result.failures.add(notInvoked);
+            failures.add(notInvoked);
+            result.nanos = System.nanoTime() - t0;
+            done.complete(result);
+        }
+    }
+
+    public static class Instance {
+        final String sopClassUID;
+        final String sopInstanceUID;
+        final String transferSyntax;
+        final long length;
+        final Association.DataWriter dataWriter;
+
+        public Instance(String sopClassUID, String sopInstanceUID, String transferSyntax, long length,
+                Association.DataWriter dataWriter) {
+            this.sopClassUID = Objects.requireNonNull(sopClassUID);
+            this.sopInstanceUID = Objects.requireNonNull(sopInstanceUID);
+            this.transferSyntax = Objects.requireNonNull(transferSyntax);
+            this.length = length;
+            this.dataWriter = Objects.requireNonNull(dataWriter);
+        }
+    }
+
+    public static class Result {
+        public final int index;
+        final LongAdder objects = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        volatile Throwable error;
+        volatile long openNanos;
+        volatile long nanos;
+
+        Result(int index) {
+            this.index = index;
+        }
+
+        public long getSentObjects() {
+            return objects.sum();
+        }
+
+        public long getSentBytes() {
+            return bytes.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Returns the failure to open, use or release the association, if any.
+         */
+        public Optional<Throwable> getError() {
+            return Optional.ofNullable(error);
+        }
+
+        public long getOpenMillis() {
+            return openNanos / 1_000_000L;
+        }
+
+        public long getMillis() {
+            return nanos / 1_000_000L;
+        }
+
+        public double getMegabytesPerSecond() {
+            return nanos > 0 ? bytes.sum() * 1000.0 / nanos : 0.0;
+        }
+    }
+}
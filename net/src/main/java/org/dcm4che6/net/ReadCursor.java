@@ -0,0 +1,207 @@
+package org.dcm4che6.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Read cursor over the sequence of buffers received on a connection.
+ * <p>
+ * Values spanning several buffers are assembled on access, so PDUs are reassembled without concatenating buffers.
+ * Buffers are returned to the {@link ByteBufferPool} on the first access after they have been consumed, so a
+ * {@link #slice(int)} remains valid until the next access. {@link #write(GatheringByteChannel, int)} passes buffered
+ * bytes to a blocking channel by gathering writes without copying them.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class ReadCursor {
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+    private final ByteBuffer[] srcs = new ByteBuffer[16];
+    private final Supplier<ByteBuffer> source;
+    private int remaining;
+    private boolean eos;
+
+    ReadCursor(Supplier<ByteBuffer> source) {
+        this.source = source;
+    }
+
+    int remaining() {
+        return remaining;
+    }
+
+    boolean hasRemaining() {
+        return remaining > 0;
+    }
+
+    boolean fill() {
+        releaseConsumed();
+        if (eos) {
+            return false;
+        }
+        ByteBuffer buffer = source.get();
+        if (buffer == null) {
+            eos = true;
+            return false;
+        }
+        if (buffer.hasRemaining()) {
+            buffers.addLast(buffer);
+            remaining += buffer.remaining();
+        } else {
+            ByteBufferPool.free(buffer);
+        }
+        return true;
+    }
+
+    void ensureRemaining(int n) throws EOFException {
+        while (remaining < n) {
+            if (!fill()) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    int peek() throws EOFException {
+        ensureRemaining(1);
+        ByteBuffer head = head();
+        return head.get(head.position()) & 0xff;
+    }
+
+    int get() throws EOFException {
+        ensureRemaining(1);
+        remaining--;
+        return head().get() & 0xff;
+    }
+
+    int getUnsignedShort() throws EOFException {
+        ensureRemaining(2);
+        ByteBuffer head = head();
+        if (head.remaining() < 2) {
+            return (get() << 8) | get();
+        }
+        remaining -= 2;
+        return head.getShort() & 0xffff;
+    }
+
+    int getInt() throws EOFException {
+        ensureRemaining(4);
+        ByteBuffer head = head();
+        if (head.remaining() < 4) {
+            return (getUnsignedShort() << 16) | getUnsignedShort();
+        }
+        remaining -= 4;
+        return head.getInt();
+    }
+
+    void get(byte[] b, int off, int len) throws EOFException {
+        ensureRemaining(len);
+        while (len > 0) {
+            ByteBuffer head = head();
+            int n = Math.min(head.remaining(), len);
+            head.get(b, off, n);
+            remaining -= n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    int read(byte[] b, int off, int len) throws EOFException {
+        ensureRemaining(1);
+        int n = Math.min(remaining, len);
+        get(b, off, n);
+        return n;
+    }
+
+    int skip(int len) throws EOFException {
+        if (len <= 0) {
+            return 0;
+        }
+        ensureRemaining(1);
+        ByteBuffer head = head();
+        int n = Math.min(head.remaining(), len);
+        head.position(head.position() + n);
+        remaining -= n;
+        return n;
+    }
+
+    void skipFully(int len) throws EOFException {
+        while (len > 0) {
+            len -= skip(len);
+        }
+    }
+
+    int write(GatheringByteChannel channel, int len) throws IOException {
+        ensureRemaining(1);
+        releaseConsumed();
+        int n = 0;
+        int count = 0;
+        ByteBuffer last = null;
+        int lastLimit = 0;
+        for (ByteBuffer buffer : buffers) {
+            if (n == len || count == srcs.length) {
+                break;
+            }
+            int r = buffer.remaining();
+            if (n + r > len) {
+                last = buffer;
+                lastLimit = buffer.limit();
+                buffer.limit(buffer.position() + (r = len - n));
+            }
+            srcs[count++] = buffer;
+            n += r;
+        }
+        try {
+            long written = 0L;
+            while (written < n) {
+                written += channel.write(srcs, 0, count);
+            }
+        } finally {
+            if (last != null) {
+                last.limit(lastLimit);
+            }
+            Arrays.fill(srcs, 0, count, null);
+        }
+        remaining -= n;
+        return n;
+    }
+
+    ByteBuffer slice(int len) throws EOFException {
+        ensureRemaining(len);
+        ByteBuffer head = head();
+        ByteBuffer slice;
+        if (head.remaining() >= len) {
+            slice = head.slice().limit(len);
+            head.position(head.position() + len);
+            remaining -= len;
+        } else {
+            byte[] b = new byte[len];
+            get(b, 0, len);
+            slice = ByteBuffer.wrap(b);
+        }
+        return slice;
+    }
+
+    void clear() {
+        ByteBuffer buffer;
+        while ((buffer = buffers.pollFirst()) != null) {
+            ByteBufferPool.free(buffer);
+        }
+        remaining = 0;
+    }
+
+    private ByteBuffer head() {
+        releaseConsumed();
+        return buffers.peekFirst();
+    }
+
+    private void releaseConsumed() {
+        ByteBuffer buffer;
+        while ((buffer = buffers.peekFirst()) != null && !buffer.hasRemaining()) {
+            ByteBufferPool.free(buffers.pollFirst());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.io.DicomOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes data sets received by DIMSE requests to files.
+ * <p>
+ * The PDV payload of a data stream passed to a {@link DimseHandler} is written from the received buffers to the
+ * channel by gathering writes, without copying it into intermediate byte arrays.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class StorageSink {
+
+    private static final OpenOption[] DEFAULT_OPTIONS = {
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE };
+
+    private StorageSink() {}
+
+    public static long write(Path file, DicomObject fmi, InputStream dataStream, OpenOption... options)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, options.length > 0 ? options : DEFAULT_OPTIONS)) {
+            return writeFileMetaInformation(fmi, channel) + transferTo(dataStream, channel);
+        }
+    }
+
+    public static long writeFileMetaInformation(DicomObject fmi, GatheringByteChannel channel) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        new DicomOutputStream(out).writeFileMetaInformation(fmi);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return buffer.capacity();
+    }
+
+    public static long transferTo(InputStream dataStream, GatheringByteChannel channel) throws IOException {
+        return dataStream instanceof Association.PDVInputStream
+                ? ((Association.PDVInputStream) dataStream).transferTo(channel)
+                : dataStream.transferTo(Channels.newOutputStream(channel));
+    }
+}
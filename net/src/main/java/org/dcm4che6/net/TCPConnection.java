@@ -6,12 +6,19 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 /**
@@ -20,14 +27,25 @@ import java.util.function.Consumer;
  */
 public abstract class TCPConnection<T extends TCPConnection> {
     static final Logger LOG = LoggerFactory.getLogger(TCPConnection.class);
+    public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 0x20000;
+    public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 0x80000;
+    private static final int MAX_GATHERING_WRITE = 16;
     private static final AtomicInteger idGenerator = new AtomicInteger();
     public final int id = idGenerator.incrementAndGet();
     public final TCPConnector<T> connector;
     public final Connection local;
-    private final Semaphore writeSemaphore = new Semaphore(1);
-    protected volatile WriteAndThen<T> writeAndThen;
+    private final ArrayDeque<WriteAndThen<T>> writeQueue = new ArrayDeque<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition drained = writeLock.newCondition();
+    private final ByteBuffer[] gatheringWrite = new ByteBuffer[MAX_GATHERING_WRITE];
+    private long queuedBytes;
+    private boolean writing;
+    private boolean outputClosed;
+    private volatile int writeBufferLowWaterMark = DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
+    private volatile int writeBufferHighWaterMark = DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
     protected final CompletableFuture<T> connected = new CompletableFuture<>();
     protected final CompletableFuture<T> closed = new CompletableFuture<>();
+    protected final ConnectionMetrics metrics;
     protected Role role;
     protected SelectionKey key;
     private String name;
@@ -40,6 +58,7 @@ public abstract class TCPConnection<T extends TCPConnection> {
     public TCPConnection(TCPConnector<T> connector, Connection local) {
         this.connector = connector;
         this.local = local;
+        this.metrics = new ConnectionMetrics(connector.getMetrics());
     }
 
     void accepted(SelectionKey key) throws IOException {
@@ -64,18 +83,99 @@ public abstract class TCPConnection<T extends TCPConnection> {
         return name;
     }
 
-    public void write(ByteBuffer src, Consumer<T> action) {
-        if (!writeSemaphore.tryAcquire())
+    int getSendBufferSize() {
         try {
-            LOG.trace("{}: wait to queue writing {} bytes", this, src.remaining());
-            writeSemaphore.acquire();
+            return ((SocketChannel) key.channel()).getOption(StandardSocketOptions.SO_SNDBUF);
+        } catch (IOException e) {
+            LOG.info("{}: failed to get send buffer size", name, e);
+            return AAssociate.DEF_MAX_PDU_LENGTH;
+        }
+    }
+
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public void setWriteBufferWaterMarks(int low, int high) {
+        if (low < 0 || high < low)
+            throw new IllegalArgumentException("low: " + low + ", high: " + high);
+        this.writeBufferLowWaterMark = low;
+        this.writeBufferHighWaterMark = high;
+    }
+
+    /**
+     * Queues writing of {@code src}, which is returned to the {@link ByteBufferPool} after it was written or if the
+     * connection is closed before.
+     *
+     * @throws ClosedChannelException if the connection was already closed
+     */
+    public void write(ByteBuffer src, Consumer<T> action) throws ClosedChannelException {
+        enqueue(new WriteAndThen<>(src, action));
+    }
+
+    /**
+     * Queues the transfer of {@code count} bytes of {@code src} starting at {@code position} to the connection by
+     * {@link FileChannel#transferTo}, so the bytes are not copied through user space. {@code src} is closed if the
+     * connection is closed before the transfer completed.
+     *
+     * @throws ClosedChannelException if the connection was already closed
+     */
+    public void transferFrom(FileChannel src, long position, long count, Consumer<T> action)
+            throws ClosedChannelException {
+        enqueue(new WriteAndThen<>(src, position, count, action));
+    }
+
+    private void enqueue(WriteAndThen<T> writeAndThen) throws ClosedChannelException {
+        writeLock.lock();
+        try {
+            if (!outputClosed) {
+                try {
+                    interestOpsOr(SelectionKey.OP_WRITE);
+                    writeQueue.add(writeAndThen);
+                    queuedBytes += writeAndThen.length;
+                    LOG.trace("{}: queue writing {} bytes - {} bytes queued", this, writeAndThen.length, queuedBytes);
+                    awaitWritable();
+                    return;
+                } catch (CancelledKeyException e) {
+                    LOG.debug("{}: closed concurrently - {}", this, e.toString());
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        writeAndThen.discard(this);
+        throw new ClosedChannelException();
+    }
+
+    private void awaitWritable() {
+        if (queuedBytes <= writeBufferHighWaterMark) {
+            return;
+        }
+        LOG.trace("{}: wait for {} queued bytes to drain", this, queuedBytes);
+        try {
+            while (queuedBytes > writeBufferLowWaterMark && !outputClosed) {
+                drained.await();
+            }
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getQueuedBytes() {
+        writeLock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            writeLock.unlock();
         }
-        LOG.trace("{}: queue writing {} bytes", this, src.remaining());
-        writeAndThen = new WriteAndThen<T>(src, action);
-        interestOpsOr(SelectionKey.OP_WRITE);
-        connector.wakeup();
     }
 
     public boolean isOpen() {
@@ -84,6 +184,16 @@ public abstract class TCPConnection<T extends TCPConnection> {
 
     public void close() throws IOException {
         LOG.info("{}: close", name);
+        writeLock.lock();
+        try {
+            outputClosed = true;
+            if (!writing) {
+                discardQueued();
+            }
+            drained.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
         key.channel().close();
         closed.complete((T) this);
     }
@@ -100,43 +210,167 @@ public abstract class TCPConnection<T extends TCPConnection> {
     void interestOpsOr(int ops) {
         int oldVal = key.interestOpsOr(ops);
         LOG.trace("{}: interestOps {}->{}", key.attachment(), oldVal, oldVal | ops);
-        connector.wakeup();
+        key.selector().wakeup();
     }
 
     protected abstract void onNext(ByteBuffer buffer);
 
+    protected void onEndOfStream() {
+        LOG.info("{}: end of stream", name);
+    }
+
     protected void connected() {
         LOG.info("{}: connected", name);
         connected.complete((T) this);
     }
 
+    /**
+     * Writes queued buffers or transfers from the file at the head of the queue. Buffers and files being written are
+     * not discarded by a concurrent {@link #close()}, but after the write returned.
+     */
     void onWritable() throws IOException {
-        WriteAndThen<T> writeAndThen;
-        if ((writeAndThen = this.writeAndThen) == null) {
-            LOG.trace("{}: no bytes for writing", this);
-            return;
+        int n = 0;
+        WriteAndThen<T> transfer = null;
+        writeLock.lock();
+        try {
+            for (WriteAndThen<T> writeAndThen : writeQueue) {
+                if (writeAndThen.buffer == null) {
+                    if (n == 0) {
+                        transfer = writeAndThen;
+                    }
+                    break;
+                }
+                gatheringWrite[n++] = writeAndThen.buffer;
+                if (n == MAX_GATHERING_WRITE) break;
+            }
+            if (n == 0 && transfer == null) {
+                LOG.trace("{}: no bytes for writing", this);
+                interestOpsAnd(~SelectionKey.OP_WRITE);
+                return;
+            }
+            writing = true;
+        } finally {
+            writeLock.unlock();
         }
-        int remaining = writeAndThen.buffer.remaining();
-        LOG.trace("{}: writing {} bytes", this, remaining);
-        ((SocketChannel) key.channel()).write(writeAndThen.buffer);
-        LOG.trace("{}: wrote {} bytes", this, remaining - writeAndThen.buffer.remaining());
-        if (writeAndThen.buffer.hasRemaining()) {
-            return;
+        try {
+            if (transfer != null) {
+                onTransferable(transfer);
+            } else {
+                onGatheringWritable(n);
+            }
+        } finally {
+            Arrays.fill(gatheringWrite, null);
+            writeLock.lock();
+            try {
+                writing = false;
+                if (outputClosed) {
+                    discardQueued();
+                }
+            } finally {
+                writeLock.unlock();
+            }
         }
-        ByteBufferPool.free(writeAndThen.buffer);
-        writeAndThen.action.accept((T) this);
-        this.writeAndThen = null;
-        interestOpsAnd(~SelectionKey.OP_WRITE);
-        writeSemaphore.release();
+    }
+
+    private void onGatheringWritable(int n) throws IOException {
+        long written = ((SocketChannel) key.channel()).write(gatheringWrite, 0, n);
+        LOG.trace("{}: wrote {} bytes from {} buffers", this, written, n);
+        metrics.onBytesWritten(written);
+        for (int i = 0; i < n; i++) {
+            ByteBuffer buffer = gatheringWrite[i];
+            if (buffer.hasRemaining()) {
+                break;
+            }
+            WriteAndThen<T> head = removeHead();
+            ByteBufferPool.free(buffer);
+            head.action.accept((T) this);
+        }
+        clearWriteInterestIfEmpty();
+    }
+
+    private void onTransferable(WriteAndThen<T> transfer) throws IOException {
+        if (transfer.remaining > 0) {
+            long transferred = transfer.src.transferTo(transfer.position, transfer.remaining,
+                    (SocketChannel) key.channel());
+            LOG.trace("{}: transferred {} bytes from file", this, transferred);
+            metrics.onBytesWritten(transferred);
+            transfer.position += transferred;
+            transfer.remaining -= transferred;
+            if (transfer.remaining > 0) {
+                return;
+            }
+        }
+        removeHead().action.accept((T) this);
+        clearWriteInterestIfEmpty();
+    }
+
+    private WriteAndThen<T> removeHead() {
+        writeLock.lock();
+        try {
+            WriteAndThen<T> writeAndThen = writeQueue.remove();
+            queuedBytes -= writeAndThen.length;
+            if (queuedBytes <= writeBufferLowWaterMark) {
+                drained.signalAll();
+            }
+            return writeAndThen;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void clearWriteInterestIfEmpty() {
+        writeLock.lock();
+        try {
+            if (writeQueue.isEmpty() && !outputClosed) {
+                interestOpsAnd(~SelectionKey.OP_WRITE);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void discardQueued() {
+        WriteAndThen<T> writeAndThen;
+        while ((writeAndThen = writeQueue.poll()) != null) {
+            writeAndThen.discard(this);
+        }
+        queuedBytes = 0;
     }
 
     private static class WriteAndThen<T> {
         final ByteBuffer buffer;
+        final FileChannel src;
+        final long length;
         final Consumer<T> action;
+        long position;
+        long remaining;
 
         private WriteAndThen(ByteBuffer buffer, Consumer<T> action) {
             this.buffer = buffer;
+            this.src = null;
+            this.length = buffer.remaining();
             this.action = action;
         }
+
+        private WriteAndThen(FileChannel src, long position, long count, Consumer<T> action) {
+            this.buffer = null;
+            this.src = src;
+            this.length = count;
+            this.action = action;
+            this.position = position;
+            this.remaining = count;
+        }
+
+        void discard(TCPConnection<?> conn) {
+            if (buffer != null) {
+                ByteBufferPool.free(buffer);
+            } else {
+                try {
+                    src.close();
+                } catch (IOException e) {
+                    LOG.warn("{}: failed to close file source", conn, e);
+                }
+            }
+        }
     }
 }
@@ -1,16 +1,19 @@
 package org.dcm4che6.net;
 
 import org.dcm4che6.conf.model.Connection;
+import org.dcm4che6.conf.model.Device;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 /**
@@ -21,11 +24,83 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
     static final Logger LOG = LoggerFactory.getLogger(TCPConnector.class);
     private final BiFunction<TCPConnector, Connection, T> connFactory;
     private final Selector selector;
+    private final EventLoop[] eventLoops;
+    private final AtomicInteger nextEventLoop = new AtomicInteger();
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final AdmissionControl admissionControl;
+    private final TimingWheel timingWheel;
+    private final NegotiationCache negotiationCache = new NegotiationCache();
+    private final ConnectorMetrics metrics = new ConnectorMetrics();
+    private volatile boolean closed;
 
     public TCPConnector(BiFunction<TCPConnector, Connection, T> connFactory)
             throws IOException {
+        this(connFactory, 0);
+    }
+
+    public TCPConnector(BiFunction<TCPConnector, Connection, T> connFactory, int eventLoopGroupSize)
+            throws IOException {
+        this(connFactory, eventLoopGroupSize, WorkerExecutors.newCachedThreadPool(), true);
+    }
+
+    public TCPConnector(BiFunction<TCPConnector, Connection, T> connFactory, Executor executor)
+            throws IOException {
+        this(connFactory, 0, executor);
+    }
+
+    /**
+     * Creates a connector with the number of I/O event loops configured by
+     * {@link Device#getEventLoopGroupSize()}, 0 if not configured.
+     */
+    public TCPConnector(BiFunction<TCPConnector, Connection, T> connFactory, Device device, Executor executor)
+            throws IOException {
+        this(connFactory, device.getEventLoopGroupSize().orElse(0), executor);
+    }
+
+    public TCPConnector(BiFunction<TCPConnector, Connection, T> connFactory, int eventLoopGroupSize,
+            Executor executor) throws IOException {
+        this(connFactory, eventLoopGroupSize, executor, false);
+    }
+
+    private TCPConnector(BiFunction<TCPConnector, Connection, T> connFactory, int eventLoopGroupSize,
+            Executor executor, boolean ownsExecutor) throws IOException {
+        if (eventLoopGroupSize < 0)
+            throw new IllegalArgumentException("eventLoopGroupSize: " + eventLoopGroupSize);
         this.connFactory = Objects.requireNonNull(connFactory);
+        this.executor = Objects.requireNonNull(executor);
+        this.ownsExecutor = ownsExecutor;
+        this.admissionControl = new AdmissionControl(executor);
+        this.timingWheel = new TimingWheel(executor);
         selector = Selector.open();
+        eventLoops = new EventLoop[eventLoopGroupSize];
+        for (int i = 0; i < eventLoopGroupSize; i++) {
+            eventLoops[i] = new EventLoop(Selector.open());
+        }
+    }
+
+    public int getEventLoopGroupSize() {
+        return eventLoops.length;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public AdmissionControl getAdmissionControl() {
+        return admissionControl;
+    }
+
+    public ConnectorMetrics getMetrics() {
+        return metrics;
+    }
+
+    TimingWheel timingWheel() {
+        return timingWheel;
+    }
+
+    NegotiationCache negotiationCache() {
+        return negotiationCache;
     }
 
     public Selector wakeup() {
@@ -45,11 +120,14 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
         configure(sc, local);
         SocketAddress addr = addr(remote);
         T conn = connFactory.apply(this, local);
-        SelectionKey key = sc.register(selector, SelectionKey.OP_CONNECT, conn);
+        SelectionKey key = register(sc, 0, conn);
         if (conn.connect(key, addr)) {
-            onConnectable(key);
+            conn.connected();
+            key.interestOpsOr(SelectionKey.OP_READ);
+        } else {
+            key.interestOpsOr(SelectionKey.OP_CONNECT);
         }
-        wakeup();
+        key.selector().wakeup();
         return conn.connected;
     }
 
@@ -57,14 +135,31 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
         ssc.configureBlocking(false);
         SocketAddress local = serverBind(conn);
         LOG.info("Start listening on {}", local);
-        ssc.bind(local, 0);
+        int receiveBufferSize = conn.getTCPReceiveBufferSize().orElse(0);
+        if (receiveBufferSize > 0) {
+            ssc.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+        }
+        ssc.bind(local, conn.getTCPBacklog().orElse(0));
     }
 
     private void configure(SocketChannel sc, Connection local) throws IOException {
         sc.configureBlocking(false);
+        setSocketOptions(sc, local);
         sc.bind(clientBind(local));
     }
 
+    private static void setSocketOptions(SocketChannel sc, Connection conn) throws IOException {
+        int receiveBufferSize = conn.getTCPReceiveBufferSize().orElse(0);
+        int sendBufferSize = conn.getTCPSendBufferSize().orElse(0);
+        if (receiveBufferSize > 0) {
+            sc.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+        }
+        if (sendBufferSize > 0) {
+            sc.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+        }
+        sc.setOption(StandardSocketOptions.TCP_NODELAY, conn.getTCPNoDelay().orElse(true));
+    }
+
     private static SocketAddress serverBind(Connection conn) {
         return new InetSocketAddress(portOf(conn));
     }
@@ -82,20 +177,102 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
         return new InetSocketAddress(conn.getHostname(), portOf(conn));
     }
 
+    private SelectionKey register(SocketChannel sc, int ops, TCPConnection conn) throws IOException {
+        metrics.connectionsOpened.increment();
+        metrics.openConnections.incrementAndGet();
+        conn.closed.thenRun(metrics.openConnections::decrementAndGet);
+        if (eventLoops.length == 0) {
+            return sc.register(selector, ops, conn);
+        }
+        EventLoop eventLoop = leastLoadedEventLoop();
+        SelectionKey key = sc.register(eventLoop.selector, ops, conn);
+        eventLoop.connections.incrementAndGet();
+        conn.closed.thenRun(eventLoop.connections::decrementAndGet);
+        return key;
+    }
+
+    private EventLoop leastLoadedEventLoop() {
+        int n = eventLoops.length;
+        int start = Math.floorMod(nextEventLoop.getAndIncrement(), n);
+        EventLoop eventLoop = eventLoops[start];
+        for (int i = 1; i < n; i++) {
+            EventLoop other = eventLoops[(start + i) % n];
+            if (other.connections.get() < eventLoop.connections.get()) {
+                eventLoop = other;
+            }
+        }
+        return eventLoop;
+    }
+
+    /**
+     * Terminates {@link #run()}, which closes the selectors on exit, and shuts down the worker executor, if it was
+     * created by the connector. Open connections are not closed.
+     */
+    public void close() {
+        closed = true;
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.selector.wakeup();
+        }
+        selector.wakeup();
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
     public void run() {
+        Thread[] threads = new Thread[eventLoops.length];
+        for (int i = 0; i < threads.length; i++) {
+            Selector ioSelector = eventLoops[i].selector;
+            threads[i] = new Thread(() -> select(ioSelector), "dicom-io-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        try {
+            select(selector);
+        } finally {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private void select(Selector selector) {
+        boolean tick = selector == this.selector;
+        ByteBufferPool.useMagazines();
         try {
-            while (!Thread.currentThread().isInterrupted()) {
+            while (!closed && !Thread.currentThread().isInterrupted()) {
                 if (selector.selectNow(this::onReady) == 0) {
                     LOG.trace("Awaiting ready channels");
-                    selector.select(this::onReady);
+                    if (tick) {
+                        selector.select(this::onReady, TimingWheel.TICK_MILLIS);
+                    } else {
+                        selector.select(this::onReady);
+                    }
+                }
+                if (tick) {
+                    timingWheel.advance();
                 }
             }
         } catch (Throwable e) {
             e.printStackTrace();
+        } finally {
+            ByteBufferPool.releaseMagazines();
+            if (closed) {
+                closeSelector(selector);
+            }
+        }
+    }
+
+    private static void closeSelector(Selector selector) {
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close selector", e);
         }
     }
 
     private void onReady(SelectionKey key) {
+        long start = System.nanoTime();
         try {
             int readyOps = key.readyOps();
             if (LOG.isTraceEnabled()) {
@@ -113,8 +290,12 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
             if ((readyOps & SelectionKey.OP_READ) != 0) {
                 onReadable(key);
             }
+        } catch (ClosedChannelException | CancelledKeyException e) {
+            LOG.debug("{}: closed concurrently - {}", key.attachment(), e.toString());
         } catch (Throwable e) {
             e.printStackTrace();
+        } finally {
+            metrics.selectorDispatchTime.record((System.nanoTime() - start) / 1000);
         }
     }
 
@@ -123,14 +304,30 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
         SocketChannel sc = ssc.accept();
         if (sc == null) return;
         sc.configureBlocking(false);
+        setSocketOptions(sc, (Connection) skey.attachment());
         TCPConnection conn = connFactory.apply(this, (Connection) skey.attachment());
-        conn.accepted(sc.register(selector, SelectionKey.OP_READ, conn));
+        SelectionKey key = register(sc, 0, conn);
+        conn.accepted(key);
+        key.interestOps(SelectionKey.OP_READ);
+        key.selector().wakeup();
     }
 
     private void onConnectable(SelectionKey key) throws IOException {
-        if ((key.interestOps() & SelectionKey.OP_CONNECT) != 0
-                && ((SocketChannel) key.channel()).finishConnect()) {
-            ((TCPConnection) key.attachment()).connected();
+        if ((key.interestOps() & SelectionKey.OP_CONNECT) == 0) {
+            return;
+        }
+        TCPConnection conn = (TCPConnection) key.attachment();
+        boolean connected;
+        try {
+            connected = ((SocketChannel) key.channel()).finishConnect();
+        } catch (IOException e) {
+            LOG.info("{}: failed to connect - {}", conn, e.toString());
+            conn.connected.completeExceptionally(e);
+            conn.close();
+            return;
+        }
+        if (connected) {
+            conn.connected();
             key.interestOpsAnd(~SelectionKey.OP_CONNECT);
             key.interestOpsOr(SelectionKey.OP_READ);
         }
@@ -141,13 +338,27 @@ public class TCPConnector<T extends TCPConnection> implements Runnable {
         boolean more = true;
         while (more && (key.interestOps() & SelectionKey.OP_READ) != 0) {
             ByteBuffer buffer = ByteBufferPool.allocate();
-            if (((SocketChannel) key.channel()).read(buffer) <= 0) {
-                tcpConnection.interestOpsAnd(~SelectionKey.OP_READ);
+            int read = ((SocketChannel) key.channel()).read(buffer);
+            if (read <= 0) {
+                if (read < 0) {
+                    tcpConnection.interestOpsAnd(~SelectionKey.OP_READ);
+                    tcpConnection.onEndOfStream();
+                }
                 ByteBufferPool.free(buffer);
                 return;
             }
             more = !buffer.hasRemaining();
+            tcpConnection.metrics.onBytesRead(read);
             tcpConnection.onNext(buffer.flip());
         }
     }
+
+    private static class EventLoop {
+        final Selector selector;
+        final AtomicInteger connections = new AtomicInteger();
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+    }
 }
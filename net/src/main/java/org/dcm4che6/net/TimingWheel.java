@@ -0,0 +1,175 @@
+package org.dcm4che6.net;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel driving the timeouts of the connections of one {@link TCPConnector}.
+ * <p>
+ * Timeouts are hashed by their deadline into the buckets of the wheel, which are expired by the selector thread of
+ * the connector in ticks of {@link #TICK_MILLIS}. Scheduling and cancelling a timeout only enqueues it, so it costs
+ * O(1) and does not create a scheduler task. Tasks of expired timeouts are run by the executor of the connector.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class TimingWheel {
+    static final Logger LOG = LoggerFactory.getLogger(TimingWheel.class);
+    static final long TICK_MILLIS = 100L;
+    private static final int WHEEL_SIZE = 512;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+
+    private final Executor executor;
+    private final LongSupplier nanoTime;
+    private final long startNanos;
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private long tick;
+
+    TimingWheel(Executor executor) {
+        this(executor, System::nanoTime);
+    }
+
+    TimingWheel(Executor executor, LongSupplier nanoTime) {
+        this.executor = executor;
+        this.nanoTime = nanoTime;
+        this.startNanos = nanoTime.getAsLong();
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Schedules {@code task} to run after {@code delay} milliseconds. May be called by any thread.
+     */
+    Timeout schedule(long delay, Runnable task) {
+        long deadline = nanoTime.getAsLong() - startNanos + TimeUnit.MILLISECONDS.toNanos(delay);
+        Timeout timeout = new Timeout(task, (deadline + TICK_NANOS - 1) / TICK_NANOS);
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Expires the buckets of all ticks passed since the last call. Only called by the selector thread.
+     */
+    void advance() {
+        long currentTick = (nanoTime.getAsLong() - startNanos) / TICK_NANOS;
+        transferScheduled();
+        removeCancelled();
+        while (tick <= currentTick) {
+            wheel[(int) (tick & (WHEEL_SIZE - 1))].expire(tick);
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() == Timeout.INIT) {
+                wheel[(int) (Math.max(timeout.deadlineTick, tick) & (WHEEL_SIZE - 1))].add(timeout);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Failed to run expired timeout task", e);
+        }
+    }
+
+    final class Timeout {
+        static final int INIT = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+        final Runnable task;
+        final long deadlineTick;
+        final AtomicInteger state = new AtomicInteger();
+        Bucket bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels the timeout. Returns {@code false} if it already expired or was cancelled.
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            cancelled.offer(this);
+            return true;
+        }
+    }
+
+    private final class Bucket {
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        void expire(long tick) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.deadlineTick <= tick) {
+                    remove(timeout);
+                    if (timeout.state.compareAndSet(Timeout.INIT, Timeout.EXPIRED)) {
+                        run(timeout.task);
+                    }
+                } else if (timeout.state.get() == Timeout.CANCELLED) {
+                    remove(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.dcm4che6.net;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for executors running the blocking reader and DIMSE handler loop of associations.
+ * <p>
+ * Replaced by a version supporting virtual threads on JDK 21+.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class WorkerExecutors {
+    static final Logger LOG = LoggerFactory.getLogger(WorkerExecutors.class);
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private WorkerExecutors() {}
+
+    public static ExecutorService newCachedThreadPool() {
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "dicom-worker-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return false;
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        LOG.warn("Virtual threads not supported by Java {} - use cached thread pool",
+                Runtime.version().feature());
+        return newCachedThreadPool();
+    }
+}
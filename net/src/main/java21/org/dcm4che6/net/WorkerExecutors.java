@@ -0,0 +1,33 @@
+package org.dcm4che6.net;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for executors running the blocking reader and DIMSE handler loop of associations.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+public class WorkerExecutors {
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private WorkerExecutors() {}
+
+    public static ExecutorService newCachedThreadPool() {
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "dicom-worker-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return true;
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dicom-worker-vt-", 0).factory());
+    }
+}
@@ -56,6 +56,28 @@ class AAssociateTest {
         assertArrayEquals(USER_IDENTITY_SERVER_RESPONSE, aaac2.getUserIdentityServerResponse());
     }
 
+    @Test
+    void maxPresentationContexts() {
+        RQ aarq = new RQ();
+        for (int i = 0; i < 128; i++) {
+            assertEquals(Byte.valueOf((byte) (i * 2 + 1)),
+                    aarq.findOrAddPresentationContext("1.2.40.0.13.1.1.99." + i, UID.ImplicitVRLittleEndian));
+        }
+        assertEquals(Byte.valueOf((byte) 255), aarq.findOrAddPresentationContext("1.2.40.0.13.1.1.99.127",
+                UID.ImplicitVRLittleEndian));
+        assertThrows(IllegalStateException.class,
+                () -> aarq.findOrAddPresentationContext(UID.VerificationSOPClass, UID.ImplicitVRLittleEndian));
+        ByteBuffer buffer = ByteBuffer.allocate(aarq.pduLength());
+        aarq.writeTo(buffer);
+        buffer.flip();
+        RQ aarq2 = new RQ(buffer, buffer.remaining());
+        StringBuilder pcids = new StringBuilder();
+        aarq2.forEachPresentationContext((pcid, pc) -> pcids.append(pcid & 0xff).append(','));
+        assertTrue(pcids.toString().startsWith("1,3,5,"));
+        assertTrue(pcids.toString().endsWith(",253,255,"));
+        assertEquals("1.2.40.0.13.1.1.99.64", aarq2.getPresentationContext((byte) 129).abstractSyntax());
+    }
+
     <T extends AAssociate> T aaxx(T aaxx, Function<ByteBuffer, T> parse) {
         aaxx.setCalledAETitle("STORESCP");
         aaxx.setCallingAETitle("STORESCU");
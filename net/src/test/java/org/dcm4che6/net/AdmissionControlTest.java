@@ -0,0 +1,112 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.Device;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class AdmissionControlTest {
+
+    @Test
+    void limitPerCallingAE() throws AAssociateRJ {
+        AdmissionControl admissionControl = new AdmissionControl(Runnable::run)
+                .setLimitOpenAssociationsPerCallingAE(2);
+        admissionControl.admit(null, "SCU1");
+        admissionControl.admit(null, "SCU1");
+        AAssociateRJ rj = assertThrows(AAssociateRJ.class, () -> admissionControl.admit(null, "SCU1"));
+        assertEquals(Association.local_limit_exceeded, rj.resultSourceReason);
+        assertEquals(1, admissionControl.getNumberOfRejectedLimitExceeded());
+        admissionControl.admit(null, "SCU2");
+        assertEquals(3, admissionControl.getNumberOfOpenAssociations());
+        assertEquals(2, admissionControl.getNumberOfOpenAssociations("SCU1"));
+        admissionControl.release(null, "SCU1");
+        admissionControl.admit(null, "SCU1");
+        assertEquals(2, admissionControl.getNumberOfOpenAssociations("SCU1"));
+    }
+
+    @Test
+    void limitPerDevice() throws AAssociateRJ {
+        Device device = new Device().setDeviceName("storescp").setLimitOpenAssociations(2);
+        AdmissionControl admissionControl = new AdmissionControl(Runnable::run)
+                .setLimitOpenAssociationsPerCallingAE(1);
+        admissionControl.admit(device, "SCU1");
+        AAssociateRJ rj = assertThrows(AAssociateRJ.class, () -> admissionControl.admit(device, "SCU1"));
+        assertEquals(Association.local_limit_exceeded, rj.resultSourceReason);
+        assertEquals(1, admissionControl.getNumberOfOpenAssociations(device));
+        admissionControl.admit(device, "SCU2");
+        rj = assertThrows(AAssociateRJ.class, () -> admissionControl.admit(device, "SCU3"));
+        assertEquals(Association.local_limit_exceeded, rj.resultSourceReason);
+        assertEquals(0, admissionControl.getNumberOfOpenAssociations("SCU3"));
+        assertEquals(2, admissionControl.getNumberOfRejectedLimitExceeded());
+        assertEquals(2, admissionControl.getNumberOfOpenAssociations(device));
+        admissionControl.release(device, "SCU1");
+        admissionControl.admit(device, "SCU3");
+        assertEquals(2, admissionControl.getNumberOfOpenAssociations());
+    }
+
+    @Test
+    void removeCountersOnRelease() throws AAssociateRJ {
+        Device device = new Device().setDeviceName("storescp");
+        AdmissionControl admissionControl = new AdmissionControl(Runnable::run);
+        for (int i = 0; i < 100; i++) {
+            admissionControl.admit(device, "SCU" + i);
+        }
+        assertEquals(100, admissionControl.getNumberOfCallingAEs());
+        for (int i = 0; i < 100; i++) {
+            admissionControl.release(device, "SCU" + i);
+        }
+        assertEquals(0, admissionControl.getNumberOfCallingAEs());
+        assertEquals(0, admissionControl.getNumberOfOpenAssociations(device));
+        assertEquals(0, admissionControl.getNumberOfOpenAssociations());
+    }
+
+    @Test
+    void rejectOnHeapUsage() {
+        AdmissionControl admissionControl = new AdmissionControl(Runnable::run).setMaxHeapUsage(1e-9);
+        AAssociateRJ rj = assertThrows(AAssociateRJ.class, () -> admissionControl.admit(null, "SCU1"));
+        assertEquals(Association.temporary_congestion, rj.resultSourceReason);
+        assertEquals(1, admissionControl.getNumberOfRejectedCongestion());
+        assertEquals(0, admissionControl.getNumberOfCallingAEs());
+    }
+
+    @Test
+    void rejectOnWorkerTasks() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            AdmissionControl admissionControl = new AdmissionControl(executor).setMaxWorkerTasks(2);
+            admissionControl.admit(null, "SCU1");
+            for (int i = 0; i < 2; i++) {
+                executor.execute(() -> {
+                    running.countDown();
+                    try {
+                        done.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            running.await();
+            admissionControl.admit(null, "SCU2");
+            executor.execute(() -> {});
+            AAssociateRJ rj = assertThrows(AAssociateRJ.class, () -> admissionControl.admit(null, "SCU3"));
+            assertEquals(Association.temporary_congestion, rj.resultSourceReason);
+            assertEquals(1, admissionControl.getNumberOfRejectedCongestion());
+            assertEquals(0, admissionControl.getNumberOfRejectedLimitExceeded());
+        } finally {
+            done.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.dcm4che6.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class AssociationPoolTest {
+
+    @Test
+    void reuseIdleAssociation() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            AssociationPool pool = loopback.pool();
+            Association as = pool.lease(loopback.remote, loopback.rq()).get(10, TimeUnit.SECONDS);
+            as.cecho().get(10, TimeUnit.SECONDS);
+            assertEquals(1, pool.getNumberOfLeasedAssociations());
+            pool.release(as);
+            assertEquals(0, pool.getNumberOfLeasedAssociations());
+            assertEquals(1, pool.getNumberOfIdleAssociations());
+            assertSame(as, pool.lease(loopback.remote, loopback.rq()).get(10, TimeUnit.SECONDS));
+            assertEquals(0, pool.getNumberOfIdleAssociations());
+            as.cecho().get(10, TimeUnit.SECONDS);
+            pool.release(as);
+            pool.close();
+        }
+    }
+
+    @Test
+    void blockOnMaxAssociationsPerDestination() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            AssociationPool pool = loopback.pool().setMaxAssociationsPerDestination(1);
+            Association as = pool.lease(loopback.remote, loopback.rq()).get(10, TimeUnit.SECONDS);
+            CompletableFuture<Association> waiting = pool.lease(loopback.remote, loopback.rq());
+            assertFalse(waiting.isDone());
+            pool.release(as);
+            assertSame(as, waiting.get(10, TimeUnit.SECONDS));
+            assertEquals(1, pool.getNumberOfLeasedAssociations());
+            assertEquals(0, pool.getNumberOfIdleAssociations());
+            pool.release(as);
+            pool.close();
+        }
+    }
+
+    @Test
+    void evictIdleAssociation() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            AssociationPool pool = loopback.pool().setIdleTimeout(200);
+            Association as = pool.lease(loopback.remote, loopback.rq()).get(10, TimeUnit.SECONDS);
+            pool.release(as);
+            assertEquals(1, pool.getNumberOfIdleAssociations());
+            as.onClose().get(10, TimeUnit.SECONDS);
+            assertEquals(0, pool.getNumberOfIdleAssociations());
+            Association other = pool.lease(loopback.remote, loopback.rq()).get(10, TimeUnit.SECONDS);
+            assertNotSame(as, other);
+            pool.release(other);
+            pool.close();
+        }
+    }
+
+    @Test
+    void close() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            AssociationPool pool = loopback.pool().setMaxAssociationsPerDestination(1);
+            AAssociate.RQ otherRQ = loopback.rq();
+            otherRQ.setCallingAETitle("OTHER");
+            Association idle = pool.lease(loopback.remote, otherRQ).get(10, TimeUnit.SECONDS);
+            pool.release(idle);
+            Association leased = pool.lease(loopback.remote, loopback.rq()).get(10, TimeUnit.SECONDS);
+            CompletableFuture<Association> waiting = pool.lease(loopback.remote, loopback.rq());
+            pool.close();
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> waiting.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            idle.onClose().get(10, TimeUnit.SECONDS);
+            assertEquals(0, pool.getNumberOfIdleAssociations());
+            assertTrue(pool.lease(loopback.remote, loopback.rq()).isCompletedExceptionally());
+            assertTrue(leased.isReadyForDataTransfer());
+            pool.release(leased);
+            leased.onClose().get(10, TimeUnit.SECONDS);
+            assertEquals(0, pool.getNumberOfIdleAssociations());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.Connection;
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.data.Tag;
+import org.dcm4che6.data.UID;
+import org.dcm4che6.data.VR;
+import org.dcm4che6.io.DicomOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class AssociationTest {
+    private static final int MAX_PDU_LENGTH = 0x2000;
+    private static final int FILE_LENGTH = 0x400000;
+
+    @Test
+    void cstoreFileRegion() throws Exception {
+        Path file = createFile();
+        try (Loopback loopback = new Loopback()) {
+            CompletableFuture<byte[]> received = new CompletableFuture<>();
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) -> {
+                received.complete(dataStream.readAllBytes());
+                as.writeRSP(pcid, dimse, commandSet, Status.Success);
+            });
+            Association as = loopback.open(new Connection().setMaxPDULengthSend(MAX_PDU_LENGTH), loopback.rq())
+                    .get(10, TimeUnit.SECONDS);
+            int position = 1000;
+            int length = FILE_LENGTH - 2000;
+            TrackingFileDataWriter dataWriter = new TrackingFileDataWriter(file, position, length);
+            long pdusWritten = as.getMetrics().getPDUsWritten();
+            DimseRSP rsp = as.cstore(UID.CTImageStorage, "1.2.3", dataWriter, UID.ImplicitVRLittleEndian)
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(Status.Success, rsp.command.getInt(Tag.Status).getAsInt());
+            int maxPDVLength = MAX_PDU_LENGTH - 6;
+            assertEquals(1 + (length + maxPDVLength - 1) / maxPDVLength,
+                    as.getMetrics().getPDUsWritten() - pdusWritten);
+            byte[] content = Files.readAllBytes(file);
+            assertArrayEquals(Arrays.copyOfRange(content, position, position + length),
+                    received.get(10, TimeUnit.SECONDS));
+            as.release().get(10, TimeUnit.SECONDS);
+            assertFalse(dataWriter.channel.isOpen());
+            assertEquals(0, as.getQueuedBytes());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void closeFileOnAbortDuringTransfer() throws Exception {
+        Path file = createFile();
+        try (Loopback loopback = new Loopback()) {
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) -> {
+                dataStream.readNBytes(MAX_PDU_LENGTH);
+                as.abort();
+            });
+            Association as = loopback.open(new Connection().setMaxPDULengthSend(MAX_PDU_LENGTH), loopback.rq())
+                    .get(10, TimeUnit.SECONDS);
+            TrackingFileDataWriter dataWriter = new TrackingFileDataWriter(file, 0, FILE_LENGTH);
+            assertThrows(Exception.class, () -> as.cstore(UID.CTImageStorage, "1.2.3", dataWriter,
+                    UID.ImplicitVRLittleEndian).get(10, TimeUnit.SECONDS));
+            as.onClose().get(10, TimeUnit.SECONDS);
+            awaitDiscarded(as, dataWriter.channel);
+            assertFalse(dataWriter.channel.isOpen());
+            assertEquals(0, as.getQueuedBytes());
+            assertThrows(IOException.class, () -> as.cecho());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void storeDataSetOfSeveralPDUs() throws Exception {
+        byte[] payload = new byte[10 * MAX_PDU_LENGTH + 123];
+        new Random(payload.length).nextBytes(payload);
+        DicomObject fmi = DicomObject.createFileMetaInformation(
+                UID.CTImageStorage, "1.2.3", UID.ImplicitVRLittleEndian);
+        ByteArrayOutputStream fmiBytes = new ByteArrayOutputStream();
+        new DicomOutputStream(fmiBytes).writeFileMetaInformation(fmi);
+        Path file = Files.createTempFile("AssociationTest", ".dcm");
+        try (Loopback loopback = new Loopback()) {
+            CompletableFuture<Long> written = new CompletableFuture<>();
+            CompletableFuture<Long> pdusRead = new CompletableFuture<>();
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) -> {
+                long pdus = as.getMetrics().getPDUsRead();
+                written.complete(StorageSink.write(file, fmi, dataStream));
+                pdusRead.complete(as.getMetrics().getPDUsRead() - pdus);
+                as.writeRSP(pcid, dimse, commandSet, Status.Success);
+            });
+            Association as = loopback.open(new Connection().setMaxPDULengthSend(MAX_PDU_LENGTH), loopback.rq())
+                    .get(10, TimeUnit.SECONDS);
+            as.cstore(UID.CTImageStorage, "1.2.3", (out, tsuid) -> out.write(payload), UID.ImplicitVRLittleEndian)
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(fmiBytes.size() + payload.length, written.get(10, TimeUnit.SECONDS).longValue());
+            assertTrue(pdusRead.get(10, TimeUnit.SECONDS) >= payload.length / MAX_PDU_LENGTH);
+            byte[] content = Files.readAllBytes(file);
+            assertArrayEquals(fmiBytes.toByteArray(), Arrays.copyOf(content, fmiBytes.size()));
+            assertArrayEquals(payload, Arrays.copyOfRange(content, fmiBytes.size(), content.length));
+            as.release().get(10, TimeUnit.SECONDS);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void limitAutotunedPDULengthToPooledBuffers() throws Exception {
+        Path file = createFile();
+        try (Loopback loopback = new Loopback()) {
+            loopback.remote.setMaxPDULengthReceive(0);
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) -> {
+                as.writeRSP(pcid, dimse, commandSet, Status.Success);
+            });
+            Connection local = new Connection()
+                    .setMaxPDULengthSendAutotune(true)
+                    .setTCPSendBufferSize(2 * FILE_LENGTH);
+            Association as = loopback.open(local, loopback.rq()).get(10, TimeUnit.SECONDS);
+            long pdusWritten = as.getMetrics().getPDUsWritten();
+            as.cstore(UID.CTImageStorage, "1.2.3", new FileDataWriter(file, 0, FILE_LENGTH),
+                    UID.ImplicitVRLittleEndian).get(10, TimeUnit.SECONDS);
+            int maxPDVLength = ByteBufferPool.MAX_PDU_LENGTH - 6;
+            assertTrue(as.getMetrics().getPDUsWritten() - pdusWritten
+                    >= 1 + (FILE_LENGTH + maxPDVLength - 1) / maxPDVLength);
+            as.release().get(10, TimeUnit.SECONDS);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void pendingResponseKeepsOperationOutstanding() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            CountDownLatch complete = new CountDownLatch(1);
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) -> {
+                if (commandSet.getInt(Tag.MessageID).getAsInt() == 1) {
+                    as.writeRSP(pcid, dimse, commandSet, Status.Pending);
+                    writeRSPAfter(complete, as, pcid, dimse, commandSet);
+                } else {
+                    as.writeRSP(pcid, dimse, withMessageID(commandSet, 999), Status.Success);
+                    as.writeRSP(pcid, dimse, commandSet, Status.Success);
+                }
+            });
+            AAssociate.RQ rq = loopback.rq();
+            rq.setAsyncOpsWindow(2, 1);
+            Association as = loopback.open(new Connection(), rq).get(10, TimeUnit.SECONDS);
+            CompletableFuture<DimseRSP> pending = as.cecho(UID.CTImageStorage);
+            assertEquals(Status.Success, statusOf(as.cecho(UID.CTImageStorage).get(10, TimeUnit.SECONDS)));
+            assertFalse(pending.isDone());
+            assertEquals(1, as.getNumberOfOutstandingRSPs());
+            assertEquals(1, loopback.scu.getMetrics().getOutstandingOperations());
+            assertTrue(as.isReadyForDataTransfer());
+            complete.countDown();
+            assertEquals(Status.Success, statusOf(pending.get(10, TimeUnit.SECONDS)));
+            assertEquals(0, as.getNumberOfOutstandingRSPs());
+            assertEquals(0, loopback.scu.getMetrics().getOutstandingOperations());
+            as.release().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void pendingResponsesRestartResponseTimeout() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) ->
+                    CompletableFuture.runAsync(() -> {
+                        try {
+                            for (int i = 0; i < 8; i++) {
+                                Thread.sleep(100);
+                                as.writeRSP(pcid, dimse, commandSet, Status.Pending);
+                            }
+                            as.writeRSP(pcid, dimse, commandSet, Status.Success);
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                        }
+                    }));
+            Association as = loopback.open(new Connection().setResponseTimeout(500), loopback.rq())
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(Status.Success, statusOf(as.cecho(UID.CTImageStorage).get(10, TimeUnit.SECONDS)));
+            as.release().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void whenInvokableCompletesOnFinalResponse() throws Exception {
+        try (Loopback loopback = new Loopback()) {
+            CountDownLatch complete = new CountDownLatch(1);
+            loopback.serviceRegistry.setDefaultRQHandler((as, pcid, dimse, commandSet, dataStream) -> {
+                as.writeRSP(pcid, dimse, commandSet, Status.Pending);
+                writeRSPAfter(complete, as, pcid, dimse, commandSet);
+            });
+            Association as = loopback.open(new Connection(), loopback.rq()).get(10, TimeUnit.SECONDS);
+            CompletableFuture<DimseRSP> rsp = as.cecho(UID.CTImageStorage);
+            CompletableFuture<Association> invokable = as.whenInvokable();
+            assertFalse(invokable.isDone());
+            complete.countDown();
+            assertSame(as, invokable.get(10, TimeUnit.SECONDS));
+            assertEquals(Status.Success, statusOf(rsp.get(10, TimeUnit.SECONDS)));
+            assertTrue(as.whenInvokable().isDone());
+            as.release().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void writeRSPAfter(CountDownLatch latch, Association as, Byte pcid, Dimse dimse,
+            DicomObject commandSet) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                latch.await();
+                as.writeRSP(pcid, dimse, commandSet, Status.Success);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private static DicomObject withMessageID(DicomObject commandSet, int messageID) {
+        DicomObject other = DicomObject.newDicomObject();
+        other.setString(Tag.AffectedSOPClassUID, VR.UI, commandSet.getString(Tag.AffectedSOPClassUID).get());
+        other.setInt(Tag.MessageID, VR.US, messageID);
+        return other;
+    }
+
+    private static int statusOf(DimseRSP rsp) {
+        return rsp.command.getInt(Tag.Status).getAsInt();
+    }
+
+    private static Path createFile() throws IOException {
+        byte[] content = new byte[FILE_LENGTH];
+        new Random(FILE_LENGTH).nextBytes(content);
+        return Files.write(Files.createTempFile("AssociationTest", ".dcm"), content);
+    }
+
+    /**
+     * Waits for the selector thread, which discards the write queue after a transfer which was interrupted by closing
+     * the connection.
+     */
+    private static void awaitDiscarded(Association as, FileChannel channel) throws InterruptedException {
+        for (int i = 0; i < 100 && (channel.isOpen() || as.getQueuedBytes() > 0); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static class TrackingFileDataWriter extends FileDataWriter {
+        volatile FileChannel channel;
+
+        TrackingFileDataWriter(Path path, long position, long length) {
+            super(path, position, length);
+        }
+
+        @Override
+        FileChannel open() throws IOException {
+            return channel = super.open();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.dcm4che6.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class ByteBufferPoolTest {
+
+    @Test
+    void allocate() {
+        ByteBuffer buffer = ByteBufferPool.allocate(100);
+        assertTrue(buffer.isDirect());
+        assertEquals(0x2000, buffer.capacity());
+        assertEquals(100, buffer.limit());
+        ByteBufferPool.free(buffer);
+        long hits = ByteBufferPool.getHits();
+        assertSame(buffer, ByteBufferPool.allocate());
+        assertEquals(hits + 1, ByteBufferPool.getHits());
+        assertEquals(0x2000, buffer.limit());
+        ByteBufferPool.free(buffer);
+    }
+
+    @Test
+    void allocateSizeClass() {
+        assertEquals(0x4000, ByteBufferPool.allocate(16384).capacity());
+        assertEquals(0x8000, ByteBufferPool.allocate(16385).capacity());
+        assertEquals(0x100000, ByteBufferPool.allocate(0x100000).capacity());
+    }
+
+    @Test
+    void allocateMaxPDU() {
+        long unpooled = ByteBufferPool.getUnpooled();
+        ByteBuffer buffer = ByteBufferPool.allocate(0x100000 + 6);
+        assertTrue(buffer.isDirect());
+        assertEquals(0x100006, buffer.capacity());
+        assertEquals(0x100006, ByteBufferPool.allocate(0x100001).capacity());
+        assertEquals(unpooled, ByteBufferPool.getUnpooled());
+        ByteBufferPool.free(buffer);
+        long hits = ByteBufferPool.getHits();
+        assertSame(buffer, ByteBufferPool.allocate(0x100000 + 6));
+        assertEquals(hits + 1, ByteBufferPool.getHits());
+        ByteBufferPool.free(buffer);
+    }
+
+    @Test
+    void allocateUnpooled() {
+        long unpooled = ByteBufferPool.getUnpooled();
+        ByteBuffer buffer = ByteBufferPool.allocate(0x100007);
+        assertFalse(buffer.isDirect());
+        assertEquals(0x100007, buffer.capacity());
+        assertEquals(unpooled + 1, ByteBufferPool.getUnpooled());
+        ByteBufferPool.free(buffer);
+    }
+
+    @Test
+    void freeByThreadWithoutMagazines() throws InterruptedException {
+        ByteBuffer[] buffer = new ByteBuffer[1];
+        long[] pooledBytes = new long[2];
+        Thread thread = new Thread(() -> {
+            buffer[0] = ByteBufferPool.allocate(0x4000);
+            pooledBytes[0] = ByteBufferPool.getPooledBytes();
+            ByteBufferPool.free(buffer[0]);
+            pooledBytes[1] = ByteBufferPool.getPooledBytes();
+        });
+        thread.start();
+        thread.join();
+        assertEquals(pooledBytes[0] + 0x4000, pooledBytes[1]);
+        assertSame(buffer[0], ByteBufferPool.allocate(0x4000));
+        ByteBufferPool.free(buffer[0]);
+    }
+
+    @Test
+    void releaseMagazines() {
+        ByteBufferPool.useMagazines();
+        ByteBuffer buffer = ByteBufferPool.allocate(0x4000);
+        long pooledBytes = ByteBufferPool.getPooledBytes();
+        ByteBufferPool.free(buffer);
+        assertEquals(pooledBytes, ByteBufferPool.getPooledBytes());
+        ByteBufferPool.releaseMagazines();
+        assertEquals(pooledBytes + 0x4000, ByteBufferPool.getPooledBytes());
+        assertSame(buffer, ByteBufferPool.allocate(0x4000));
+        ByteBufferPool.free(buffer);
+    }
+}
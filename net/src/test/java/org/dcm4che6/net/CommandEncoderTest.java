@@ -0,0 +1,68 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.data.UID;
+import org.dcm4che6.io.DicomOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class CommandEncoderTest {
+    private static final String IUID = "1.2.40.0.13.1.1.99.4711";
+
+    @Test
+    void encodeCEchoRQ() throws IOException {
+        assertEncoded(Dimse.C_ECHO_RQ.mkRQ(1, UID.VerificationSOPClass, null, Dimse.NO_DATASET),
+                Dimse.C_ECHO_RQ, 1, UID.VerificationSOPClass, null, Dimse.NO_DATASET, 0);
+    }
+
+    @Test
+    void encodeCEchoRSP() throws IOException {
+        DicomObject rq = Dimse.C_ECHO_RQ.mkRQ(2, UID.VerificationSOPClass, null, Dimse.NO_DATASET);
+        assertEncoded(Dimse.C_ECHO_RQ.mkRSP(rq),
+                Dimse.C_ECHO_RSP, 2, UID.VerificationSOPClass, null, Dimse.NO_DATASET, Status.Success);
+    }
+
+    @Test
+    void encodeCStoreRQ() throws IOException {
+        assertEncoded(Dimse.C_STORE_RQ.mkRQ(0xffff, UID.CTImageStorage, IUID, Dimse.WITH_DATASET),
+                Dimse.C_STORE_RQ, 0xffff, UID.CTImageStorage, IUID, Dimse.WITH_DATASET, 0);
+    }
+
+    @Test
+    void encodeCStoreRSP() throws IOException {
+        DicomObject rq = Dimse.C_STORE_RQ.mkRQ(3, UID.SecondaryCaptureImageStorage, IUID + '0', Dimse.WITH_DATASET);
+        assertEncoded(Dimse.C_STORE_RQ.mkRSP(rq, Dimse.NO_DATASET, 0xb000),
+                Dimse.C_STORE_RSP, 3, UID.SecondaryCaptureImageStorage, IUID + '0', Dimse.NO_DATASET, 0xb000);
+    }
+
+    @Test
+    void encodeCFindRSPPending() throws IOException {
+        DicomObject rq = Dimse.C_FIND_RQ.mkRQ(4,
+                UID.StudyRootQueryRetrieveInformationModelFIND, null, Dimse.WITH_DATASET);
+        assertEncoded(Dimse.C_FIND_RQ.mkRSP(rq, Dimse.WITH_DATASET, Status.Pending),
+                Dimse.C_FIND_RSP, 4, UID.StudyRootQueryRetrieveInformationModelFIND, null, Dimse.WITH_DATASET,
+                Status.Pending);
+    }
+
+    private static void assertEncoded(DicomObject commandSet, Dimse dimse, int msgID, String cuid, String iuid,
+            int dataSetType, int status) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DicomOutputStream(out).writeCommandSet(commandSet);
+        byte[] expected = out.toByteArray();
+        assertEquals(expected.length, CommandEncoder.length(dimse, cuid, iuid));
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 3).position(3);
+        CommandEncoder.encode(buffer, dimse, msgID, cuid, iuid, dataSetType, status);
+        assertEquals(buffer.capacity(), buffer.position());
+        assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 3, buffer.capacity()));
+    }
+}
@@ -0,0 +1,97 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.data.DicomObject;
+import org.dcm4che6.data.Tag;
+import org.dcm4che6.data.UID;
+import org.dcm4che6.data.VR;
+import org.dcm4che6.io.DicomOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class CommandTest {
+    private static final String IUID = "1.2.40.0.13.1.1.99.4711";
+
+    @Test
+    void decodeCStoreRQ() throws IOException {
+        DicomObject commandSet = Dimse.C_STORE_RQ.mkRQ(7, UID.CTImageStorage, IUID, Dimse.WITH_DATASET);
+        commandSet.setInt(Tag.Priority, VR.US, 0);
+        Command command = Command.decode(encode(commandSet));
+        assertEquals(Dimse.C_STORE_RQ.commandField, command.getCommandField());
+        assertEquals(7, command.getMessageID());
+        assertEquals(-1, command.getStatus());
+        assertTrue(command.hasDataSet());
+        assertEquals(UID.CTImageStorage, command.getSOPClassUID());
+        assertEquals(IUID, command.getSOPInstanceUID());
+        assertSameEncoding(commandSet, command);
+    }
+
+    @Test
+    void decodeCFindRSP() throws IOException {
+        DicomObject rq = Dimse.C_FIND_RQ.mkRQ(0xffff,
+                UID.StudyRootQueryRetrieveInformationModelFIND, null, Dimse.WITH_DATASET);
+        DicomObject commandSet = Dimse.C_FIND_RQ.mkRSP(rq, Dimse.WITH_DATASET, Status.Pending);
+        Command command = Command.decode(encode(commandSet));
+        assertEquals(Dimse.C_FIND_RSP.commandField, command.getCommandField());
+        assertEquals(0xffff, command.getMessageID());
+        assertEquals(Status.Pending, command.getStatus());
+        assertTrue(command.hasDataSet());
+        assertEquals(UID.StudyRootQueryRetrieveInformationModelFIND, command.getSOPClassUID());
+        assertNull(command.getSOPInstanceUID());
+        assertSameEncoding(commandSet, command);
+    }
+
+    @Test
+    void decodeCEchoRSP() throws IOException {
+        DicomObject rq = Dimse.C_ECHO_RQ.mkRQ(1, UID.VerificationSOPClass, null, Dimse.NO_DATASET);
+        DicomObject commandSet = Dimse.C_ECHO_RQ.mkRSP(rq);
+        Command command = Command.decode(encode(commandSet));
+        assertEquals(Status.Success, command.getStatus());
+        assertFalse(command.hasDataSet());
+        assertSameEncoding(commandSet, command);
+    }
+
+    @Test
+    void fallbackOnOtherElements() throws IOException {
+        DicomObject commandSet = Dimse.C_MOVE_RQ.mkRQ(3,
+                UID.StudyRootQueryRetrieveInformationModelFIND, null, Dimse.WITH_DATASET);
+        commandSet.setString(Tag.MoveDestination, VR.AE, "STORESCP");
+        commandSet.setInt(Tag.Priority, VR.US, 2);
+        Command command = Command.decode(encode(commandSet));
+        assertEquals(Dimse.C_MOVE_RQ.commandField, command.getCommandField());
+        assertEquals(3, command.getMessageID());
+        assertEquals(2, command.getPriority());
+        assertTrue(command.hasDataSet());
+        assertEquals("STORESCP", command.toDicomObject().getString(Tag.MoveDestination).orElse(null));
+        assertSameEncoding(commandSet, command);
+    }
+
+    @Test
+    void fallbackOnLeadingRetiredElement() throws IOException {
+        DicomObject commandSet = Dimse.C_ECHO_RQ.mkRQ(5, UID.VerificationSOPClass, null, Dimse.NO_DATASET);
+        commandSet.setInt(Tag.CommandLengthToEnd, VR.UL, 0);
+        Command command = Command.decode(encode(commandSet));
+        assertEquals(Dimse.C_ECHO_RQ.commandField, command.getCommandField());
+        assertEquals(5, command.getMessageID());
+        assertFalse(command.hasDataSet());
+        assertEquals(UID.VerificationSOPClass, command.getSOPClassUID());
+        assertTrue(command.toDicomObject().get(Tag.CommandLengthToEnd).isPresent());
+    }
+
+    private static byte[] encode(DicomObject commandSet) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DicomOutputStream(out).writeCommandSet(commandSet);
+        return out.toByteArray();
+    }
+
+    private static void assertSameEncoding(DicomObject expected, Command command) throws IOException {
+        assertArrayEquals(encode(expected), encode(command.toDicomObject()));
+    }
+}
@@ -0,0 +1,79 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.ApplicationEntity;
+import org.dcm4che6.conf.model.Connection;
+import org.dcm4che6.conf.model.Device;
+import org.dcm4che6.conf.model.TransferCapability;
+import org.dcm4che6.data.UID;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SCU and SCP connector connected over the loopback interface. The SCP accepts all SOP Classes in Implicit VR Little
+ * Endian and dispatches requests to {@link #serviceRegistry}.
+ *
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class Loopback implements AutoCloseable {
+    final DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+    final TCPConnector<Association> scp;
+    final TCPConnector<Association> scu;
+    final Connection remote;
+    final ServerSocketChannel ssc;
+
+    Loopback() throws IOException {
+        scp = new TCPConnector<>((connector, role) -> new Association(connector, role, serviceRegistry));
+        startDaemon(scp);
+        scu = new TCPConnector<>((connector, role) -> new Association(connector, role, serviceRegistry));
+        startDaemon(scu);
+        remote = new Connection().setHostname("127.0.0.1").setPort(freePort());
+        ApplicationEntity ae = new ApplicationEntity().setAETitle("STORESCP").addConnection(remote);
+        ae.addTransferCapability(new TransferCapability()
+                .setSOPClass("*")
+                .setTransferSyntaxes(UID.ImplicitVRLittleEndian)
+                .setRole(TransferCapability.Role.SCP));
+        new Device().setDeviceName("storescp").addApplicationEntity(ae).addConnection(remote);
+        ssc = scp.bind(remote);
+    }
+
+    AssociationPool pool() {
+        return new AssociationPool(scu, new Connection());
+    }
+
+    AAssociate.RQ rq() {
+        AAssociate.RQ rq = new AAssociate.RQ();
+        rq.setCallingAETitle("STORESCU");
+        rq.setCalledAETitle("STORESCP");
+        rq.putPresentationContext((byte) 1, UID.VerificationSOPClass, UID.ImplicitVRLittleEndian);
+        rq.putPresentationContext((byte) 3, UID.CTImageStorage, UID.ImplicitVRLittleEndian);
+        return rq;
+    }
+
+    CompletableFuture<Association> open(Connection local, AAssociate.RQ rq) throws IOException {
+        return scu.connect(local, remote).thenCompose(as -> as.open(rq));
+    }
+
+    @Override
+    public void close() throws IOException {
+        ssc.close();
+        scu.close();
+        scp.close();
+    }
+
+    private static void startDaemon(Runnable connector) {
+        Thread thread = new Thread(connector);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket ss = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            return ss.getLocalPort();
+        }
+    }
+}
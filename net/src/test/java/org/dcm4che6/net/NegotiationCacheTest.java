@@ -0,0 +1,59 @@
+package org.dcm4che6.net;
+
+import org.dcm4che6.conf.model.ApplicationEntity;
+import org.dcm4che6.conf.model.TransferCapability;
+import org.dcm4che6.data.UID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class NegotiationCacheTest {
+
+    @Test
+    void negotiate() {
+        ApplicationEntity ae = new ApplicationEntity()
+                .addTransferCapability(new TransferCapability()
+                        .setSOPClass(UID.CTImageStorage)
+                        .setTransferSyntaxes(UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian))
+                .addTransferCapability(new TransferCapability()
+                        .setSOPClass("*")
+                        .setRole(TransferCapability.Role.SCU)
+                        .setTransferSyntaxes("*"));
+        NegotiationCache cache = new NegotiationCache();
+        AAssociate.RQ.PresentationContext ct = new AAssociate.RQ.PresentationContext(UID.CTImageStorage,
+                UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian);
+        NegotiationCache.Outcome outcome = cache.negotiate(ae, ct, null);
+        assertEquals(AAssociate.AC.Result.ACCEPTANCE, outcome.result);
+        assertEquals(UID.ExplicitVRLittleEndian, outcome.transferSyntax);
+        assertNull(outcome.roleSelection);
+        assertSame(outcome, cache.negotiate(ae, ct, null));
+
+        NegotiationCache.Outcome scu = cache.negotiate(ae, ct, AAssociate.RoleSelection.BOTH);
+        assertEquals(AAssociate.RoleSelection.BOTH, scu.roleSelection);
+
+        NegotiationCache.Outcome sc = cache.negotiate(ae, new AAssociate.RQ.PresentationContext(
+                UID.SecondaryCaptureImageStorage, UID.ImplicitVRLittleEndian), null);
+        assertEquals(AAssociate.AC.Result.ABSTRACT_SYNTAX_NOT_SUPPORTED, sc.result);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void invalidateOnConfigurationChange() {
+        TransferCapability tc = new TransferCapability()
+                .setSOPClass(UID.CTImageStorage)
+                .setTransferSyntaxes(UID.ImplicitVRLittleEndian);
+        ApplicationEntity ae = new ApplicationEntity().addTransferCapability(tc);
+        NegotiationCache cache = new NegotiationCache();
+        AAssociate.RQ.PresentationContext pc = new AAssociate.RQ.PresentationContext(UID.CTImageStorage,
+                UID.ExplicitVRLittleEndian);
+        assertEquals(AAssociate.AC.Result.TRANSFER_SYNTAXES_NOT_SUPPORTED, cache.negotiate(ae, pc, null).result);
+        tc.setTransferSyntaxes(UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian);
+        assertEquals(AAssociate.AC.Result.ACCEPTANCE, cache.negotiate(ae, pc, null).result);
+        ae.removeTransferCapability(tc);
+        assertEquals(AAssociate.AC.Result.ABSTRACT_SYNTAX_NOT_SUPPORTED, cache.negotiate(ae, pc, null).result);
+    }
+}
@@ -0,0 +1,163 @@
+package org.dcm4che6.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class ReadCursorTest {
+
+    @Test
+    void getIntAcrossBuffers() throws EOFException {
+        ReadCursor cursor = cursorOf(bytes(0x01, 0x02, 0x03), bytes(0x04, 0x05), bytes(0x06, 0x07, 0x08));
+        assertEquals(0x01020304, cursor.getInt());
+        assertEquals(1, cursor.remaining());
+        assertEquals(0x05060708, cursor.getInt());
+        assertFalse(cursor.hasRemaining());
+        assertThrows(EOFException.class, cursor::get);
+    }
+
+    @Test
+    void getUnsignedShortAcrossBuffers() throws EOFException {
+        ReadCursor cursor = cursorOf(bytes(0x01), bytes(0xff, 0xfe), bytes(0x02));
+        assertEquals(0x01, cursor.peek());
+        assertEquals(0x01ff, cursor.getUnsignedShort());
+        assertEquals(0xfe02, cursor.getUnsignedShort());
+    }
+
+    @Test
+    void sliceWithinBuffer() throws EOFException {
+        ReadCursor cursor = cursorOf(bytes(1, 2, 3, 4), bytes(5));
+        ByteBuffer slice = cursor.slice(2);
+        assertEquals(2, slice.remaining());
+        assertEquals(1, slice.get(0));
+        assertEquals(2, slice.get(1));
+        assertEquals(3, cursor.get());
+    }
+
+    @Test
+    void sliceAcrossBuffers() throws EOFException {
+        ReadCursor cursor = cursorOf(bytes(1, 2), bytes(3), bytes(4, 5, 6));
+        cursor.get();
+        ByteBuffer slice = cursor.slice(4);
+        byte[] b = new byte[slice.remaining()];
+        slice.get(b);
+        assertArrayEquals(new byte[]{ 2, 3, 4, 5 }, b);
+        assertEquals(1, cursor.remaining());
+        assertEquals(6, cursor.get());
+    }
+
+    @Test
+    void skip() throws EOFException {
+        ReadCursor cursor = cursorOf(bytes(1, 2, 3), bytes(4, 5, 6, 7));
+        assertEquals(0, cursor.skip(0));
+        assertEquals(3, cursor.skip(5));
+        assertEquals(2, cursor.skip(2));
+        assertEquals(6, cursor.get());
+    }
+
+    @Test
+    void skipFully() throws EOFException {
+        ReadCursor cursor = cursorOf(bytes(1, 2), bytes(3), bytes(4, 5, 6));
+        cursor.skipFully(5);
+        assertEquals(6, cursor.get());
+        assertThrows(EOFException.class, () -> cursor.skipFully(1));
+    }
+
+    @Test
+    void writePartialLastBuffer() throws IOException {
+        ReadCursor cursor = cursorOf(bytes(1, 2, 3), bytes(4, 5), bytes(6, 7, 8, 9));
+        cursor.get();
+        TrickleChannel channel = new TrickleChannel(3);
+        int n = 0;
+        while (n < 6) {
+            n += cursor.write(channel, 6 - n);
+        }
+        assertArrayEquals(new byte[]{ 2, 3, 4, 5, 6, 7 }, channel.out.toByteArray());
+        assertEquals(2, cursor.remaining());
+        assertEquals(8, cursor.get());
+        assertEquals(9, cursor.get());
+    }
+
+    @Test
+    void releaseConsumedBuffers() throws EOFException {
+        ByteBuffer first = ByteBufferPool.allocate();
+        first.put(new byte[]{ 1, 2 }).flip();
+        ByteBuffer second = ByteBufferPool.allocate();
+        second.put(new byte[]{ 3, 4 }).flip();
+        ReadCursor cursor = cursorOf(first, second);
+        assertEquals(0x0102, cursor.getUnsignedShort());
+        long pooledBytes = ByteBufferPool.getPooledBytes();
+        assertEquals(3, cursor.get());
+        assertEquals(pooledBytes + first.capacity(), ByteBufferPool.getPooledBytes());
+        assertEquals(4, cursor.get());
+        cursor.clear();
+        assertEquals(pooledBytes + first.capacity() + second.capacity(), ByteBufferPool.getPooledBytes());
+        assertFalse(cursor.hasRemaining());
+    }
+
+    private static ByteBuffer bytes(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length);
+        for (int value : values) {
+            buffer.put((byte) value);
+        }
+        return buffer.flip();
+    }
+
+    private static ReadCursor cursorOf(ByteBuffer... buffers) {
+        Queue<ByteBuffer> queue = new ArrayDeque<>(List.of(buffers));
+        return new ReadCursor(queue::poll);
+    }
+
+    private static class TrickleChannel implements GatheringByteChannel {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int maxBytesPerWrite;
+
+        TrickleChannel(int maxBytesPerWrite) {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            int n = 0;
+            for (int i = offset; i < offset + length && n < maxBytesPerWrite; i++) {
+                while (srcs[i].hasRemaining() && n < maxBytesPerWrite) {
+                    out.write(srcs[i].get());
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{ src }, 0, 1);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
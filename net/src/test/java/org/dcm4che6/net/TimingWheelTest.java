@@ -0,0 +1,104 @@
+package org.dcm4che6.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Gunter Zeilinger (gunterze@protonmail.com)
+ * @since Mar 2020
+ */
+class TimingWheelTest {
+    private final AtomicLong now = new AtomicLong();
+    private final TimingWheel timingWheel = new TimingWheel(Runnable::run, now::get);
+
+    @Test
+    void expire() {
+        AtomicInteger expired = new AtomicInteger();
+        timingWheel.schedule(250, expired::incrementAndGet);
+        advanceTo(299);
+        assertEquals(0, expired.get());
+        advanceTo(300);
+        assertEquals(1, expired.get());
+        advanceTo(1000);
+        assertEquals(1, expired.get());
+        timingWheel.schedule(0, expired::incrementAndGet);
+        advanceTo(1100);
+        assertEquals(2, expired.get());
+    }
+
+    @Test
+    void cancel() {
+        AtomicInteger expired = new AtomicInteger();
+        TimingWheel.Timeout timeout = timingWheel.schedule(100, expired::incrementAndGet);
+        advanceTo(50);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        advanceTo(200);
+        assertEquals(0, expired.get());
+        TimingWheel.Timeout notTransferred = timingWheel.schedule(100, expired::incrementAndGet);
+        assertTrue(notTransferred.cancel());
+        advanceTo(400);
+        assertEquals(0, expired.get());
+    }
+
+    @Test
+    void cancelAfterExpiry() {
+        AtomicInteger expired = new AtomicInteger();
+        TimingWheel.Timeout timeout = timingWheel.schedule(100, expired::incrementAndGet);
+        advanceTo(100);
+        assertEquals(1, expired.get());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void expireAfterMoreThanOneRevolution() {
+        AtomicInteger expired = new AtomicInteger();
+        long delay = 512 * TimingWheel.TICK_MILLIS + 250;
+        timingWheel.schedule(delay, expired::incrementAndGet);
+        timingWheel.schedule(250, expired::incrementAndGet);
+        for (long t = 0; t < delay; t += TimingWheel.TICK_MILLIS) {
+            advanceTo(t);
+            assertEquals(t < 300 ? 0 : 1, expired.get(), "at " + t + " ms");
+        }
+        advanceTo(delay + 50);
+        assertEquals(2, expired.get());
+    }
+
+    @Test
+    void cancelRacingWithExpiry() throws InterruptedException {
+        int n = 10000;
+        AtomicIntegerArray expired = new AtomicIntegerArray(n);
+        AtomicIntegerArray cancelled = new AtomicIntegerArray(n);
+        TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[n];
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            timeouts[i] = timingWheel.schedule(100, () -> expired.incrementAndGet(index));
+        }
+        advanceTo(0);
+        Thread canceller = new Thread(() -> {
+            for (int i = 0; i < n; i++) {
+                if (timeouts[i].cancel()) {
+                    cancelled.incrementAndGet(i);
+                }
+            }
+        });
+        canceller.start();
+        advanceTo(100);
+        canceller.join();
+        advanceTo(200);
+        for (int i = 0; i < n; i++) {
+            assertEquals(1, expired.get(i) + cancelled.get(i), "timeout #" + i);
+        }
+    }
+
+    private void advanceTo(long millis) {
+        now.set(TimeUnit.MILLISECONDS.toNanos(millis));
+        timingWheel.advance();
+    }
+}
@@ -7,7 +7,6 @@ import org.dcm4che6.conf.model.TransferCapability;
 import org.dcm4che6.data.DicomObject;
 import org.dcm4che6.data.Tag;
 import org.dcm4che6.data.UID;
-import org.dcm4che6.io.DicomOutputStream;
 import org.dcm4che6.net.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +67,15 @@ public class StoreSCP implements Callable<Integer>, DimseHandler {
                     "to invoke asynchronously, 0 = unlimited")
     int maxOpsInvoked;
 
+    @CommandLine.Option(names = "--event-loops", paramLabel = "<no>",
+            description = "number of threads selecting ready connections, 0 = select accepted connections " +
+                    "by the thread listening for connections")
+    int eventLoops;
+
+    @CommandLine.Option(names = "--virtual-threads",
+            description = "process each association in a virtual thread; requires Java 21 or newer")
+    boolean virtualThreads;
+
     public static void main(String[] args) {
         new CommandLine(new StoreSCP()).execute(args);
     }
@@ -77,17 +85,21 @@ public class StoreSCP implements Callable<Integer>, DimseHandler {
         if (directory != null) {
             Files.createDirectories(directory);
         }
-        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry().setDefaultRQHandler(this);
-        TCPConnector<Association> inst = new TCPConnector<>(
-                (connector, role) -> new Association(connector, role, serviceRegistry));
-        CompletableFuture<Void> task = CompletableFuture.runAsync(inst);
         Connection local = new Connection().setPort(port);
         ApplicationEntity ae = new ApplicationEntity().setAETitle(called).addConnection(local);
         ae.addTransferCapability(new TransferCapability()
                 .setSOPClass("*")
                 .setTransferSyntaxes("*")
                 .setRole(TransferCapability.Role.SCP));
-        new Device().addApplicationEntity(ae);
+        Device device = new Device().setEventLoopGroupSize(eventLoops).addApplicationEntity(ae);
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry().setDefaultRQHandler(this);
+        TCPConnector<Association> inst = new TCPConnector<>(
+                (connector, role) -> new Association(connector, role, serviceRegistry),
+                device,
+                virtualThreads
+                        ? WorkerExecutors.newVirtualThreadPerTaskExecutor()
+                        : WorkerExecutors.newCachedThreadPool());
+        CompletableFuture<Void> task = CompletableFuture.runAsync(inst);
         inst.bind(local);
         task.join();
         return 0;
@@ -104,17 +116,14 @@ public class StoreSCP implements Callable<Integer>, DimseHandler {
         } else {
             Path file = directory.resolve(commandSet.getStringOrElseThrow(Tag.AffectedSOPInstanceUID));
             LOG.info("Start M-WRITE {}", file);
-            try (DicomOutputStream dos = new DicomOutputStream(
-                    Files.newOutputStream(file))) {
-                dos.writeFileMetaInformation(DicomObject.createFileMetaInformation(
-                        commandSet.getStringOrElseThrow(Tag.AffectedSOPClassUID),
-                        commandSet.getStringOrElseThrow(Tag.AffectedSOPInstanceUID),
-                        as.getTransferSyntax(pcid)));
-                dataStream.transferTo(dos);
-            }
+            StorageSink.write(file, DicomObject.createFileMetaInformation(
+                    commandSet.getStringOrElseThrow(Tag.AffectedSOPClassUID),
+                    commandSet.getStringOrElseThrow(Tag.AffectedSOPInstanceUID),
+                    as.getTransferSyntax(pcid)),
+                    dataStream);
             LOG.info("Finished M-WRITE {}", file);
         }
-        as.writeDimse(pcid, Dimse.C_STORE_RSP, dimse.mkRSP(commandSet));
+        as.writeRSP(pcid, dimse, commandSet, Status.Success);
     }
 
 }
@@ -7,16 +7,15 @@ import org.dcm4che6.data.Tag;
 import org.dcm4che6.data.UID;
 import org.dcm4che6.io.DicomInputHandler;
 import org.dcm4che6.io.DicomInputStream;
-import org.dcm4che6.net.AAssociate;
 import org.dcm4che6.net.Association;
 import org.dcm4che6.net.DicomServiceRegistry;
+import org.dcm4che6.net.FileDataWriter;
+import org.dcm4che6.net.ParallelStoreSCU;
 import org.dcm4che6.net.TCPConnector;
 import picocli.CommandLine;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.lang.ref.PhantomReference;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -81,6 +80,10 @@ public class StoreSCU implements Callable<Integer> {
             description = "maximum number of outstanding operations invoked asynchronously, 0 = unlimited")
     int maxOpsInvoked;
 
+    @CommandLine.Option(names = "--parallel", paramLabel = "<no>",
+            description = "number of concurrent associations over which the objects are distributed")
+    int parallel = 1;
+
     private final List<FileInfo> fileInfos = new ArrayList<>();
 
     public static void main(String[] args) {
@@ -95,34 +98,34 @@ public class StoreSCU implements Callable<Integer> {
             }
         }
         DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
-        AAssociate.RQ rq = new AAssociate.RQ();
-        rq.setCallingAETitle(calling);
-        rq.setCalledAETitle(called);
-        if (maxOpsInvoked != 1) {
-            rq.setAsyncOpsWindow(maxOpsInvoked, 1);
-        }
-        fileInfos.forEach(info -> rq.findOrAddPresentationContext(info.sopClassUID, info.transferSyntax));
         TCPConnector<Association> inst = new TCPConnector<>(
                 (connector, role) -> new Association(connector, role, serviceRegistry));
         CompletableFuture<Void> task = CompletableFuture.runAsync(inst);
-        long t1 = System.currentTimeMillis();
-        Association as = inst.connect(new Connection(), new Connection().setHostname(peer).setPort(port)).join();
-        long t2 = System.currentTimeMillis();
-        System.out.format("Open TCP connection in %d ms%n", t2 - t1);
-        as.open(rq).join();
-        long t3 = System.currentTimeMillis();
-        System.out.format("Open DICOM association in %d ms%n", t3 - t2);
-        long totLength = 0;
+        ParallelStoreSCU storescu = new ParallelStoreSCU(inst, new Connection(),
+                new Connection().setHostname(peer).setPort(port))
+                .setCallingAETitle(calling)
+                .setCalledAETitle(called)
+                .setMaxOpsInvoked(maxOpsInvoked)
+                .setParallelism(parallel);
+        List<ParallelStoreSCU.Instance> instances = new ArrayList<>(fileInfos.size());
         for (FileInfo fileInfo : fileInfos) {
-            as.cstore(fileInfo.sopClassUID, fileInfo.sopInstanceUID, fileInfo, fileInfo.transferSyntax);
-            totLength += fileInfo.length;
+            instances.add(new ParallelStoreSCU.Instance(fileInfo.sopClassUID, fileInfo.sopInstanceUID,
+                    fileInfo.transferSyntax, fileInfo.length,
+                    new FileDataWriter(fileInfo.path, fileInfo.position, fileInfo.length)));
+        }
+        long t1 = System.currentTimeMillis();
+        List<ParallelStoreSCU.Result> results = storescu.send(instances).join();
+        long dt = System.currentTimeMillis() - t1;
+        for (ParallelStoreSCU.Result result : results) {
+            System.out.format("Association #%d: opened in %d ms, sent %d objects (%f MB) in %d ms (%f MB/s)%n",
+                    result.index + 1, result.getOpenMillis(), result.getSentObjects(),
+                    result.getSentBytes() / 1000000.f, result.getMillis(), result.getMegabytesPerSecond());
+            result.getError().ifPresent(e -> System.out.format("Association #%d failed: %s%n", result.index + 1, e));
         }
-        as.release().join();
-        long t4 = System.currentTimeMillis();
-        long dt = t4 - t3;
-        System.out.format("Send %d objects (%f MB) in %d ms (%f MB/s)%n",
-                fileInfos.size(), totLength / 1000000.f, dt, totLength / (dt * 1000.f));
-        as.onClose().join();
+        long totLength = storescu.getSentBytes();
+        System.out.format("Send %d objects (%f MB) over %d associations in %d ms (%f MB/s), %d failed%n",
+                storescu.getSentObjects(), totLength / 1000000.f, results.size(), dt, totLength / (dt * 1000.f),
+                storescu.getFailures());
         task.cancel(true);
         return 0;
     }
@@ -148,7 +151,7 @@ public class StoreSCU implements Callable<Integer> {
         }
     }
 
-    private static class FileInfo implements Association.DataWriter, DicomInputHandler {
+    private static class FileInfo implements DicomInputHandler {
         Path path;
         String sopClassUID;
         String sopInstanceUID;
@@ -156,14 +159,6 @@ public class StoreSCU implements Callable<Integer> {
         long position;
         long length;
 
-        @Override
-        public void writeTo(OutputStream out, String tsuid) throws IOException {
-            try (InputStream in = Files.newInputStream(path)) {
-                in.skipNBytes(position);
-                in.transferTo(out);
-            }
-        }
-
         @Override
         public boolean endElement(DicomInputStream dis, DicomElement dcmElm, boolean bulkData) throws IOException {
             switch (dcmElm.tag()) {